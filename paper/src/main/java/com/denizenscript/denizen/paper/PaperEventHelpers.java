@@ -2,9 +2,13 @@ package com.denizenscript.denizen.paper;
 
 import com.denizenscript.denizen.objects.InventoryTag;
 import com.denizenscript.denizen.scripts.containers.core.InventoryScriptContainer;
+import com.denizenscript.denizen.utilities.entity.EntityIndex;
 import com.denizenscript.denizencore.objects.core.ScriptTag;
+import com.destroystokyo.paper.event.entity.EntityAddToWorldEvent;
+import com.destroystokyo.paper.event.entity.EntityRemoveFromWorldEvent;
 import com.destroystokyo.paper.event.player.PlayerRecipeBookClickEvent;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 
 public class PaperEventHelpers implements Listener {
@@ -18,4 +22,14 @@ public class PaperEventHelpers implements Listener {
             }
         }
     }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityAddToWorld(EntityAddToWorldEvent event) {
+        EntityIndex.track(event.getEntity());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityRemoveFromWorld(EntityRemoveFromWorldEvent event) {
+        EntityIndex.loadedEntities.remove(event.getEntity().getUniqueId(), event.getEntity());
+    }
 }
@@ -3,9 +3,11 @@ package com.denizenscript.denizen.paper.events;
 import com.denizenscript.denizen.events.entity.AreaEnterExitScriptEvent;
 import com.denizenscript.denizen.objects.EntityTag;
 import com.denizenscript.denizen.objects.LocationTag;
+import com.denizenscript.denizen.utilities.NotedAreaTracker;
 import com.denizenscript.denizencore.objects.ObjectTag;
 import com.denizenscript.denizencore.objects.core.ElementTag;
 import io.papermc.paper.event.entity.EntityMoveEvent;
+import org.bukkit.entity.Entity;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.entity.EntityDeathEvent;
 
@@ -36,13 +38,27 @@ public class AreaEnterExitScriptEventPaperImpl extends AreaEnterExitScriptEvent
 
         @EventHandler
         public void onEntityMove(EntityMoveEvent event) {
-            if (event.getEntity().isValid()) {
-                processNewPosition(new EntityTag(event.getEntity()), event.getTo(), event);
+            Entity entity = event.getEntity();
+            if (trackedEntityTypes != null && !trackedEntityTypes.contains(entity.getType())) {
+                return;
+            }
+            if (LocationTag.isSameBlock(event.getFrom(), event.getTo())) {
+                return;
+            }
+            // An entity that isn't in any area only needs checking if its new chunk might have an area in it
+            if (!entitiesInArea.containsKey(entity.getUniqueId()) && !NotedAreaTracker.mightHaveAreaInChunk(event.getTo())) {
+                return;
+            }
+            if (entity.isValid()) {
+                processNewPosition(new EntityTag(entity), event.getTo(), event);
             }
         }
 
         @EventHandler
         public void onEntityDeath(EntityDeathEvent event) {
+            if (!entitiesInArea.containsKey(event.getEntity().getUniqueId())) {
+                return;
+            }
             processNewPosition(new EntityTag(event.getEntity()), null, event);
         }
     }
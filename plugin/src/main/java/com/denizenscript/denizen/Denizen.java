@@ -1,5 +1,6 @@
 package com.denizenscript.denizen;
 
+import com.denizenscript.denizen.events.BukkitScriptEvent;
 import com.denizenscript.denizen.events.ScriptEventRegistry;
 import com.denizenscript.denizen.events.bukkit.SavesReloadEvent;
 import com.denizenscript.denizen.events.server.ServerPrestartScriptEvent;
@@ -25,13 +26,16 @@ import com.denizenscript.denizen.utilities.command.manager.messaging.Messaging;
 import com.denizenscript.denizen.utilities.debugging.BStatsMetricsLite;
 import com.denizenscript.denizen.utilities.debugging.DebugSubmit;
 import com.denizenscript.denizen.utilities.debugging.StatsRecord;
+import com.denizenscript.denizen.utilities.world.PathFinder;
 import com.denizenscript.denizen.utilities.world.WorldListChangeTracker;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
 import com.denizenscript.denizen.utilities.depends.Depends;
 import com.denizenscript.denizen.utilities.entity.DenizenEntityType;
+import com.denizenscript.denizen.utilities.entity.EntityIndex;
 import com.denizenscript.denizen.utilities.flags.PlayerFlagHandler;
 import com.denizenscript.denizen.utilities.flags.WorldFlagHandler;
 import com.denizenscript.denizen.utilities.implementation.DenizenCoreImplementation;
+import com.denizenscript.denizen.utilities.inventory.InventoryContentIndex;
 import com.denizenscript.denizen.utilities.maps.DenizenMapManager;
 import com.denizenscript.denizen.nms.NMSHandler;
 import com.denizenscript.denizen.nms.interfaces.FakeArrow;
@@ -84,6 +88,8 @@ public class Denizen extends JavaPlugin {
 
     public static boolean hasTickedOnce = false;
 
+    public static long currentTick = 0;
+
     public static String versionTag = null;
     private boolean startedSuccessful = false;
 
@@ -411,6 +417,8 @@ public class Denizen extends JavaPlugin {
                     Bukkit.shutdown();
                 }
                 Bukkit.getScheduler().scheduleSyncRepeatingTask(Denizen.this, () -> {
+                    currentTick++;
+                    BukkitScriptEvent.runPendingAsyncFires();
                     DenizenCore.tick(50); // Sadly, minecraft has no delta timing, so a tick is always 50ms.
                 }, 1, 1);
                 InventoryTag.setupInventoryTracker();
@@ -458,6 +466,10 @@ public class Denizen extends JavaPlugin {
             }
         }.runTaskTimer(this, 100, 20 * 60 * 5);
         Bukkit.getPluginManager().registerEvents(new WorldListChangeTracker(), this);
+        EntityIndex.init();
+        Bukkit.getPluginManager().registerEvents(new EntityIndex(), this);
+        Bukkit.getPluginManager().registerEvents(new InventoryContentIndex(), this);
+        Bukkit.getPluginManager().registerEvents(new PathFinder(), this);
     }
 
     public boolean hasDisabled = false;
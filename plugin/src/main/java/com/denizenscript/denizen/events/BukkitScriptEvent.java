@@ -3,12 +3,15 @@ package com.denizenscript.denizen.events;
 import com.denizenscript.denizen.Denizen;
 import com.denizenscript.denizen.npc.traits.AssignmentTrait;
 import com.denizenscript.denizen.objects.*;
+import com.denizenscript.denizen.scripts.containers.core.EntityScriptContainer;
 import com.denizenscript.denizen.scripts.containers.core.EntityScriptHelper;
 import com.denizenscript.denizen.scripts.containers.core.InventoryScriptHelper;
 import com.denizenscript.denizen.scripts.containers.core.ItemScriptHelper;
 import com.denizenscript.denizen.tags.BukkitTagContext;
 import com.denizenscript.denizen.utilities.NotedAreaTracker;
+import com.denizenscript.denizen.utilities.debugging.ScriptEventProfiler;
 import com.denizenscript.denizen.utilities.implementation.BukkitScriptEntryData;
+import com.denizenscript.denizen.utilities.inventory.CompiledItemMatcher;
 import com.denizenscript.denizen.utilities.inventory.SlotHelper;
 import com.denizenscript.denizencore.flags.AbstractFlagTracker;
 import com.denizenscript.denizencore.flags.FlaggableObject;
@@ -16,6 +19,7 @@ import com.denizenscript.denizencore.objects.ObjectTag;
 import com.denizenscript.denizencore.objects.core.JavaReflectedObjectTag;
 import com.denizenscript.denizencore.objects.notable.Notable;
 import com.denizenscript.denizencore.objects.notable.NoteManager;
+import com.denizenscript.denizencore.scripts.ScriptRegistry;
 import com.denizenscript.denizencore.tags.TagContext;
 import com.denizenscript.denizencore.utilities.CoreConfiguration;
 import com.denizenscript.denizencore.utilities.Deprecations;
@@ -28,15 +32,17 @@ import org.bukkit.Material;
 import org.bukkit.entity.*;
 import org.bukkit.event.*;
 import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.EventExecutor;
 import org.bukkit.plugin.IllegalPluginAccessException;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.RegisteredListener;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.Function;
 
 public abstract class BukkitScriptEvent extends ScriptEvent {
@@ -504,6 +510,45 @@ public abstract class BukkitScriptEvent extends ScriptEvent {
 
     public List<Map.Entry<RegisteredListener, HandlerList>> registeredHandlers;
 
+    /**
+     * Registrations left over from the last 'destroy', which stay registered so that a re-init with the same listener and priority
+     * can take them back without touching the HandlerList (which would force Bukkit to re-bake it).
+     * Whatever isn't taken back by the end of the script reload is unregistered by 'unregisterStaleHandlers'.
+     */
+    public List<Map.Entry<RegisteredListener, HandlerList>> staleHandlers;
+
+    /**
+     * Whether the current handlers were registered with the profiler's timing wrapper (ie the profiler was enabled at the time).
+     * Stale handlers are only taken back if this still matches the profiler setting.
+     */
+    public boolean handlersProfiled;
+
+    public static final List<BukkitScriptEvent> eventsWithStaleHandlers = new ArrayList<>();
+
+    public static boolean staleCleanupScheduled = false;
+
+    public static void unregisterStaleHandlers() {
+        staleCleanupScheduled = false;
+        for (BukkitScriptEvent event : eventsWithStaleHandlers) {
+            if (event.staleHandlers != null) {
+                for (Map.Entry<RegisteredListener, HandlerList> handler : event.staleHandlers) {
+                    handler.getValue().unregister(handler.getKey());
+                }
+                event.staleHandlers = null;
+            }
+        }
+        eventsWithStaleHandlers.clear();
+    }
+
+    public void unregisterHandlers() {
+        if (registeredHandlers != null) {
+            for (Map.Entry<RegisteredListener, HandlerList> handler : registeredHandlers) {
+                handler.getValue().unregister(handler.getKey());
+            }
+            registeredHandlers = null;
+        }
+    }
+
     // <--[language]
     // @name Bukkit Event Priority
     // @group Script Events
@@ -518,22 +563,229 @@ public abstract class BukkitScriptEvent extends ScriptEvent {
     // The default priority is "normal".
     // -->
 
+    /**
+     * Events fired off the main thread, waiting to be fired on the main thread.
+     * Filled from any thread, and drained once per tick by 'runPendingAsyncFires'.
+     */
+    public static final ConcurrentLinkedQueue<BukkitScriptEvent> pendingAsyncFires = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The maximum time per tick to spend firing queued async events, in nanoseconds (0 for unlimited).
+     * Anything left over waits for the next tick, in order.
+     */
+    public static long asyncFireBudgetNanos = 10_000_000L;
+
+    public static void runPendingAsyncFires() {
+        if (pendingAsyncFires.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        BukkitScriptEvent event;
+        while ((event = pendingAsyncFires.poll()) != null) {
+            try {
+                event.fire();
+            }
+            catch (Throwable ex) {
+                Debug.echoError(ex);
+            }
+            if (asyncFireBudgetNanos > 0 && System.nanoTime() - start > asyncFireBudgetNanos) {
+                return;
+            }
+        }
+    }
+
     @Override
     public ScriptEvent fire() {
         if (!Bukkit.isPrimaryThread()) {
+            // Only the no-paths case can be skipped here: whether a path matches can't be checked safely off the main thread
+            // ('eventPaths' itself may be a narrowed, possibly empty, list if the main thread is mid-fire, so check the full list)
+            if (getAllPaths().isEmpty()) {
+                return this;
+            }
             if (CoreConfiguration.debugVerbose) {
                 Debug.log("Event is firing async: " + getName());
             }
             BukkitScriptEvent altEvent = (BukkitScriptEvent) clone();
-            new BukkitRunnable() {
-                @Override
-                public void run() {
-                    altEvent.fire();
-                }
-            }.runTask(Denizen.getInstance());
+            pendingAsyncFires.add(altEvent);
             return altEvent;
         }
-        return super.fire();
+        List<ScriptPath> paths = pathBucketValue == null ? getAllPaths() : getBucketPaths();
+        if (ScriptEventProfiler.enabled) {
+            getEventProfile().fires++;
+            if (profiledTick != Denizen.currentTick && profileDepth == 0 && !paths.isEmpty()) {
+                profiledTick = Denizen.currentTick;
+                return ScriptEventProfiler.profileFire(this, paths);
+            }
+        }
+        return fireWithPaths(paths);
+    }
+
+    public ScriptEventProfiler.EventProfile eventProfile;
+
+    public ScriptEventProfiler.EventProfile getEventProfile() {
+        if (eventProfile == null) {
+            eventProfile = ScriptEventProfiler.getEventProfile(getName());
+        }
+        return eventProfile;
+    }
+
+    /**
+     * The tick this event last had a fire sampled by the profiler.
+     */
+    public long profiledTick = -1;
+
+    /**
+     * When the Bukkit listener for this event was entered, if the current tick hasn't been sampled yet, otherwise 0.
+     */
+    public long listenerStartNanos;
+
+    /**
+     * The 'fireDepth' of the fire being sampled by the profiler, or 0 if none is. Fires of this same event from within a sampled fire aren't sampled.
+     */
+    public int profileDepth;
+
+    /**
+     * When the sampled fire's current path finished its match checks, or 0 if it hasn't matched.
+     */
+    public long profileMatchedNanos;
+
+    /**
+     * Script paths grouped by the exact literal value of the event's primary matchable argument.
+     * Each bucket list holds that literal's paths together with every path that must always be checked, in their original order,
+     * so firing with a bucket list runs paths in the same order (and so with the same priority semantics) as the full list would.
+     */
+    public static final class PathBuckets {
+
+        public final List<ScriptPath> source;
+
+        public final int sourceSize;
+
+        public final HashMap<Object, List<ScriptPath>> buckets = new HashMap<>();
+
+        public final List<ScriptPath> generic = new ArrayList<>();
+
+        public PathBuckets(List<ScriptPath> source) {
+            this.source = source;
+            this.sourceSize = source.size();
+        }
+    }
+
+    public PathBuckets pathBuckets;
+
+    /**
+     * The event's full path list while a fire of this event is running (set by the outermost fire), or null when not firing.
+     * Fires of this same event from within a running script must select their paths from this, as 'eventPaths' may be narrowed at the time.
+     */
+    public List<ScriptPath> firingAllPaths;
+
+    /**
+     * How many fires of this event are currently running (more than 1 when a script fires this same event again).
+     */
+    public int fireDepth;
+
+    /**
+     * Incremented by 'destroy', so that a fire can tell whether a script reload happened while it was running.
+     */
+    public int destroyCount;
+
+    /**
+     * Returns the event's full path list, even while a fire with narrowed paths is running.
+     */
+    public List<ScriptPath> getAllPaths() {
+        return firingAllPaths == null ? eventPaths : firingAllPaths;
+    }
+
+    /**
+     * The primary matchable value (eg a Material or EntityType) of the event currently being fired,
+     * for events that implement 'getPathBucketKey'. Must be set by the handler before every fire, or left null to check all paths.
+     */
+    public Object pathBucketValue;
+
+    /**
+     * Events with one high-cardinality primary matchable argument can override this to return the exact value a path requires for that argument,
+     * or null if the path uses any other matcher (wildcards, lists, tags, scripts, ...) and so must always be checked.
+     * Use 'getMaterialBucketKey' or 'getEntityTypeBucketKey' to build the key.
+     */
+    public Object getPathBucketKey(ScriptPath path) {
+        return null;
+    }
+
+    public static Object getMaterialBucketKey(String matcher) {
+        if (!CompiledItemMatcher.isSimplePart(matcher)) {
+            return null;
+        }
+        return Material.getMaterial(CoreUtilities.toUpperCase(matcher));
+    }
+
+    public static Object getEntityTypeBucketKey(String matcher) {
+        if (!vanillaEntityTypeNames.contains(matcher) || ScriptRegistry.containsScript(matcher, EntityScriptContainer.class)) {
+            return null;
+        }
+        return EntityType.valueOf(CoreUtilities.toUpperCase(matcher));
+    }
+
+    public PathBuckets buildPathBuckets(List<ScriptPath> allPaths) {
+        PathBuckets result = new PathBuckets(allPaths);
+        Object[] keys = new Object[allPaths.size()];
+        HashSet<Object> distinctKeys = new HashSet<>();
+        for (int i = 0; i < keys.length; i++) {
+            ScriptPath path = allPaths.get(i);
+            keys[i] = getPathBucketKey(path);
+            if (keys[i] == null) {
+                result.generic.add(path);
+            }
+            else {
+                distinctKeys.add(keys[i]);
+            }
+        }
+        for (Object key : distinctKeys) {
+            List<ScriptPath> bucket = new ArrayList<>();
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == null || keys[i] == key) {
+                    bucket.add(allPaths.get(i));
+                }
+            }
+            result.buckets.put(key, bucket);
+        }
+        return result;
+    }
+
+    public List<ScriptPath> getBucketPaths() {
+        List<ScriptPath> allPaths = getAllPaths();
+        if (pathBuckets == null || pathBuckets.source != allPaths || pathBuckets.sourceSize != allPaths.size()) {
+            pathBuckets = buildPathBuckets(allPaths);
+        }
+        List<ScriptPath> bucket = pathBuckets.buckets.get(pathBucketValue);
+        return bucket == null ? pathBuckets.generic : bucket;
+    }
+
+    /**
+     * Fires for only the given paths, which must be this event's full path list or a subset of it in the original order.
+     * Core's fire loop reads 'eventPaths', so the given list is put there for the fire, and whatever was there before is always put back after,
+     * including when a script fires this same event again from within the fire.
+     */
+    public ScriptEvent fireWithPaths(List<ScriptPath> paths) {
+        List<ScriptPath> previousPaths = eventPaths;
+        boolean outermost = firingAllPaths == null;
+        if (outermost) {
+            firingAllPaths = previousPaths;
+        }
+        int destroyed = destroyCount;
+        fireDepth++;
+        eventPaths = paths;
+        try {
+            return super.fire();
+        }
+        finally {
+            fireDepth--;
+            // A script reload while firing will have replaced the path list, so keep whatever it set
+            if (destroyCount == destroyed) {
+                eventPaths = previousPaths;
+                if (outermost) {
+                    firingAllPaths = null;
+                }
+            }
+        }
     }
 
     @Override
@@ -546,8 +798,134 @@ public abstract class BukkitScriptEvent extends ScriptEvent {
 
     public Event currentEvent = null;
 
+    /**
+     * A context object that is only built when first needed during a fire: either by a path's matcher or switch checks,
+     * by a path fully matching, or by a context tag.
+     * The builder must only read the event's own raw fields, so that clones of the event build their own values.
+     * Register these once, as instance fields, via 'lazyContext'. Read them with 'getLazy'.
+     */
+    public static final class LazyContext<T> {
+
+        public final int index;
+
+        public final Function<BukkitScriptEvent, T> builder;
+
+        public LazyContext(int index, Function<BukkitScriptEvent, T> builder) {
+            this.index = index;
+            this.builder = builder;
+        }
+    }
+
+    private static final Object LAZY_NULL = new Object();
+
+    public List<LazyContext<?>> lazyContexts;
+
+    public Object[] lazyValues;
+
+    @SuppressWarnings("unchecked")
+    public <E extends BukkitScriptEvent, T> LazyContext<T> lazyContext(Function<E, T> builder) {
+        if (lazyContexts == null) {
+            lazyContexts = new ArrayList<>();
+        }
+        LazyContext<T> context = new LazyContext<>(lazyContexts.size(), (Function<BukkitScriptEvent, T>) builder);
+        lazyContexts.add(context);
+        lazyValues = new Object[lazyContexts.size()];
+        return context;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T getLazy(LazyContext<T> context) {
+        Object value = lazyValues[context.index];
+        if (value == null) {
+            value = context.builder.apply(this);
+            lazyValues[context.index] = value == null ? LAZY_NULL : value;
+        }
+        return value == LAZY_NULL ? null : (T) value;
+    }
+
+    public void resetLazyContexts() {
+        if (lazyValues != null) {
+            Arrays.fill(lazyValues, null);
+        }
+    }
+
+    /**
+     * Builds any lazy context not yet built, so that a matched path sees the event as it was when it fired, even if an earlier path's script changed things.
+     */
+    public void buildLazyContexts() {
+        if (lazyContexts != null) {
+            for (LazyContext<?> context : lazyContexts) {
+                getLazy(context);
+            }
+        }
+    }
+
+    @Override
+    public boolean matches(ScriptPath path) {
+        if (!super.matches(path)) {
+            return false;
+        }
+        buildLazyContexts();
+        if (profileDepth != 0 && profileDepth == fireDepth && profileMatchedNanos == 0) {
+            profileMatchedNanos = System.nanoTime();
+        }
+        return true;
+    }
+
+    @Override
+    public BukkitScriptEvent clone() {
+        BukkitScriptEvent event = (BukkitScriptEvent) super.clone();
+        if (lazyValues != null) {
+            event.lazyValues = lazyValues.clone();
+        }
+        if (firingAllPaths != null) {
+            // Cloned mid-fire (eg for an async fire), so the clone shouldn't inherit the narrowed paths
+            event.eventPaths = firingAllPaths;
+            event.firingAllPaths = null;
+        }
+        event.fireDepth = 0;
+        event.profileDepth = 0;
+        return event;
+    }
+
+    /**
+     * Matches an item matcher against a raw item, using a compiled matcher for simple matchers,
+     * and only building the lazy ItemTag when the matcher needs the full item matching logic.
+     */
+    public boolean tryItemMatcher(String matcher, ItemStack item, LazyContext<ItemTag> tag) {
+        CompiledItemMatcher compiled = CompiledItemMatcher.compile(matcher);
+        if (compiled.isSimple()) {
+            return compiled.matches(item == null ? new ItemStack(Material.AIR) : item);
+        }
+        return getLazy(tag).tryAdvancedMatcher(matcher);
+    }
+
+    public static HashSet<String> vanillaEntityTypeNames = new HashSet<>();
+
+    static {
+        for (EntityType type : EntityType.values()) {
+            vanillaEntityTypeNames.add(CoreUtilities.toLowerCase(type.name()));
+        }
+    }
+
+    /**
+     * Cheap pre-check of an entity matcher against a raw entity, to avoid building an EntityTag for paths that can't match.
+     * Returns false only if the matcher is a single vanilla entity type name (that isn't also an entity script name) that differs from the entity's type.
+     * Otherwise returns true, and the full EntityTag matcher must still be checked.
+     */
+    public static boolean couldMatchEntityType(String matcher, Entity entity) {
+        if (entity == null || !vanillaEntityTypeNames.contains(matcher)) {
+            return true;
+        }
+        if (matcher.equals(CoreUtilities.toLowerCase(entity.getType().name()))) {
+            return true;
+        }
+        return ScriptRegistry.containsScript(matcher, EntityScriptContainer.class);
+    }
+
     public void fire(Event event) {
         currentEvent = event;
+        resetLazyContexts();
         if (event instanceof Cancellable) {
             cancelled = ((Cancellable) event).isCancelled();
         }
@@ -567,17 +945,34 @@ public abstract class BukkitScriptEvent extends ScriptEvent {
 
     @Override
     public void destroy() {
+        pathBuckets = null;
+        firingAllPaths = null;
+        destroyCount++;
         if (priorityHandlers != null) {
             for (BukkitScriptEvent event : priorityHandlers.values()) {
-                event.destroy();
+                // Priority handlers are new clones on every init, so their registrations can never be taken back
+                event.unregisterHandlers();
             }
             priorityHandlers = null;
         }
         if (registeredHandlers != null) {
-            for (Map.Entry<RegisteredListener, HandlerList> handler : registeredHandlers) {
-                handler.getValue().unregister(handler.getKey());
+            if (!Denizen.getInstance().isEnabled()) {
+                unregisterHandlers();
+                return;
+            }
+            if (staleHandlers == null) {
+                staleHandlers = registeredHandlers;
+                eventsWithStaleHandlers.add(this);
+            }
+            else {
+                staleHandlers.addAll(registeredHandlers);
             }
             registeredHandlers = null;
+            if (!staleCleanupScheduled) {
+                staleCleanupScheduled = true;
+                // Normally cleaned up at the end of the script reload, this is just a fallback
+                Bukkit.getScheduler().runTask(Denizen.getInstance(), BukkitScriptEvent::unregisterStaleHandlers);
+            }
         }
     }
 
@@ -603,6 +998,7 @@ public abstract class BukkitScriptEvent extends ScriptEvent {
                         handler.eventPaths = new ArrayList<>();
                         handler.priorityHandlers = null;
                         handler.registeredHandlers = null;
+                        handler.pathBuckets = null;
                         priorityHandlers.put(priority, handler);
                         handler.initForPriority(priority, (Listener) handler);
                     }
@@ -624,11 +1020,37 @@ public abstract class BukkitScriptEvent extends ScriptEvent {
         if (registeredHandlers == null) {
             registeredHandlers = new ArrayList<>();
         }
+        if (staleHandlers != null && handlersProfiled == ScriptEventProfiler.enabled) {
+            boolean reused = false;
+            Iterator<Map.Entry<RegisteredListener, HandlerList>> iterator = staleHandlers.iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<RegisteredListener, HandlerList> handler = iterator.next();
+                if (handler.getKey().getListener() == listener && handler.getKey().getPriority() == priority) {
+                    registeredHandlers.add(handler);
+                    iterator.remove();
+                    reused = true;
+                }
+            }
+            if (reused) {
+                return;
+            }
+        }
         Plugin plugin = Denizen.getInstance();
+        handlersProfiled = ScriptEventProfiler.enabled;
         for (Map.Entry<Class<? extends Event>, Set<RegisteredListener>> entry :
                 plugin.getPluginLoader().createRegisteredListeners(listener, plugin).entrySet()) {
             for (RegisteredListener registeredListener : entry.getValue()) {
-                RegisteredListener newListener = new RegisteredListener(listener, getExecutor(registeredListener), priority, plugin, false);
+                EventExecutor executor = getExecutor(registeredListener);
+                if (handlersProfiled) {
+                    EventExecutor rawExecutor = executor;
+                    executor = (eventListener, event) -> {
+                        if (ScriptEventProfiler.enabled && profiledTick != Denizen.currentTick) {
+                            listenerStartNanos = System.nanoTime();
+                        }
+                        rawExecutor.execute(eventListener, event);
+                    };
+                }
+                RegisteredListener newListener = new RegisteredListener(listener, executor, priority, plugin, false);
                 HandlerList handlers = getEventListeners(getRegistrationClass(entry.getKey()));
                 handlers.register(newListener);
                 registeredHandlers.add(new HashMap.SimpleEntry<>(newListener, handlers));
@@ -821,6 +1243,30 @@ public abstract class BukkitScriptEvent extends ScriptEvent {
         return true;
     }
 
+    /**
+     * Equivalent to 'runWithCheck', but only builds the lazy held item if the path has a 'with' switch.
+     */
+    public boolean runLazyWithCheck(ScriptPath path, LazyContext<ItemTag> held) {
+        String with = path.switches.get("with");
+        if (with == null || CoreUtilities.equalsIgnoreCase(with, "item")) {
+            return true;
+        }
+        ItemTag item = getLazy(held);
+        return item != null && item.tryAdvancedMatcher(with);
+    }
+
+    /**
+     * Equivalent to 'nonSwitchWithCheck', but only builds the lazy held item if the path has a 'with' argument.
+     */
+    public boolean nonSwitchLazyWithCheck(ScriptPath path, LazyContext<ItemTag> held) {
+        for (int index = 0; index < path.eventArgsLower.length; index++) {
+            if (path.eventArgsLower[index].equals("with")) {
+                return nonSwitchWithCheck(path, getLazy(held));
+            }
+        }
+        return true;
+    }
+
     public static boolean runFlaggedCheck(ScriptPath path, PlayerTag player) {
         return runFlaggedCheck(path, "flagged", player);
     }
@@ -861,21 +1307,155 @@ public abstract class BukkitScriptEvent extends ScriptEvent {
         return true;
     }
 
-    public static boolean runAutomaticPlayerSwitches(ScriptEvent event, ScriptPath path) {
-        if (!path.switches.containsKey("flagged") && !path.switches.containsKey("permission")) {
+    /**
+     * The automatic 'flagged', 'permission', and 'assigned' switches of a path, parsed once rather than on every fire.
+     */
+    public static class AutomaticSwitches {
+
+        public static final AutomaticSwitches NONE = new AutomaticSwitches();
+
+        public String[] flags, permissions;
+
+        public boolean[] flagsNegated, permissionsNegated;
+
+        /**
+         * The lowercased assignment script name, if the 'assigned' switch is a single plain name.
+         */
+        public String assignedName;
+
+        /**
+         * The raw 'assigned' matcher, if it needs the full matcher logic.
+         */
+        public String assignedMatcher;
+
+        public boolean hasPlayerSwitches() {
+            return flags != null || permissions != null;
+        }
+
+        public boolean hasNPCSwitches() {
+            return assignedName != null || assignedMatcher != null;
+        }
+
+        public static AutomaticSwitches compile(ScriptPath path) {
+            String flagged = path.switches.get("flagged");
+            String permission = path.switches.get("permission");
+            String assigned = path.switches.get("assigned");
+            if (flagged == null && permission == null && assigned == null) {
+                return NONE;
+            }
+            AutomaticSwitches result = new AutomaticSwitches();
+            if (flagged != null) {
+                List<String> parts = CoreUtilities.split(flagged, '|');
+                result.flags = new String[parts.size()];
+                result.flagsNegated = new boolean[parts.size()];
+                splitNegations(parts, result.flags, result.flagsNegated);
+            }
+            if (permission != null) {
+                List<String> parts = CoreUtilities.split(permission, '|');
+                result.permissions = new String[parts.size()];
+                result.permissionsNegated = new boolean[parts.size()];
+                splitNegations(parts, result.permissions, result.permissionsNegated);
+            }
+            if (assigned != null) {
+                String lower = CoreUtilities.toLowerCase(assigned);
+                if (isPlainScriptName(lower)) {
+                    result.assignedName = lower;
+                }
+                else {
+                    result.assignedMatcher = assigned;
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Returns true if the (lowercased) matcher is just a script name, made only of letters, numbers and underscores, so can't be a wildcard, list, regex or negation.
+         */
+        public static boolean isPlainScriptName(String matcher) {
+            if (matcher.isEmpty()) {
+                return false;
+            }
+            for (int i = 0; i < matcher.length(); i++) {
+                char c = matcher.charAt(i);
+                if (!((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '_')) {
+                    return false;
+                }
+            }
             return true;
         }
-        BukkitScriptEntryData data = (BukkitScriptEntryData) event.getScriptEntryData();
-        if (!data.hasPlayer()) {
-            return false;
+
+        public static void splitNegations(List<String> parts, String[] names, boolean[] negated) {
+            for (int i = 0; i < names.length; i++) {
+                String part = parts.get(i);
+                negated[i] = part.startsWith("!");
+                names[i] = negated[i] ? part.substring(1) : part;
+            }
         }
-        if (!runFlaggedCheck(path, data.getPlayer())) {
+
+        public boolean checkPlayer(PlayerTag player) {
+            if (flags != null) {
+                AbstractFlagTracker tracker = player.getFlagTracker();
+                if (tracker == null) {
+                    return false;
+                }
+                for (int i = 0; i < flags.length; i++) {
+                    if (tracker.hasFlag(flags[i]) == flagsNegated[i]) {
+                        return false;
+                    }
+                }
+            }
+            if (permissions != null) {
+                if (!player.isOnline()) {
+                    return false;
+                }
+                Player entity = player.getPlayerEntity();
+                for (int i = 0; i < permissions.length; i++) {
+                    if (entity.hasPermission(permissions[i]) == permissionsNegated[i]) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        public boolean checkNPC(NPCTag npc) {
+            AssignmentTrait trait = npc.getCitizen().getTraitNullable(AssignmentTrait.class);
+            if (trait == null) {
+                return false;
+            }
+            for (String script : trait.assignments) {
+                if (assignedName != null ? CoreUtilities.equalsIgnoreCase(script, assignedName) : runGenericCheck(assignedMatcher, script)) {
+                    return true;
+                }
+            }
             return false;
         }
-        if (!runPermissionCheck(path, data.getPlayer())) {
+    }
+
+    /**
+     * Compiled automatic switches for each path. Paths are replaced on every script reload, which clears this.
+     */
+    public static final ConcurrentHashMap<ScriptPath, AutomaticSwitches> automaticSwitches = new ConcurrentHashMap<>();
+
+    public static AutomaticSwitches getAutomaticSwitches(ScriptPath path) {
+        AutomaticSwitches result = automaticSwitches.get(path);
+        if (result == null) {
+            result = AutomaticSwitches.compile(path);
+            automaticSwitches.put(path, result);
+        }
+        return result;
+    }
+
+    public static boolean runAutomaticPlayerSwitches(ScriptEvent event, ScriptPath path) {
+        AutomaticSwitches switches = getAutomaticSwitches(path);
+        if (!switches.hasPlayerSwitches()) {
+            return true;
+        }
+        BukkitScriptEntryData data = (BukkitScriptEntryData) event.getScriptEntryData();
+        if (!data.hasPlayer()) {
             return false;
         }
-        return true;
+        return switches.checkPlayer(data.getPlayer());
     }
 
     public static boolean runAssignedCheck(ScriptPath path, NPCTag npc) {
@@ -899,17 +1479,15 @@ public abstract class BukkitScriptEvent extends ScriptEvent {
     }
 
     public static boolean runAutomaticNPCSwitches(ScriptEvent event, ScriptPath path) {
-        if (!path.switches.containsKey("assigned")) {
+        AutomaticSwitches switches = getAutomaticSwitches(path);
+        if (!switches.hasNPCSwitches()) {
             return true;
         }
         BukkitScriptEntryData data = (BukkitScriptEntryData) event.getScriptEntryData();
         if (!data.hasNPC()) {
             return false;
         }
-        if (!runAssignedCheck(path, data.getNPC())) {
-            return false;
-        }
-        return true;
+        return switches.checkNPC(data.getNPC());
     }
 
     // <--[language]
@@ -268,6 +268,7 @@ public class ScriptEventRegistry {
         ScriptEvent.registerScriptEvent(VehicleMoveScriptEvent.class);
 
         // World events
+        ScriptEvent.registerScriptEvent(ChunkDespawnsEntitiesScriptEvent.class);
         ScriptEvent.registerScriptEvent(ChunkLoadEntitiesScriptEvent.class);
         ScriptEvent.registerScriptEvent(ChunkLoadScriptEvent.class);
         ScriptEvent.registerScriptEvent(ChunkUnloadEntitiesScriptEvent.class);
@@ -2,6 +2,7 @@ package com.denizenscript.denizen.events.entity;
 
 import com.denizenscript.denizen.events.BukkitScriptEvent;
 import com.denizenscript.denizen.objects.*;
+import com.denizenscript.denizen.scripts.containers.core.EntityScriptContainer;
 import com.denizenscript.denizen.utilities.NotedAreaTracker;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
 import com.denizenscript.denizen.utilities.implementation.BukkitScriptEntryData;
@@ -12,9 +13,11 @@ import com.denizenscript.denizencore.objects.core.ElementTag;
 import com.denizenscript.denizencore.objects.notable.Notable;
 import com.denizenscript.denizencore.objects.notable.NoteManager;
 import com.denizenscript.denizencore.scripts.ScriptEntryData;
+import com.denizenscript.denizencore.scripts.ScriptRegistry;
 import com.denizenscript.denizencore.utilities.CoreUtilities;
 import org.bukkit.Location;
 import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
 import org.bukkit.event.Event;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
@@ -147,10 +150,20 @@ public class AreaEnterExitScriptEvent extends BukkitScriptEvent implements Liste
         List<MatchHelper> matchList = new ArrayList<>();
         HashSet<String> flags = new HashSet<>();
         onlyTrackPlayers = true;
+        EnumSet<EntityType> types = EnumSet.noneOf(EntityType.class);
         for (ScriptPath path : eventPaths) {
-            if (!path.eventArgLowerAt(0).equals("player")) {
+            String entityMatcher = path.eventArgLowerAt(0);
+            if (!entityMatcher.equals("player")) {
                 onlyTrackPlayers = false;
             }
+            if (types != null) {
+                if (vanillaEntityTypeNames.contains(entityMatcher) && !ScriptRegistry.containsScript(entityMatcher, EntityScriptContainer.class)) {
+                    types.add(EntityType.valueOf(CoreUtilities.toUpperCase(entityMatcher)));
+                }
+                else {
+                    types = null;
+                }
+            }
             String area = path.eventArgLowerAt(2);
             if (area.equals("notable")) {
                 area = path.eventArgLowerAt(3);
@@ -179,6 +192,7 @@ public class AreaEnterExitScriptEvent extends BukkitScriptEvent implements Liste
         exactTracked = needsMatchers ? null : exacts.toArray(new String[0]);
         matchers = needsMatchers ? matchList.toArray(new MatchHelper[0]) : null;
         flagTracked = flags.size() > 0 ? flags.toArray(new String[0]) : null;
+        trackedEntityTypes = types;
         registerCorrectClass();
     }
 
@@ -187,6 +201,11 @@ public class AreaEnterExitScriptEvent extends BukkitScriptEvent implements Liste
     public String[] flagTracked = null;
     public MatchHelper[] matchers = null;
     public boolean onlyTrackPlayers = true;
+
+    /**
+     * The entity types that any path can match, or null if some path uses a matcher that isn't a plain entity type.
+     */
+    public EnumSet<EntityType> trackedEntityTypes = null;
     public static HashMap<UUID, HashSet<AreaContainmentObject>> entitiesInArea = new HashMap<>();
 
     @Override
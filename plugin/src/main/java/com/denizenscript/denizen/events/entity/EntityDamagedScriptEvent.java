@@ -12,9 +12,9 @@ import com.denizenscript.denizencore.scripts.ScriptEntryData;
 import com.denizenscript.denizencore.utilities.CoreUtilities;
 import com.denizenscript.denizen.utilities.BukkitImplDeprecations;
 import org.bukkit.block.Block;
+import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
-import org.bukkit.entity.Projectile;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDamageByBlockEvent;
@@ -97,12 +97,43 @@ public class EntityDamagedScriptEvent extends BukkitScriptEvent implements Liste
     }
 
 
-    public EntityTag entity;
-    public EntityTag damager;
-    public EntityTag projectile;
-    public ItemTag held;
+    public Entity rawEntity;
+    public Entity rawDamager;
     public EntityDamageEvent event;
 
+    public LazyContext<EntityTag> entity = lazyContext((EntityDamagedScriptEvent e) -> new EntityTag(e.rawEntity));
+
+    // The damager and projectile, as the projectile's shooter (if any) is considered the damager
+    public LazyContext<EntityTag[]> damagerPair = lazyContext((EntityDamagedScriptEvent e) -> {
+        if (e.rawDamager == null) {
+            return new EntityTag[2];
+        }
+        EntityTag damager = new EntityTag(e.rawDamager);
+        EntityTag shooter = damager.getShooter();
+        return shooter != null ? new EntityTag[] { shooter, damager } : new EntityTag[] { damager, null };
+    });
+
+    public LazyContext<ItemTag> held = lazyContext((EntityDamagedScriptEvent e) -> {
+        EntityTag damager = e.getDamager();
+        ItemTag item = damager == null ? null : damager.getItemInHand();
+        if (item != null) {
+            item.setAmount(1);
+        }
+        return item;
+    });
+
+    public EntityTag getEntity() {
+        return getLazy(entity);
+    }
+
+    public EntityTag getDamager() {
+        return getLazy(damagerPair)[0];
+    }
+
+    public EntityTag getProjectile() {
+        return getLazy(damagerPair)[1];
+    }
+
     @Override
     public boolean couldMatch(ScriptPath path) {
         if (!super.couldMatch(path)) {
@@ -125,6 +156,11 @@ public class EntityDamagedScriptEvent extends BukkitScriptEvent implements Liste
         return true;
     }
 
+    @Override
+    public Object getPathBucketKey(ScriptPath path) {
+        return getEntityTypeBucketKey(path.eventArgLowerAt(1).equals("damages") ? path.eventArgLowerAt(2) : path.eventArgLowerAt(0));
+    }
+
     @Override
     public boolean matches(ScriptPath path) {
         String cmd = path.eventArgLowerAt(1);
@@ -132,8 +168,8 @@ public class EntityDamagedScriptEvent extends BukkitScriptEvent implements Liste
                 path.eventArgLowerAt(2).equals("by") ? path.eventArgLowerAt(3) : "";
         String target = cmd.equals("damages") ? path.eventArgLowerAt(2) : path.eventArgLowerAt(0);
         if (!attacker.isEmpty()) {
-            if (damager != null) {
-                if (!runGenericCheck(attacker, event.getCause().name()) && (projectile == null || !projectile.tryAdvancedMatcher(attacker)) && (damager == null || !damager.tryAdvancedMatcher(attacker))) {
+            if (rawDamager != null) {
+                if (!runGenericCheck(attacker, event.getCause().name()) && (getProjectile() == null || !getProjectile().tryAdvancedMatcher(attacker)) && (getDamager() == null || !getDamager().tryAdvancedMatcher(attacker))) {
                     return false;
                 }
             }
@@ -143,13 +179,13 @@ public class EntityDamagedScriptEvent extends BukkitScriptEvent implements Liste
                 }
             }
         }
-        if (!entity.tryAdvancedMatcher(target) || !path.tryObjectSwitch("type", entity)) {
+        if (!couldMatchEntityType(target, rawEntity) || !getEntity().tryAdvancedMatcher(target) || !path.tryObjectSwitch("type", getEntity())) {
             return false;
         }
-        if (!runInCheck(path, entity.getLocation())) {
+        if (!runInCheck(path, rawEntity.getLocation())) {
             return false;
         }
-        if (!runWithCheck(path, held)) {
+        if (!runLazyWithCheck(path, held)) {
             return false;
         }
         String blockMatcher = path.switches.get("block");
@@ -189,6 +225,8 @@ public class EntityDamagedScriptEvent extends BukkitScriptEvent implements Liste
 
     @Override
     public ScriptEntryData getScriptEntryData() {
+        EntityTag damager = getDamager();
+        EntityTag entity = getEntity();
         return new BukkitScriptEntryData(damager != null && damager.isPlayer() ? damager.getDenizenPlayer() : entity.isPlayer() ? entity.getDenizenPlayer() : null,
                 damager != null && damager.isCitizensNPC() ? damager.getDenizenNPC() : entity.isCitizensNPC() ? entity.getDenizenNPC() : null);
     }
@@ -197,6 +235,7 @@ public class EntityDamagedScriptEvent extends BukkitScriptEvent implements Liste
         if (!(event instanceof EntityDamageByEntityEvent)) {
             return false;
         }
+        EntityTag damager = getDamager();
         if (!damager.isPlayer()) {
             return false;
         }
@@ -228,13 +267,13 @@ public class EntityDamagedScriptEvent extends BukkitScriptEvent implements Liste
     @Override
     public ObjectTag getContext(String name) {
         switch (name) {
-            case "entity": return entity.getDenizenObject();
+            case "entity": return getEntity().getDenizenObject();
             case "damage": return new ElementTag(event.getDamage());
             case "final_damage": return new ElementTag(event.getFinalDamage());
             case "cause": return new ElementTag(event.getCause());
             case "damager":
-                if (damager != null) {
-                    return damager.getDenizenObject();
+                if (getDamager() != null) {
+                    return getDamager().getDenizenObject();
                 }
                 break;
             case "damager_block":
@@ -246,8 +285,8 @@ public class EntityDamagedScriptEvent extends BukkitScriptEvent implements Liste
                 }
                 break;
             case "projectile":
-                if (projectile != null) {
-                    return projectile.getDenizenObject();
+                if (getProjectile() != null) {
+                    return getProjectile().getDenizenObject();
                 }
                 break;
             case "damage_type_map": {
@@ -273,28 +312,10 @@ public class EntityDamagedScriptEvent extends BukkitScriptEvent implements Liste
 
     @EventHandler
     public void onEntityDamaged(EntityDamageEvent event) {
-        entity = new EntityTag(event.getEntity());
-        damager = null;
-        projectile = null;
-        held = null;
-        if (event instanceof EntityDamageByEntityEvent) {
-            damager = new EntityTag(((EntityDamageByEntityEvent) event).getDamager());
-            EntityTag shooter = damager.getShooter();
-            if (damager instanceof Projectile) {
-                projectile = damager;
-            }
-            if (shooter != null) {
-                projectile = damager;
-                damager = shooter;
-            }
-            if (damager != null) {
-                held = damager.getItemInHand();
-                if (held != null) {
-                    held.setAmount(1);
-                }
-            }
-        }
+        rawEntity = event.getEntity();
+        rawDamager = event instanceof EntityDamageByEntityEvent ? ((EntityDamageByEntityEvent) event).getDamager() : null;
         this.event = event;
+        pathBucketValue = rawEntity.getType();
         fire(event);
     }
 }
@@ -1,11 +1,16 @@
 package com.denizenscript.denizen.events.entity;
 
 import com.denizenscript.denizen.objects.EntityTag;
+import com.denizenscript.denizen.scripts.containers.core.EntityScriptHelper;
 import com.denizenscript.denizen.utilities.implementation.BukkitScriptEntryData;
 import com.denizenscript.denizen.events.BukkitScriptEvent;
 import com.denizenscript.denizencore.objects.core.ElementTag;
 import com.denizenscript.denizencore.objects.ObjectTag;
 import com.denizenscript.denizencore.scripts.ScriptEntryData;
+import com.denizenscript.denizencore.utilities.CoreUtilities;
+import org.bukkit.entity.EntityType;
+
+import java.util.EnumSet;
 
 public class EntityDespawnScriptEvent extends BukkitScriptEvent {
 
@@ -41,6 +46,42 @@ public class EntityDespawnScriptEvent extends BukkitScriptEvent {
     public EntityTag entity;
     public ElementTag cause;
 
+    /**
+     * The set of entity types any current path could match, or null if any type might match.
+     */
+    public EnumSet<EntityType> possibleTypes = null;
+
+    @Override
+    public void init() {
+        possibleTypes = EnumSet.noneOf(EntityType.class);
+        for (ScriptPath path : eventPaths) {
+            String target = path.eventArgLowerAt(0);
+            if (EntityTag.specialEntityMatchables.contains(target) || isAdvancedMatchable(target) || target.contains(":") || EntityScriptHelper.scripts.containsKey(target)) {
+                possibleTypes = null;
+                break;
+            }
+            try {
+                possibleTypes.add(EntityType.valueOf(CoreUtilities.toUpperCase(target)));
+            }
+            catch (IllegalArgumentException ex) {
+                possibleTypes = null;
+                break;
+            }
+        }
+        super.init();
+    }
+
+    /**
+     * Returns true if the event has any paths that could match an entity of the given type.
+     * This allows skipping the event entirely without allocating any objects.
+     */
+    public boolean couldMatchType(EntityType type) {
+        if (eventPaths.isEmpty()) {
+            return false;
+        }
+        return possibleTypes == null || possibleTypes.contains(type);
+    }
+
     @Override
     public boolean matches(ScriptPath path) {
         String target = path.eventArgLowerAt(0);
@@ -74,6 +74,11 @@ public class PlayerBreaksBlockScriptEvent extends BukkitScriptEvent implements L
         return true;
     }
 
+    @Override
+    public Object getPathBucketKey(ScriptPath path) {
+        return getMaterialBucketKey(path.eventArgLowerAt(2));
+    }
+
     @Override
     public boolean matches(ScriptPath path) {
         String mat = path.eventArgLowerAt(2);
@@ -148,6 +153,7 @@ public class PlayerBreaksBlockScriptEvent extends BukkitScriptEvent implements L
         material = new MaterialTag(event.getBlock());
         location = new LocationTag(event.getBlock().getLocation());
         this.event = event;
+        pathBucketValue = event.getBlock().getType();
         fire(event);
     }
 }
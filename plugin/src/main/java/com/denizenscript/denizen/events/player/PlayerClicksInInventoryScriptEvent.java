@@ -110,11 +110,14 @@ public class PlayerClicksInInventoryScriptEvent extends BukkitScriptEvent implem
     }
 
 
-    public InventoryTag inventory;
-    public ItemTag item;
-    public ItemTag cursor; // Needed due to internal oddity
     public InventoryClickEvent event;
 
+    public LazyContext<InventoryTag> inventory = lazyContext((PlayerClicksInInventoryScriptEvent e) -> InventoryTag.mirrorBukkitInventory(e.event.getInventory()));
+
+    public LazyContext<ItemTag> item = lazyContext((PlayerClicksInInventoryScriptEvent e) -> e.event.getCurrentItem() == null ? new ItemTag(Material.AIR) : new ItemTag(e.event.getCurrentItem().clone()));
+
+    public LazyContext<ItemTag> cursor = lazyContext((PlayerClicksInInventoryScriptEvent e) -> new ItemTag(e.event.getCursor() == null ? new ItemStack(Material.AIR) : e.event.getCursor().clone())); // Needed due to internal oddity
+
     private static final HashSet<String> matchHelpList = new HashSet<>(Arrays.asList("at", "entity", "npc", "player", "vehicle", "projectile", "hanging", "fake"));
 
     @Override
@@ -149,7 +152,7 @@ public class PlayerClicksInInventoryScriptEvent extends BukkitScriptEvent implem
             return false;
         }
         String clickedItemText = path.eventArgLowerAt(hasClickType ? 3 : 2);
-        if (!clickedItemText.equals("in") && !item.tryAdvancedMatcher(clickedItemText)) {
+        if (!clickedItemText.equals("in") && !tryItemMatcher(clickedItemText, event.getCurrentItem(), item)) {
             return false;
         }
         int inIndex = -1;
@@ -158,13 +161,13 @@ public class PlayerClicksInInventoryScriptEvent extends BukkitScriptEvent implem
                 inIndex = i;
             }
         }
-        if (!inventory.tryAdvancedMatcher(path.eventArgLowerAt(inIndex + 1))) {
+        if (!getLazy(inventory).tryAdvancedMatcher(path.eventArgLowerAt(inIndex + 1))) {
             return false;
         }
-        if (!runWithCheck(path, cursor)) {
+        if (!runLazyWithCheck(path, cursor)) {
             return false;
         }
-        if (!nonSwitchWithCheck(path, cursor)) {
+        if (!nonSwitchLazyWithCheck(path, cursor)) {
             return false;
         }
         if (!runInCheck(path, event.getWhoClicked().getLocation(), "in_area")) {
@@ -196,13 +199,13 @@ public class PlayerClicksInInventoryScriptEvent extends BukkitScriptEvent implem
     @Override
     public ObjectTag getContext(String name) {
         if (name.equals("inventory")) {
-            return inventory;
+            return getLazy(inventory);
         }
         else if (name.equals("item")) {
-            return item;
+            return getLazy(item);
         }
         else if (name.equals("cursor_item")) {
-            return cursor;
+            return getLazy(cursor);
         }
         else if (name.equals("click")) {
             return new ElementTag(event.getClick());
@@ -233,9 +236,6 @@ public class PlayerClicksInInventoryScriptEvent extends BukkitScriptEvent implem
 
     @EventHandler
     public void inventoryClickEvent(InventoryClickEvent event) {
-        inventory = InventoryTag.mirrorBukkitInventory(event.getInventory());
-        item = event.getCurrentItem() == null ? new ItemTag(Material.AIR) : new ItemTag(event.getCurrentItem().clone());
-        cursor = new ItemTag(event.getCursor() == null ? new ItemStack(Material.AIR) : event.getCursor().clone());
         this.event = event;
         fire(event);
     }
@@ -50,6 +50,11 @@ public class PlayerRightClicksEntityScriptEvent extends BukkitScriptEvent implem
         registerSwitches("with", "type");
     }
 
+    @Override
+    public Object getPathBucketKey(ScriptPath path) {
+        return getEntityTypeBucketKey(path.eventArgLowerAt(path.eventArgLowerAt(3).equals("at") ? 4 : 3));
+    }
+
     @Override
     public boolean matches(ScriptPath path) {
         boolean isAt = path.eventArgLowerAt(3).equals("at");
@@ -112,6 +117,7 @@ public class PlayerRightClicksEntityScriptEvent extends BukkitScriptEvent implem
         entity = new EntityTag(event.getRightClicked());
         item = new ItemTag(event.getPlayer().getEquipment().getItem(event.getHand()));
         this.event = event;
+        pathBucketValue = event.getRightClicked().getType();
         fire(event);
     }
 }
@@ -40,10 +40,12 @@ public class PlayerWalkScriptEvent extends BukkitScriptEvent implements Listener
     }
 
 
-    public LocationTag old_location;
-    public LocationTag new_location;
     public PlayerMoveEvent event;
 
+    public LazyContext<LocationTag> old_location = lazyContext((PlayerWalkScriptEvent e) -> new LocationTag(e.event.getFrom()));
+
+    public LazyContext<LocationTag> new_location = lazyContext((PlayerWalkScriptEvent e) -> new LocationTag(e.event.getTo()));
+
     @Override
     public boolean couldMatch(ScriptPath path) {
         return path.eventLower.startsWith("player walks") && !path.eventArgLowerAt(2).equals("over");
@@ -51,10 +53,10 @@ public class PlayerWalkScriptEvent extends BukkitScriptEvent implements Listener
 
     @Override
     public boolean matches(ScriptPath path) {
-        if (!runInCheck(path, old_location)) {
+        if (!runInCheck(path, event.getFrom())) {
             return false;
         }
-        if (!runInCheck(path, new_location)) {
+        if (!runInCheck(path, event.getTo())) {
             return false;
         }
         return super.matches(path);
@@ -68,10 +70,10 @@ public class PlayerWalkScriptEvent extends BukkitScriptEvent implements Listener
     @Override
     public ObjectTag getContext(String name) {
         if (name.equals("old_location")) {
-            return old_location;
+            return getLazy(old_location);
         }
         else if (name.equals("new_location")) {
-            return new_location;
+            return getLazy(new_location);
         }
         return super.getContext(name);
     }
@@ -81,8 +83,6 @@ public class PlayerWalkScriptEvent extends BukkitScriptEvent implements Listener
         if (EntityTag.isNPC(event.getPlayer())) {
             return;
         }
-        old_location = new LocationTag(event.getFrom());
-        new_location = new LocationTag(event.getTo());
         this.event = event;
         fire(event);
     }
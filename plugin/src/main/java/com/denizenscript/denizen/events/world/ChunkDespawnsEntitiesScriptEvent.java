@@ -0,0 +1,88 @@
+package com.denizenscript.denizen.events.world;
+
+import com.denizenscript.denizen.events.BukkitScriptEvent;
+import com.denizenscript.denizen.objects.ChunkTag;
+import com.denizenscript.denizen.objects.EntityTag;
+import com.denizenscript.denizencore.objects.ObjectTag;
+import com.denizenscript.denizencore.objects.core.ListTag;
+import org.bukkit.Chunk;
+import org.bukkit.entity.Entity;
+
+import java.util.List;
+
+public class ChunkDespawnsEntitiesScriptEvent extends BukkitScriptEvent {
+
+    // <--[event]
+    // @Events
+    // chunk despawns entities
+    //
+    // @Group World
+    //
+    // @Location true
+    //
+    // @Warning This event will fire very rapidly.
+    //
+    // @Switch entity_type:<type-matcher> to only fire if the chunk despawns an entity that matches the given entity matcher.
+    //
+    // @Triggers when a chunk unloads and permanently despawns entities (ones that would fire <@link event entity despawns> with cause 'CHUNK_UNLOAD').
+    // This is a batched alternative to that event, firing once per chunk rather than once per entity, and is generally preferable for handling large numbers of despawns.
+    // Note that this is basically a notification - it's already too late to change entity data.
+    //
+    // @Context
+    // <context.chunk> returns the unloading chunk.
+    // <context.entities> returns a ListTag of all entities being despawned.
+    //
+    // -->
+
+    public ChunkDespawnsEntitiesScriptEvent() {
+        instance = this;
+        registerCouldMatcher("chunk despawns entities");
+        registerSwitches("entity_type");
+    }
+
+    public static ChunkDespawnsEntitiesScriptEvent instance;
+
+    public ChunkTag chunk;
+    public List<Entity> entities;
+
+    @Override
+    public boolean matches(ScriptPath path) {
+        if (!runInCheck(path, chunk.getCenter())) {
+            return false;
+        }
+        String typeMatch = path.switches.get("entity_type");
+        if (typeMatch != null) {
+            boolean any = false;
+            for (Entity e : entities) {
+                any = new EntityTag(e).tryAdvancedMatcher(typeMatch);
+                if (any) {
+                    break;
+                }
+            }
+            if (!any) {
+                return false;
+            }
+        }
+        return super.matches(path);
+    }
+
+    @Override
+    public ObjectTag getContext(String name) {
+        switch (name) {
+            case "chunk": return chunk;
+            case "entities":
+                ListTag entList = new ListTag();
+                for (Entity e : entities) {
+                    entList.addObject(new EntityTag(e));
+                }
+                return entList;
+        }
+        return super.getContext(name);
+    }
+
+    public void handle(Chunk chunk, List<Entity> entities) {
+        this.chunk = new ChunkTag(chunk);
+        this.entities = entities;
+        fire();
+    }
+}
@@ -383,6 +383,13 @@ public abstract class EntityHelper {
 
     public abstract List<Player> getPlayersThatSee(Entity entity);
 
+    /**
+     * Returns whether the player is currently tracking (can see) the entity, without building the full viewer list.
+     */
+    public boolean isSeenBy(Entity entity, Player player) {
+        return getPlayersThatSee(entity).contains(player);
+    }
+
     public void sendAllUpdatePackets(Entity entity) {
         throw new UnsupportedOperationException();
     }
@@ -45,6 +45,20 @@ public abstract class ItemHelper {
 
     public abstract CompoundTag getNbtData(ItemStack itemStack);
 
+    /**
+     * Reads the string values of specific top-level NBT keys, without copying the item or converting its full NBT.
+     * Returns a new array matching the keys, with null for any key that is missing or not a string.
+     */
+    public String[] getNbtStrings(ItemStack itemStack, String[] keys) {
+        CompoundTag tag = getNbtData(itemStack);
+        String[] result = new String[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            String value = tag.getString(keys[i]);
+            result[i] = value == null || value.isEmpty() ? null : value;
+        }
+        return result;
+    }
+
     public abstract ItemStack setNbtData(ItemStack itemStack, CompoundTag compoundTag);
 
     public abstract void registerSmithingRecipe(String keyName, ItemStack result, ItemStack[] baseItem, boolean baseExact, ItemStack[] upgradeItem, boolean upgradeExact);
@@ -19,6 +19,7 @@ import org.bukkit.inventory.ItemStack;
 import org.bukkit.map.MapCanvas;
 import org.bukkit.map.MapPalette;
 
+import java.util.Collection;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
@@ -119,6 +120,23 @@ public interface PacketHelper {
 
     void sendRename(Player player, Entity entity, String name, boolean listMode);
 
+    /**
+     * Sends a packet-only scoreboard objective. Mode is 0 to create, 1 to remove, 2 to update.
+     */
+    void sendScoreboardObjective(Player player, String name, String displayName, boolean hearts, int mode);
+
+    /**
+     * Sends a packet-only scoreboard display slot change. Slot is 0 for player list, 1 for sidebar, 2 for below name. A null objective name clears the slot.
+     */
+    void sendScoreboardDisplaySlot(Player player, int slot, String objectiveName);
+
+    void sendScoreboardScore(Player player, String objectiveName, String entry, int score, boolean remove);
+
+    /**
+     * Sends a packet-only scoreboard team. Mode is 0 to create, 1 to remove, 2 to update prefix/suffix, 3 to add members, 4 to remove members.
+     */
+    void sendScoreboardTeam(Player player, String name, String prefix, String suffix, Collection<String> members, int mode);
+
     void generateNoCollideTeam(Player player, UUID noCollide);
 
     void removeNoCollideTeam(Player player, UUID noCollide);
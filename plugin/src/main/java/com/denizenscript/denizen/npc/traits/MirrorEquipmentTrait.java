@@ -1,5 +1,6 @@
 package com.denizenscript.denizen.npc.traits;
 
+import com.denizenscript.denizen.Denizen;
 import com.denizenscript.denizen.nms.NMSHandler;
 import com.denizenscript.denizen.objects.ItemTag;
 import com.denizenscript.denizen.scripts.commands.entity.FakeEquipCommand;
@@ -7,15 +8,19 @@ import com.denizenscript.denizen.scripts.commands.entity.RenameCommand;
 import com.denizenscript.denizen.utilities.packets.NetworkInterceptHelper;
 import net.citizensnpcs.api.persistence.Persist;
 import net.citizensnpcs.api.trait.Trait;
+import org.bukkit.Bukkit;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.block.BlockDispenseArmorEvent;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.inventory.EntityEquipment;
 
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Objects;
 import java.util.UUID;
 
 public class MirrorEquipmentTrait extends Trait {
@@ -29,41 +34,98 @@ public class MirrorEquipmentTrait extends Trait {
         super("mirrorequipment");
     }
 
+    public static int getEquipmentHash(EntityEquipment equipment) {
+        int hash = equipment.getItemInMainHand().hashCode();
+        hash = hash * 31 + equipment.getItemInOffHand().hashCode();
+        hash = hash * 31 + Objects.hashCode(equipment.getHelmet());
+        hash = hash * 31 + Objects.hashCode(equipment.getChestplate());
+        hash = hash * 31 + Objects.hashCode(equipment.getLeggings());
+        hash = hash * 31 + Objects.hashCode(equipment.getBoots());
+        return hash;
+    }
+
+    /**
+     * The equipment most recently sent to a single viewer, and the equipment state hash it was built from.
+     */
+    public static class ViewerSnapshot {
+
+        public int hash;
+
+        public FakeEquipCommand.EquipmentOverride variant;
+    }
+
     public static class MirrorOverride extends FakeEquipCommand.EquipmentOverride {
 
+        public final HashMap<UUID, ViewerSnapshot> snapshots = new HashMap<>();
+
         @Override
         public FakeEquipCommand.EquipmentOverride getVariantFor(Player player) {
-            FakeEquipCommand.EquipmentOverride result = new FakeEquipCommand.EquipmentOverride();
             EntityEquipment playerEquip = player.getEquipment();
+            int hash = getEquipmentHash(playerEquip);
+            ViewerSnapshot snapshot = snapshots.get(player.getUniqueId());
+            if (snapshot != null && snapshot.hash == hash) {
+                return snapshot.variant;
+            }
+            FakeEquipCommand.EquipmentOverride result = new FakeEquipCommand.EquipmentOverride();
             result.hand = new ItemTag(playerEquip.getItemInMainHand());
             result.offhand = new ItemTag(playerEquip.getItemInOffHand());
             result.head = new ItemTag(playerEquip.getHelmet());
             result.chest = new ItemTag(playerEquip.getChestplate());
             result.legs = new ItemTag(playerEquip.getLeggings());
             result.boots = new ItemTag(playerEquip.getBoots());
+            if (snapshot == null) {
+                snapshot = new ViewerSnapshot();
+                snapshots.put(player.getUniqueId(), snapshot);
+            }
+            snapshot.hash = hash;
+            snapshot.variant = result;
             return result;
         }
     }
 
-    public static MirrorOverride overrideInstance = new MirrorOverride();
+    public MirrorOverride override = new MirrorOverride();
+
+    public HashSet<UUID> pendingChecks = new HashSet<>();
 
     public void resend() {
+        override.snapshots.clear();
         for (Player player : NMSHandler.entityHelper.getPlayersThatSee(npc.getEntity())) {
             NMSHandler.packetHelper.resetEquipment(player, (LivingEntity) npc.getEntity());
         }
     }
 
-    public void resendIfNeeded(Player player) {
+    /**
+     * Queues a check of the player's equipment for the next tick, as equipment change events fire before the change is applied.
+     */
+    public void queueCheck(Player player) {
         if (player == null || !mirror || !npc.isSpawned()) {
             return;
         }
+        if (pendingChecks.add(player.getUniqueId())) {
+            Bukkit.getScheduler().runTask(Denizen.getInstance(), () -> {
+                pendingChecks.remove(player.getUniqueId());
+                resendIfNeeded(player);
+            });
+        }
+    }
+
+    public void resendIfNeeded(Player player) {
+        if (player == null || !mirror || !npc.isSpawned() || !player.isOnline()) {
+            return;
+        }
         if (!player.getWorld().equals(npc.getEntity().getWorld())) {
             return;
         }
         if (player.getLocation().distanceSquared(npc.getStoredLocation()) > 100 * 100) {
             return;
         }
-        if (!NMSHandler.entityHelper.getPlayersThatSee(npc.getEntity()).contains(player)) {
+        ViewerSnapshot snapshot = override.snapshots.get(player.getUniqueId());
+        if (snapshot != null && snapshot.hash == getEquipmentHash(player.getEquipment())) {
+            return;
+        }
+        if (!NMSHandler.entityHelper.isSeenBy(npc.getEntity(), player)) {
+            // Equipment is sent along with the spawn packets when the player starts seeing the NPC again
+            override.snapshots.remove(player.getUniqueId());
             return;
         }
         NMSHandler.packetHelper.resetEquipment(player, (LivingEntity) npc.getEntity());
@@ -71,18 +133,23 @@ public class MirrorEquipmentTrait extends Trait {
 
     @EventHandler
     public void onPlayerInventoryClick(InventoryClickEvent event) {
-        resendIfNeeded((Player) event.getWhoClicked());
+        queueCheck((Player) event.getWhoClicked());
     }
 
     @EventHandler
     public void onPlayerInteract(PlayerInteractEvent event) {
-        resendIfNeeded(event.getPlayer());
+        queueCheck(event.getPlayer());
+    }
+
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        override.snapshots.remove(event.getPlayer().getUniqueId());
     }
 
     @EventHandler
     public void onArmorDispense(BlockDispenseArmorEvent event) {
         if (event.getTargetEntity() instanceof Player) {
-            resendIfNeeded((Player) event.getTargetEntity());
+            queueCheck((Player) event.getTargetEntity());
         }
     }
 
@@ -97,7 +164,7 @@ public class MirrorEquipmentTrait extends Trait {
         }
         mirroredUUID = npc.getEntity().getUniqueId();
         HashMap<UUID, FakeEquipCommand.EquipmentOverride> mapping = FakeEquipCommand.overrides.computeIfAbsent(null, k -> new HashMap<>());
-        mapping.put(mirroredUUID, overrideInstance);
+        mapping.put(mirroredUUID, override);
     }
 
     public void mirrorOff() {
@@ -108,6 +175,7 @@ public class MirrorEquipmentTrait extends Trait {
         if (mapping == null) {
             return;
         }
+        override.snapshots.clear();
         if (mapping.remove(mirroredUUID) != null && npc.isSpawned()) {
             resend();
         }
@@ -2,6 +2,7 @@ package com.denizenscript.denizen.npc.traits;
 
 import com.denizenscript.denizen.objects.EntityTag;
 import com.denizenscript.denizen.objects.NPCTag;
+import com.denizenscript.denizen.utilities.entity.NearbyEntitySnapshot;
 import com.denizenscript.denizencore.objects.ObjectTag;
 import net.citizensnpcs.api.event.NPCTraitCommandAttachEvent;
 import net.citizensnpcs.api.trait.Trait;
@@ -11,10 +12,7 @@ import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 // TODO: Documenting language docs
 
@@ -28,7 +26,7 @@ public class MobproxTrait extends Trait {
     int timerBounce = 0;
     LivingEntity liveEnt;
     NPCTag dnpc;
-    List<Entity> inrange = new ArrayList<>();
+    Set<Entity> inrange = new LinkedHashSet<>();
 
     @Override
     public void run() {
@@ -41,24 +39,21 @@ public class MobproxTrait extends Trait {
                 if (getNPC().isSpawned()) {
                     int range = getRange();
                     boolean acceptnpc = acceptNpcs();
-                    List<Entity> nearby = liveEnt.getNearbyEntities(range, range, range);
-                    List<Entity> removeme = new ArrayList<>(inrange);
-                    for (Entity ent : nearby) {
-                        if (ent instanceof LivingEntity && (!(ent instanceof Player) || EntityTag.isCitizensNPC(ent))
-                                && (acceptnpc || (!EntityTag.isCitizensNPC(ent)))) {
-                            removeme.remove(ent);
-                            if (!inrange.contains(ent)) {
-                                inrange.add(ent);
-                                callAction("enter", ent);
-                            }
-                            else {
-                                callAction("move", ent);
-                            }
+                    Set<Entity> current = new LinkedHashSet<>();
+                    for (LivingEntity ent : NearbyEntitySnapshot.getNearby(liveEnt, range, range, range, LivingEntity.class)) {
+                        if ((!(ent instanceof Player) || EntityTag.isCitizensNPC(ent)) && (acceptnpc || (!EntityTag.isCitizensNPC(ent)))) {
+                            current.add(ent);
                         }
                     }
-                    for (Entity ent : removeme) {
-                        inrange.remove(ent);
-                        callAction("exit", ent);
+                    Set<Entity> previous = inrange;
+                    inrange = current;
+                    for (Entity ent : current) {
+                        callAction(previous.contains(ent) ? "move" : "enter", ent);
+                    }
+                    for (Entity ent : previous) {
+                        if (!current.contains(ent)) {
+                            callAction("exit", ent);
+                        }
                     }
                 }
             }
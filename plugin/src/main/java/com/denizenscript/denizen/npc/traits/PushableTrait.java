@@ -3,6 +3,7 @@ package com.denizenscript.denizen.npc.traits;
 import com.denizenscript.denizen.Denizen;
 import com.denizenscript.denizen.objects.NPCTag;
 import com.denizenscript.denizen.objects.PlayerTag;
+import com.denizenscript.denizen.utilities.entity.NearbyEntitySnapshot;
 import com.denizenscript.denizencore.utilities.CoreUtilities;
 import net.citizensnpcs.api.ai.event.NavigationCompleteEvent;
 import net.citizensnpcs.api.event.NPCPushEvent;
@@ -155,10 +156,8 @@ public class PushableTrait extends Trait implements Listener {
             if (CoreUtilities.monotonicMillis() > pushedTimer) {
                 // Get pusher
                 Player pusher = null;
-                for (Entity le : event.getNPC().getEntity().getNearbyEntities(1, 1, 1)) {
-                    if (le instanceof Player) {
-                        pusher = (Player) le;
-                    }
+                for (Player player : NearbyEntitySnapshot.getNearby(event.getNPC().getEntity(), 1, 1, 1, Player.class)) {
+                    pusher = player;
                 }
                 if (pusher != null) {
                     new NPCTag(npc).action("push", PlayerTag.mirrorBukkitPlayer(pusher));
@@ -4,6 +4,7 @@ import com.denizenscript.denizen.Denizen;
 import com.denizenscript.denizen.objects.ChunkTag;
 import com.denizenscript.denizen.objects.LocationTag;
 import com.denizenscript.denizen.objects.NPCTag;
+import com.denizenscript.denizen.utilities.entity.NearbyEntitySnapshot;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
 import net.citizensnpcs.api.CitizensAPI;
 import net.citizensnpcs.api.npc.MemoryNPCDataStore;
@@ -146,9 +147,8 @@ public class SittingTrait extends Trait implements Listener {
         if (loc.getWorld() == null) {
             return;
         }
-        for (Entity entity : loc.getWorld().getNearbyEntities(loc, 3, 3, 3)) {
-            if (entity.getType() == EntityType.ARMOR_STAND && entity.getCustomName() != null && entity.getCustomName().equals(SIT_STAND_NAME) && entity.getPassengers().isEmpty()) {
-                ArmorStand stand = (ArmorStand) entity;
+        for (ArmorStand stand : NearbyEntitySnapshot.getNearby(loc, 3, 3, 3, ArmorStand.class)) {
+            if (stand.getCustomName() != null && stand.getCustomName().equals(SIT_STAND_NAME) && stand.getPassengers().isEmpty()) {
                 if (stand.isMarker() && stand.isSmall() && !stand.isVisible() && stand.getPassengers().isEmpty()) {
                     NPC npc = CitizensAPI.getNPCRegistry().getNPC(stand);
                     if (npc != null) {
@@ -20,6 +20,7 @@ import com.denizenscript.denizen.utilities.VanillaTagHelper;
 import com.denizenscript.denizen.utilities.depends.Depends;
 import com.denizenscript.denizen.utilities.entity.DenizenEntityType;
 import com.denizenscript.denizen.utilities.entity.EntityAttachmentHelper;
+import com.denizenscript.denizen.utilities.entity.EntityIndex;
 import com.denizenscript.denizen.utilities.entity.FakeEntity;
 import com.denizenscript.denizen.utilities.entity.HideEntitiesHelper;
 import com.denizenscript.denizen.utilities.flags.DataPersistenceFlagTracker;
@@ -330,16 +331,11 @@ public class EntityTag implements ObjectTag, Adjustable, EntityFormObject, Flagg
     }
 
     public static Entity getEntityForID(UUID id) {
-        if (rememberedEntities.containsKey(id)) {
-            return rememberedEntities.get(id);
+        Entity remembered = rememberedEntities.get(id);
+        if (remembered != null) {
+            return remembered;
         }
-        for (World world : Bukkit.getWorlds()) {
-            Entity entity = NMSHandler.entityHelper.getEntity(world, id);
-            if (entity != null) {
-                return entity;
-            }
-        }
-        return null;
+        return EntityIndex.getEntity(id);
     }
 
     public static boolean matches(String arg) {
@@ -569,7 +565,7 @@ public class EntityTag implements ObjectTag, Adjustable, EntityFormObject, Flagg
     public Entity getBukkitEntity() {
         if (uuid != null && (entity == null || !entity.isValid())) {
             if (!isFake) {
-                Entity backup = Bukkit.getEntity(uuid);
+                Entity backup = EntityIndex.getEntity(uuid);
                 if (backup != null) {
                     entity = backup;
                 }
@@ -1578,6 +1574,30 @@ public class EntityTag implements ObjectTag, Adjustable, EntityFormObject, Flagg
             return object.doLocationTag(attribute);
         });
 
+        // <--[tag]
+        // @attribute <EntityTag.last_known_location>
+        // @returns LocationTag
+        // @group location
+        // @description
+        // Returns the location of the entity if it is spawned, or otherwise the location it was at when its chunk was last unloaded (if known).
+        // This allows finding where an unloaded entity is, without needing to load or search for it.
+        // Returns null if the entity is not spawned and its last location is unknown (for example if it was removed, or unloaded before the server started).
+        // -->
+        tagProcessor.registerTag(LocationTag.class, "last_known_location", (attribute, object) -> {
+            if (object.isSpawned()) {
+                return object.getLocation();
+            }
+            if (object.getUUID() == null) {
+                return null;
+            }
+            EntityIndex.LastKnownLocation lastKnown = EntityIndex.getLastKnownLocation(object.getUUID());
+            if (lastKnown == null) {
+                return null;
+            }
+            Location location = lastKnown.toLocation();
+            return location == null ? null : new LocationTag(location);
+        });
+
         // <--[tag]
         // @attribute <EntityTag.standing_on>
         // @returns LocationTag
@@ -2817,6 +2837,27 @@ public class EntityTag implements ObjectTag, Adjustable, EntityFormObject, Flagg
             return attached.positionalOffset == null ? null : new LocationTag(attached.positionalOffset);
         });
 
+        // <--[tag]
+        // @attribute <EntityTag.attachment_packet_count[(<player>)]>
+        // @returns ElementTag(Number)
+        // @description
+        // Returns the number of packets that have been sent to players to keep this entity attached by <@link command attach>.
+        // This is primarily useful for diagnosing the network cost of attachments.
+        // Optionally, specify a player. If specified, will use the entity attachment visible to that player. If not specified, uses the global attachment.
+        // -->
+        registerSpawnedOnlyTag(ElementTag.class, "attachment_packet_count", (attribute, object) -> {
+            PlayerTag player = attribute.hasParam() ? attribute.paramAsType(PlayerTag.class) : null;
+            EntityAttachmentHelper.PlayerAttachMap data = EntityAttachmentHelper.attachedEntityToData.get(object.getUUID());
+            if (data == null) {
+                return null;
+            }
+            EntityAttachmentHelper.AttachmentData attached = data.getAttachment(player == null ? null : player.getUUID());
+            if (attached == null) {
+                return null;
+            }
+            return new ElementTag(attached.packetCount.sum());
+        });
+
         // <--[tag]
         // @attribute <EntityTag.attack_cooldown_duration>
         // @returns DurationTag
@@ -7,6 +7,9 @@ import com.denizenscript.denizen.scripts.containers.core.ItemScriptHelper;
 import com.denizenscript.denizen.utilities.PaperAPITools;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
 import com.denizenscript.denizen.utilities.depends.Depends;
+import com.denizenscript.denizen.utilities.inventory.CompiledItemMatcher;
+import com.denizenscript.denizen.utilities.inventory.InventoryContentIndex;
+import com.denizenscript.denizen.utilities.inventory.InventoryFitSimulator;
 import com.denizenscript.denizen.utilities.inventory.InventoryTrackerSystem;
 import com.denizenscript.denizen.utilities.inventory.RecipeHelper;
 import com.denizenscript.denizen.utilities.inventory.SlotHelper;
@@ -34,6 +37,7 @@ import com.denizenscript.denizencore.tags.TagContext;
 import com.denizenscript.denizencore.utilities.CoreUtilities;
 import com.denizenscript.denizen.utilities.BukkitImplDeprecations;
 import com.denizenscript.denizencore.utilities.YamlConfiguration;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
 import net.citizensnpcs.api.CitizensAPI;
 import org.bukkit.Bukkit;
 import org.bukkit.Keyed;
@@ -590,6 +594,45 @@ public class InventoryTag implements ObjectTag, Notable, Adjustable, FlaggableOb
         return false;
     }
 
+    /**
+     * Returns the total quantity of items matching the matcher, stopping early once 'stopAt' is reached.
+     */
+    public int quantityMatching(CompiledItemMatcher matcher, int stopAt) {
+        InventoryContentIndex.Summary summary = InventoryContentIndex.getSummary(inventory, matcher);
+        if (summary != null) {
+            return summary.quantity(matcher, stopAt);
+        }
+        int found = 0;
+        for (ItemStack item : getContents()) {
+            if (item != null && matcher.matches(item)) {
+                found += item.getAmount();
+                if (found >= stopAt) {
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns all zero-based slot indices holding an item that matches the matcher, stopping once 'limit' slots are found.
+     */
+    public int[] findMatching(CompiledItemMatcher matcher, int limit) {
+        InventoryContentIndex.Summary summary = InventoryContentIndex.getSummary(inventory, matcher);
+        if (summary != null) {
+            int[] slots = summary.findAll(matcher);
+            return slots.length > limit ? Arrays.copyOf(slots, limit) : slots;
+        }
+        IntArrayList slots = new IntArrayList();
+        ItemStack[] contents = getContents();
+        for (int i = 0; i < contents.length && slots.size() < limit; i++) {
+            if (contents[i] != null && matcher.matches(contents[i])) {
+                slots.add(i);
+            }
+        }
+        return slots.toIntArray();
+    }
+
     public void setSize(int size) {
         if (!getIdType().equals("generic") && !getIdType().equals("script")) {
             return;
@@ -826,6 +869,7 @@ public class InventoryTag implements ObjectTag, Notable, Adjustable, FlaggableOb
     }
 
     public void setContents(ItemStack[] contents) {
+        InventoryContentIndex.invalidate(inventory);
         inventory.setContents(contents);
     }
 
@@ -899,6 +943,7 @@ public class InventoryTag implements ObjectTag, Notable, Adjustable, FlaggableOb
         if (inventory == null || items == null) {
             return this;
         }
+        InventoryContentIndex.invalidate(inventory);
         for (int i = 0; i < items.length; i++) {
             ItemStack item = items[i];
             if (item == null || item.getType().isAir()) {
@@ -955,6 +1000,7 @@ public class InventoryTag implements ObjectTag, Notable, Adjustable, FlaggableOb
         if (inventory == null || items == null) {
             return null;
         }
+        InventoryContentIndex.invalidate(inventory);
         List<ItemStack> leftovers = new ArrayList<>();
         for (int i = 0; i < items.length; i++) {
             ItemStack item = items[i];
@@ -1108,6 +1154,7 @@ public class InventoryTag implements ObjectTag, Notable, Adjustable, FlaggableOb
         if (inventory == null || items == null) {
             return this;
         }
+        InventoryContentIndex.invalidate(inventory);
         for (int i = 0; i < c; i++) {
             if (i >= items.length || items[i] == null) {
                 NMSHandler.itemHelper.setInventoryItem(inventory, new ItemStack(Material.AIR), slot + i);
@@ -1126,6 +1173,7 @@ public class InventoryTag implements ObjectTag, Notable, Adjustable, FlaggableOb
 
     public void clear() {
         if (inventory != null) {
+            InventoryContentIndex.invalidate(inventory);
             inventory.clear();
         }
     }
@@ -1178,6 +1226,9 @@ public class InventoryTag implements ObjectTag, Notable, Adjustable, FlaggableOb
         return inventory;
     }
 
+    // Technically nothing stops us from ridiculous numbers in an ItemStack amount.
+    public static final int MAX_FIT_COUNT = 64 * 64 * 4;
+
     public static void register() {
 
         AbstractFlagTracker.registerFlagHandlers(tagProcessor);
@@ -1221,16 +1272,7 @@ public class InventoryTag implements ObjectTag, Notable, Adjustable, FlaggableOb
                 return null;
             }
 
-            InventoryType type = object.inventory.getType();
-            InventoryTag dummyInv = new InventoryTag(type == InventoryType.PLAYER ? InventoryType.CHEST : type, PaperAPITools.instance.getTitle(object.inventory));
-            ItemStack[] contents = object.getStorageContents();
-            if (dummyInv.getInventoryType() == InventoryType.CHEST) {
-                dummyInv.setSize(contents.length);
-            }
-            if (contents.length != dummyInv.getSize()) {
-                contents = Arrays.copyOf(contents, dummyInv.getSize());
-            }
-            dummyInv.setContents(contents);
+            InventoryFitSimulator simulator = new InventoryFitSimulator(object.getStorageContents());
 
             // <--[tag]
             // @attribute <InventoryTag.can_fit[<item>].count>
@@ -1239,16 +1281,8 @@ public class InventoryTag implements ObjectTag, Notable, Adjustable, FlaggableOb
             // Returns the total count of how many times an item can fit into an inventory.
             // -->
             if (attribute.startsWith("count", 2)) {
-                ItemStack toAdd = items.get(0).getItemStack().clone();
-                int totalCount = 64 * 64 * 4; // Technically nothing stops us from ridiculous numbers in an ItemStack amount.
-                toAdd.setAmount(totalCount);
-                List<ItemStack> leftovers = dummyInv.addWithLeftovers(0, null, true, toAdd);
-                int result = 0;
-                if (leftovers.size() > 0) {
-                    result += leftovers.get(0).getAmount();
-                }
                 attribute.fulfill(1);
-                return new ElementTag(totalCount - result);
+                return new ElementTag(simulator.countFit(items.get(0).getItemStack(), MAX_FIT_COUNT));
             }
 
             // <--[tag]
@@ -1257,25 +1291,45 @@ public class InventoryTag implements ObjectTag, Notable, Adjustable, FlaggableOb
             // @description
             // Returns whether the inventory can fit a certain quantity of an item.
             // -->
+            List<ItemStack> stacks = new ArrayList<>(items.size());
+            for (ItemTag item : items) {
+                stacks.add(item.getItemStack());
+            }
             if ((attribute.startsWith("quantity", 2) || attribute.startsWith("qty", 2)) && attribute.hasContext(2)) {
                 if (attribute.startsWith("qty", 2)) {
                     BukkitImplDeprecations.qtyTags.warn(attribute.context);
                 }
                 int qty = attribute.getIntContext(2);
-                ItemTag itemZero = new ItemTag(items.get(0).getItemStack().clone());
+                ItemStack itemZero = stacks.get(0).clone();
                 itemZero.setAmount(qty);
-                items.set(0, itemZero);
+                stacks.set(0, itemZero);
                 attribute.fulfill(1);
             }
+            return new ElementTag(simulator.addAll(stacks));
+        });
 
-            // NOTE: Could just also convert items to an array and pass it all in at once...
-            for (ItemTag itm : items) {
-                List<ItemStack> leftovers = dummyInv.addWithLeftovers(0, null, true, itm.getItemStack().clone());
-                if (!leftovers.isEmpty()) {
-                    return new ElementTag(false);
-                }
+        // <--[tag]
+        // @attribute <InventoryTag.can_fit_counts[<item>|...]>
+        // @returns ListTag
+        // @description
+        // Returns a list of how many times each item can fit into the inventory, in the same order as the input list.
+        // Each item is checked independently against the current contents of the inventory, as if it were the only item being added.
+        // This is equivalent to, but faster than, using <@link tag InventoryTag.can_fit.count> separately for each item.
+        // -->
+        tagProcessor.registerTag(ListTag.class, "can_fit_counts", (attribute, object) -> {
+            if (!attribute.hasParam()) {
+                return null;
             }
-            return new ElementTag(true);
+            List<ItemTag> items = attribute.paramAsType(ListTag.class).filter(ItemTag.class, attribute.context, !attribute.hasAlternative());
+            if (items == null) {
+                return null;
+            }
+            InventoryFitSimulator simulator = new InventoryFitSimulator(object.getStorageContents());
+            ListTag result = new ListTag();
+            for (ItemTag item : items) {
+                result.addObject(new ElementTag(simulator.countFit(item.getItemStack(), MAX_FIT_COUNT)));
+            }
+            return result;
         });
 
         // <--[tag]
@@ -1355,9 +1409,10 @@ public class InventoryTag implements ObjectTag, Notable, Adjustable, FlaggableOb
                 quantity = attribute.getIntContext(2);
                 attribute.fulfill(1);
             }
+            CompiledItemMatcher compiled = CompiledItemMatcher.compile(matcher);
             for (int slot = 0; slot < dummyInv.inventory.getSize(); slot++) {
                 ItemStack item = dummyInv.inventory.getItem(slot);
-                if (item != null && new ItemTag(item).tryAdvancedMatcher(matcher)) {
+                if (item != null && compiled.matches(item)) {
                     quantity -= item.getAmount();
                     if (quantity >= 0) {
                         dummyInv.inventory.setItem(slot, null);
@@ -1469,18 +1524,7 @@ public class InventoryTag implements ObjectTag, Notable, Adjustable, FlaggableOb
                 qty = attribute.getIntContext(2);
                 attribute.fulfill(1);
             }
-            int found_items = 0;
-            for (ItemStack item : object.getContents()) {
-                if (item != null) {
-                    if (new ItemTag(item).tryAdvancedMatcher(matcher)) {
-                        found_items += item.getAmount();
-                        if (found_items >= qty) {
-                            break;
-                        }
-                    }
-                }
-            }
-            return new ElementTag(found_items >= qty);
+            return new ElementTag(object.quantityMatching(CompiledItemMatcher.compile(matcher), qty) >= qty);
         });
 
         tagProcessor.registerTag(ElementTag.class, "contains", (attribute, object) -> {
@@ -1866,16 +1910,8 @@ public class InventoryTag implements ObjectTag, Notable, Adjustable, FlaggableOb
             if (!attribute.hasParam()) {
                 return null;
             }
-            String matcher = attribute.getParam();
-            for (int i = 0; i < object.inventory.getSize(); i++) {
-                ItemStack item = object.inventory.getItem(i);
-                if (item != null) {
-                    if (new ItemTag(item).tryAdvancedMatcher(matcher)) {
-                        return new ElementTag(i + 1);
-                    }
-                }
-            }
-            return new ElementTag(-1);
+            int[] slots = object.findMatching(CompiledItemMatcher.compile(attribute.getParam()), 1);
+            return new ElementTag(slots.length == 0 ? -1 : slots[0] + 1);
         });
 
         // <--[tag]
@@ -1891,14 +1927,8 @@ public class InventoryTag implements ObjectTag, Notable, Adjustable, FlaggableOb
                 return null;
             }
             ListTag result = new ListTag();
-            String matcher = attribute.getParam();
-            for (int i = 0; i < object.inventory.getSize(); i++) {
-                ItemStack item = object.inventory.getItem(i);
-                if (item != null) {
-                    if (new ItemTag(item).tryAdvancedMatcher(matcher)) {
-                        result.addObject(new ElementTag(i + 1));
-                    }
-                }
+            for (int slot : object.findMatching(CompiledItemMatcher.compile(attribute.getParam()), Integer.MAX_VALUE)) {
+                result.addObject(new ElementTag(slot + 1));
             }
             return result;
         });
@@ -2025,13 +2055,13 @@ public class InventoryTag implements ObjectTag, Notable, Adjustable, FlaggableOb
         // Uses the system behind <@link language Advanced Object Matching>.
         // -->
         tagProcessor.registerTag(ElementTag.class, "quantity_item", (attribute, object) -> {
-            String matcher = attribute.hasParam() ? attribute.getParam() : null;
+            if (attribute.hasParam()) {
+                return new ElementTag(object.quantityMatching(CompiledItemMatcher.compile(attribute.getParam()), Integer.MAX_VALUE));
+            }
             int found_items = 0;
             for (ItemStack item : object.getContents()) {
                 if (item != null) {
-                    if (matcher == null || new ItemTag(item).tryAdvancedMatcher(matcher)) {
-                        found_items += item.getAmount();
-                    }
+                    found_items += item.getAmount();
                 }
             }
             return new ElementTag(found_items);
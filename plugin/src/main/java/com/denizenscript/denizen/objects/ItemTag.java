@@ -11,6 +11,7 @@ import com.denizenscript.denizen.scripts.containers.core.BookScriptContainer;
 import com.denizenscript.denizen.scripts.containers.core.ItemScriptContainer;
 import com.denizenscript.denizen.scripts.containers.core.ItemScriptHelper;
 import com.denizenscript.denizen.tags.BukkitTagContext;
+import com.denizenscript.denizen.utilities.LRUCacheMap;
 import com.denizenscript.denizen.utilities.Utilities;
 import com.denizenscript.denizen.utilities.nbt.CustomNBT;
 import com.denizenscript.denizencore.events.ScriptEvent;
@@ -44,7 +45,6 @@ import org.bukkit.inventory.meta.Damageable;
 import org.bukkit.inventory.meta.ItemMeta;
 
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
@@ -822,12 +822,31 @@ public class ItemTag implements ObjectTag, Adjustable, FlaggableObject {
 
             public String compareValue;
 
+            /**
+             * The typed value to compare against, if the property is a ComparableItemProperty.
+             */
+            public Object typedCompareValue;
+
+            public boolean isTyped;
+
             public PropertyParser.PropertyGetter getter;
 
             public PropertyComparison(String compareValue, PropertyParser.PropertyGetter getter) {
                 this.compareValue = compareValue;
                 this.getter = getter;
             }
+
+            public PropertyComparison(Property property, PropertyParser.PropertyGetter getter) {
+                this.getter = getter;
+                if (property instanceof ComparableItemProperty comparable) {
+                    isTyped = true;
+                    typedCompareValue = comparable.getComparisonValue();
+                    compareValue = typedCompareValue == null ? null : property.getPropertyString();
+                }
+                else {
+                    compareValue = property.getPropertyString();
+                }
+            }
         }
 
         public List<PropertyComparison> comparisons = new ArrayList<>();
@@ -846,6 +865,20 @@ public class ItemTag implements ObjectTag, Adjustable, FlaggableObject {
                     Debug.verboseLog("[ItemPropertyMatchHelper] deny because property is null");
                     return false;
                 }
+                if (comparison.isTyped && p instanceof ComparableItemProperty comparable) {
+                    Object typedVal = comparable.getComparisonValue();
+                    if (comparison.typedCompareValue == null || typedVal == null) {
+                        if (comparison.typedCompareValue != typedVal) {
+                            Debug.verboseLog("[ItemPropertyMatchHelper] deny because nullity");
+                            return false;
+                        }
+                    }
+                    else if (!comparable.comparisonValuesMatch(comparison.typedCompareValue, typedVal)) {
+                        Debug.verboseLog("[ItemPropertyMatchHelper] deny because unequal");
+                        return false;
+                    }
+                    continue;
+                }
                 String val = p.getPropertyString();
                 if (comparison.compareValue == null) {
                     if (val != null) {
@@ -869,9 +902,10 @@ public class ItemTag implements ObjectTag, Adjustable, FlaggableObject {
         }
     }
 
-    public static LinkedHashMap<String, ItemPropertyMatchHelper> matchHelperCache = new LinkedHashMap<>();
+    public static final int MAX_MATCH_HELPER_CACHE = 1024;
 
-    public static int MAX_MATCH_HELPER_CACHE = 1024;
+    // Synchronized, as matchers can be checked from async tag contexts
+    public static final Map<String, ItemPropertyMatchHelper> matchHelperCache = LRUCacheMap.synchronizedCache(64, MAX_MATCH_HELPER_CACHE);
 
     public static ItemPropertyMatchHelper getPropertyMatchHelper(String text) {
         if (CoreConfiguration.debugVerbose) {
@@ -911,11 +945,7 @@ public class ItemTag implements ObjectTag, Adjustable, FlaggableObject {
             if (realProp == null) {
                 continue;
             }
-            matchHelper.comparisons.add(new ItemPropertyMatchHelper.PropertyComparison(realProp.getPropertyString(), getter));
-        }
-        if (matchHelperCache.size() > MAX_MATCH_HELPER_CACHE) {
-            String firstMost = matchHelperCache.keySet().iterator().next();
-            matchHelperCache.remove(firstMost);
+            matchHelper.comparisons.add(new ItemPropertyMatchHelper.PropertyComparison(realProp, getter));
         }
         if (CoreConfiguration.debugVerbose) {
             Debug.verboseLog("[ItemPropertyMatchHelper] stored final result as " + matchHelper);
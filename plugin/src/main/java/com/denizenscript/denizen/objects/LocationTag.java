@@ -3116,6 +3116,10 @@ public class LocationTag extends org.bukkit.Location implements VectorObject, Ob
         // @description
         // Returns a full list of points along the path from this location to the given location.
         // Uses a max range of 100 blocks from the start.
+        // Recently found paths (including failed searches) are reused for up to 10 seconds.
+        // A reused path is dropped early when a player, entity, explosion, piston, or natural block change (like fluid flow or growth) changes a block in any chunk it passes through
+        // (for a failed search, only the start or destination chunk), but not for changes made by commands like 'modifyblock' or by other plugins.
+        // To find a path without stalling the server, use <@link command findpath> instead.
         // -->
         tagProcessor.registerTag(ListTag.class, "find_path", (attribute, object) -> {
             if (!attribute.hasParam()) {
@@ -18,9 +18,12 @@ import com.denizenscript.denizencore.tags.TagContext;
 import com.denizenscript.denizencore.tags.TagManager;
 import com.denizenscript.denizencore.utilities.CoreUtilities;
 import com.denizenscript.denizencore.utilities.YamlConfiguration;
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
 import org.bukkit.Location;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import java.util.function.Predicate;
 
@@ -88,6 +91,100 @@ public class PolygonTag implements ObjectTag, Cloneable, Notable, Adjustable, Ar
         }
     }
 
+    /**
+     * Polygons with fewer corners than this just test every edge, as the edge index wouldn't save anything.
+     */
+    public static final int EDGE_INDEX_MIN_CORNERS = 16;
+
+    public static final int EDGE_INDEX_MAX_BANDS = 512;
+
+    /**
+     * The polygon's edges sorted into equal-height Z bands, so that a point only needs testing against the edges that overlap its own band.
+     * Each band holds its edges flattened as (startX, startZ, endX, endZ), in the same start/end order as the corner list.
+     */
+    public static class EdgeIndex {
+
+        public final double minZ, bandHeight;
+
+        public final int bandCount;
+
+        public final double[][] bands;
+
+        public EdgeIndex(List<Corner> corners, double minZ, double maxZ) {
+            this.minZ = minZ;
+            bandCount = maxZ > minZ ? Math.min(EDGE_INDEX_MAX_BANDS, corners.size()) : 1;
+            bandHeight = (maxZ - minZ) / bandCount;
+            DoubleArrayList[] lists = new DoubleArrayList[bandCount];
+            for (int i = 0; i < bandCount; i++) {
+                lists[i] = new DoubleArrayList();
+            }
+            for (int i = 0; i < corners.size(); i++) {
+                Corner start = corners.get(i);
+                Corner end = (i + 1 == corners.size() ? corners.get(0) : corners.get(i + 1));
+                int lowBand = bandOf(Math.min(start.z, end.z)), highBand = bandOf(Math.max(start.z, end.z));
+                for (int band = lowBand; band <= highBand; band++) {
+                    lists[band].add(start.x);
+                    lists[band].add(start.z);
+                    lists[band].add(end.x);
+                    lists[band].add(end.z);
+                }
+            }
+            bands = new double[bandCount][];
+            for (int i = 0; i < bandCount; i++) {
+                bands[i] = lists[i].toDoubleArray();
+            }
+        }
+
+        public int bandOf(double z) {
+            if (bandCount == 1) {
+                return 0;
+            }
+            int band = (int) ((z - minZ) / bandHeight);
+            return band < 0 ? 0 : Math.min(band, bandCount - 1);
+        }
+
+        public double[] getEdges(double z) {
+            return bands[bandOf(z)];
+        }
+    }
+
+    public EdgeIndex edgeIndex;
+
+    /**
+     * Returns the edge index (building it if needed), or null if the polygon is small enough to not need one.
+     */
+    public EdgeIndex getEdgeIndex() {
+        if (corners.size() < EDGE_INDEX_MIN_CORNERS) {
+            return null;
+        }
+        EdgeIndex index = edgeIndex;
+        if (index == null) {
+            index = new EdgeIndex(corners, boxMin.z, boxMax.z);
+            edgeIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the edges that could cross the given Z value, flattened as in EdgeIndex.
+     */
+    public double[] getEdgesNear(double z) {
+        EdgeIndex index = getEdgeIndex();
+        if (index != null) {
+            return index.getEdges(z);
+        }
+        double[] edges = new double[corners.size() * 4];
+        for (int i = 0; i < corners.size(); i++) {
+            Corner start = corners.get(i);
+            Corner end = (i + 1 == corners.size() ? corners.get(0) : corners.get(i + 1));
+            edges[i * 4] = start.x;
+            edges[i * 4 + 1] = start.z;
+            edges[i * 4 + 2] = end.x;
+            edges[i * 4 + 3] = end.z;
+        }
+        return edges;
+    }
+
     public PolygonTag(WorldTag world) {
         this.world = world;
     }
@@ -103,6 +200,7 @@ public class PolygonTag implements ObjectTag, Cloneable, Notable, Adjustable, Ar
     }
 
     public void recalculateBox() {
+        edgeIndex = null;
         if (corners.size() == 0) {
             return;
         }
@@ -117,6 +215,7 @@ public class PolygonTag implements ObjectTag, Cloneable, Notable, Adjustable, Ar
     }
 
     public void recalculateToFit(Corner corner) {
+        edgeIndex = null;
         boxMin.x = Math.min(boxMin.x, corner.x);
         boxMin.z = Math.min(boxMin.z, corner.z);
         boxMax.x = Math.max(boxMax.x, corner.x);
@@ -244,6 +343,18 @@ public class PolygonTag implements ObjectTag, Cloneable, Notable, Adjustable, Ar
         if (y < yMin || y > yMax) {
             return false;
         }
+        EdgeIndex index = getEdgeIndex();
+        if (index != null) {
+            double[] edges = index.getEdges(z);
+            boolean isInside = false;
+            for (int i = 0; i < edges.length; i += 4) {
+                double startX = edges[i], startZ = edges[i + 1], endX = edges[i + 2], endZ = edges[i + 3];
+                if (((startZ > z) != (endZ > z)) && (x < (endX - startX) * (z - startZ) / (endZ - startZ) + startX)) {
+                    isInside = !isInside;
+                }
+            }
+            return isInside;
+        }
         boolean isInside = false;
         for (int i = 0; i < corners.size(); i++) {
             Corner start = corners.get(i);
@@ -307,7 +418,77 @@ public class PolygonTag implements ObjectTag, Cloneable, Notable, Adjustable, Ar
         return isInside;
     }
 
+    /**
+     * Returns the X values at which each edge crosses the given Z line, sorted, using the same crossing rule as containsPrecise.
+     */
+    public double[] getSortedCrossings(double z) {
+        double[] edges = getEdgesNear(z);
+        DoubleArrayList crossings = new DoubleArrayList();
+        for (int i = 0; i < edges.length; i += 4) {
+            double startX = edges[i], startZ = edges[i + 1], endX = edges[i + 2], endZ = edges[i + 3];
+            if ((startZ > z) != (endZ > z)) {
+                crossings.add((endX - startX) * (z - startZ) / (endZ - startZ) + startX);
+            }
+        }
+        double[] result = crossings.toDoubleArray();
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Equivalent to generateFlatBlockShell with containsPrecise, but fills each Z row from its edge crossings (scanline) rather than testing each block separately.
+     * Output order and the max-blocks cutoff are the same as the per-block loop.
+     */
+    public List<LocationTag> generateFlatBlockShellPrecise(double y) {
+        int max = Settings.blockTagsMaxBlocks();
+        ArrayList<LocationTag> toOutput = new ArrayList<>();
+        if (y < yMin || y > yMax) {
+            return toOutput;
+        }
+        int minX = (int) Math.floor(boxMin.x), minZ = (int) Math.floor(boxMin.z);
+        int width = (int) Math.ceil(boxMax.x) - minX, depth = (int) Math.ceil(boxMax.z) - minZ;
+        if (width <= 0 || depth <= 0 || max <= 0) {
+            return toOutput;
+        }
+        // Only the blocks the loop below can reach before hitting the max are ever calculated
+        int columns = Math.min(width, max / depth + 1);
+        int rows = columns == 1 ? Math.min(depth, max) : depth;
+        BitSet inside = new BitSet(columns * rows);
+        for (int row = 0; row < rows; row++) {
+            double zCenter = minZ + row + 0.5;
+            if (zCenter < boxMin.z || zCenter > boxMax.z) {
+                continue;
+            }
+            double[] crossings = getSortedCrossings(zCenter);
+            int passed = 0;
+            for (int column = 0; column < columns; column++) {
+                double xCenter = minX + column + 0.5;
+                while (passed < crossings.length && !(xCenter < crossings[passed])) {
+                    passed++;
+                }
+                if (xCenter >= boxMin.x && xCenter <= boxMax.x && ((crossings.length - passed) & 1) == 1) {
+                    inside.set(column * rows + row);
+                }
+            }
+        }
+        for (int column = 0; column < columns; column++) {
+            for (int row = 0; row < rows; row++) {
+                if (inside.get(column * rows + row)) {
+                    toOutput.add(new LocationTag(minX + column + 0.5, y, minZ + row + 0.5, world.getName()));
+                }
+                max--;
+                if (max <= 0) {
+                    return toOutput;
+                }
+            }
+        }
+        return toOutput;
+    }
+
     public List<LocationTag> generateFlatBlockShell(double y, boolean inclusive) {
+        if (!inclusive) {
+            return generateFlatBlockShellPrecise(y);
+        }
         int max = Settings.blockTagsMaxBlocks();
         ArrayList<LocationTag> toOutput = new ArrayList<>();
         for (int x = (int) Math.floor(boxMin.x); x < boxMax.x; x++) {
@@ -705,6 +886,7 @@ public class PolygonTag implements ObjectTag, Cloneable, Notable, Adjustable, Ar
             toReturn.boxMin.z += shift.getZ();
             toReturn.boxMax.x += shift.getX();
             toReturn.boxMax.z += shift.getZ();
+            toReturn.edgeIndex = null;
             return toReturn;
         });
 
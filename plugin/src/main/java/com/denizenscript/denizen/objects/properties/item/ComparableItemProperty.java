@@ -0,0 +1,18 @@
+package com.denizenscript.denizen.objects.properties.item;
+
+/**
+ * Optional interface for item properties that can be compared by their underlying values, rather than by their serialized property strings.
+ * Used by item matchers with properties (like "diamond_sword[lore=...]") to check many candidate items without serializing each one.
+ */
+public interface ComparableItemProperty {
+
+    /**
+     * Returns the raw value to compare, or null exactly when the property string would be null.
+     */
+    Object getComparisonValue();
+
+    /**
+     * Returns whether the two (non-null) comparison values represent matching property values.
+     */
+    boolean comparisonValuesMatch(Object expected, Object actual);
+}
@@ -19,7 +19,7 @@ import org.bukkit.inventory.meta.EnchantmentStorageMeta;
 
 import java.util.*;
 
-public class ItemEnchantments implements Property {
+public class ItemEnchantments implements Property, ComparableItemProperty {
 
     public static boolean describes(ObjectTag item) {
         // Technically, all items can hold enchants.
@@ -187,6 +187,21 @@ public class ItemEnchantments implements Property {
         return "enchantments";
     }
 
+    @Override
+    public Object getComparisonValue() {
+        Set<Map.Entry<Enchantment, Integer>> enchantments = getEnchantments();
+        if (enchantments.isEmpty()) {
+            return null;
+        }
+        return enchantments;
+    }
+
+    @Override
+    public boolean comparisonValuesMatch(Object expected, Object actual) {
+        // Entry sets compare by content, regardless of the order the item stores its enchantments in
+        return expected.equals(actual);
+    }
+
     @Override
     public void adjust(Mechanism mechanism) {
 
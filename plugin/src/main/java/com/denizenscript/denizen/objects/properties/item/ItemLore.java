@@ -13,7 +13,7 @@ import com.denizenscript.denizencore.utilities.CoreUtilities;
 
 import java.util.List;
 
-public class ItemLore implements Property {
+public class ItemLore implements Property, ComparableItemProperty {
 
     public static boolean describes(ObjectTag item) {
         // Technically, all items can hold lore
@@ -108,6 +108,30 @@ public class ItemLore implements Property {
         return "lore";
     }
 
+    @Override
+    public Object getComparisonValue() {
+        if (!hasLore()) {
+            return null;
+        }
+        List<String> lore = NMSHandler.itemHelper.getLore(item);
+        return lore == null || lore.isEmpty() ? null : lore;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean comparisonValuesMatch(Object expected, Object actual) {
+        List<String> expectedLore = (List<String>) expected, actualLore = (List<String>) actual;
+        if (expectedLore.size() != actualLore.size()) {
+            return false;
+        }
+        for (int i = 0; i < expectedLore.size(); i++) {
+            if (!CoreUtilities.equalsIgnoreCase(expectedLore.get(i), actualLore.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public void adjust(Mechanism mechanism) {
 
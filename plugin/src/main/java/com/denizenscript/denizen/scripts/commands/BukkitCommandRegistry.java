@@ -158,6 +158,7 @@ public class BukkitCommandRegistry {
         registerCommand(CreateWorldCommand.class);
         registerCommand(DropCommand.class);
         registerCommand(ExplodeCommand.class);
+        registerCommand(FindPathCommand.class);
         registerCommand(FireworkCommand.class);
         registerCommand(GameRuleCommand.class);
         registerCommand(LightCommand.class);
@@ -9,6 +9,7 @@ import com.denizenscript.denizen.utilities.PaperAPITools;
 import com.denizenscript.denizen.utilities.Conversion;
 import com.denizenscript.denizen.utilities.Utilities;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
+import com.denizenscript.denizen.utilities.inventory.InventoryContentIndex;
 import com.denizenscript.denizen.utilities.inventory.InventoryTrackerSystem;
 import com.denizenscript.denizen.utilities.inventory.SlotHelper;
 import com.denizenscript.denizencore.exceptions.InvalidArgumentsException;
@@ -501,6 +502,7 @@ public class InventoryCommand extends AbstractCommand implements Listener {
     }
 
     public void remove(Inventory inventory, ItemStack[] items) {
+        InventoryContentIndex.invalidate(inventory);
         for (ItemStack item : items) {
             if (item != null) {
                 inventory.removeItem(item.clone());
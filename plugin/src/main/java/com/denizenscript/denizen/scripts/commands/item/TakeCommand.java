@@ -6,6 +6,7 @@ import com.denizenscript.denizen.scripts.containers.core.ItemScriptHelper;
 import com.denizenscript.denizen.utilities.Utilities;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
 import com.denizenscript.denizen.utilities.depends.Depends;
+import com.denizenscript.denizen.utilities.inventory.InventoryContentIndex;
 import com.denizenscript.denizen.utilities.inventory.SlotHelper;
 import com.denizenscript.denizen.utilities.nbt.CustomNBT;
 import com.denizenscript.denizen.objects.InventoryTag;
@@ -256,6 +257,7 @@ public class TakeCommand extends AbstractCommand {
         switch (type) {
             case ITEMINHAND: {
                 Player player = Utilities.getEntryPlayer(scriptEntry).getPlayerEntity();
+                InventoryContentIndex.invalidate(player.getInventory());
                 int inHandAmt = player.getEquipment().getItemInMainHand().getAmount();
                 int theAmount = (int) quantity.asDouble();
                 ItemStack newHandItem = new ItemStack(Material.AIR);
@@ -437,6 +439,7 @@ public class TakeCommand extends AbstractCommand {
 
     public void takeByMatcher(InventoryTag inventory, Function<ItemStack, Boolean> matcher, int quantity) {
         int itemsTaken = 0;
+        InventoryContentIndex.invalidate(inventory.getInventory());
         ItemStack[] contents = inventory.getInventory().getContents();
         for (int i = 0; i < contents.length; i++) {
             ItemStack it = contents[i];
@@ -461,6 +464,7 @@ public class TakeCommand extends AbstractCommand {
         if (item == null) {
             return false;
         }
+        InventoryContentIndex.invalidate(inventory);
         item = new ItemTag(item.getItemStack().clone());
         item.setAmount(1);
         String myItem = CoreUtilities.toLowerCase(item.identify());
@@ -3,6 +3,7 @@ package com.denizenscript.denizen.scripts.commands.player;
 import com.denizenscript.denizen.objects.EntityTag;
 import com.denizenscript.denizen.utilities.PaperAPITools;
 import com.denizenscript.denizen.utilities.ScoreboardHelper;
+import com.denizenscript.denizen.utilities.VirtualScoreboard;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
 import com.denizenscript.denizen.objects.PlayerTag;
 import com.denizenscript.denizencore.exceptions.InvalidArgumentsException;
@@ -17,20 +18,23 @@ import org.bukkit.ChatColor;
 import org.bukkit.scoreboard.Scoreboard;
 import org.bukkit.scoreboard.Team;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class TeamCommand extends AbstractCommand {
 
     public TeamCommand() {
         setName("team");
-        setSyntax("team (id:<scoreboard>/{main}) [name:<team>] (add:<entry>|...) (remove:<entry>|...) (prefix:<prefix>) (suffix:<suffix>) (option:<type> status:<status>) (color:<color>)");
-        setRequiredArguments(2, 9);
+        setSyntax("team (id:<scoreboard>/{main}) [name:<team>] (add:<entry>|...) (remove:<entry>|...) (prefix:<prefix>) (suffix:<suffix>) (option:<type> status:<status>) (color:<color>) (virtual)");
+        setRequiredArguments(2, 10);
         isProcedural = false;
     }
 
     // <--[command]
     // @Name Team
-    // @Syntax team (id:<scoreboard>/{main}) [name:<team>] (add:<entry>|...) (remove:<entry>|...) (prefix:<prefix>) (suffix:<suffix>) (option:<type> status:<status>) (color:<color>)
+    // @Syntax team (id:<scoreboard>/{main}) [name:<team>] (add:<entry>|...) (remove:<entry>|...) (prefix:<prefix>) (suffix:<suffix>) (option:<type> status:<status>) (color:<color>) (virtual)
     // @Required 2
-    // @Maximum 9
+    // @Maximum 10
     // @Short Controls scoreboard teams.
     // @Group player
     //
@@ -50,6 +54,9 @@ public class TeamCommand extends AbstractCommand {
     // Option can be "COLLISION_RULE", "DEATH_MESSAGE_VISIBILITY", or "NAME_TAG_VISIBILITY", with status "ALWAYS", "FOR_OTHER_TEAMS", "FOR_OWN_TEAM", or "NEVER".
     // Option can instead be "FRIENDLY_FIRE" or "SEE_INVISIBLE", only allowing status "ALWAYS" or "NEVER".
     //
+    // Specify "virtual" to control a team on a virtual scoreboard (see <@link command scoreboard>) rather than a server scoreboard.
+    // Virtual teams only support the "add", "remove", "prefix" and "suffix" arguments.
+    //
     // @Tags
     // <server.scoreboard[(<board>)].team[<team>].members>
     //
@@ -117,6 +124,10 @@ public class TeamCommand extends AbstractCommand {
                     || arg.matches("friendly_fire", "see_invisible"))) {
                 scriptEntry.addObject("option", arg.asElement());
             }
+            else if (arg.matches("virtual")
+                    && !scriptEntry.hasObject("virtual")) {
+                scriptEntry.addObject("virtual", new ElementTag(true));
+            }
             else if (arg.matchesPrefix("status")
                     && !scriptEntry.hasObject("status")
                     && arg.matchesEnum(Team.OptionStatus.class)) {
@@ -171,7 +182,38 @@ public class TeamCommand extends AbstractCommand {
         ElementTag status = scriptEntry.getElement("status");
         ElementTag color = scriptEntry.getElement("color");
         if (scriptEntry.dbCallShouldDebug()) {
-            Debug.report(scriptEntry, getName(), id, name, add, remove, prefix, suffix, color, option, status);
+            Debug.report(scriptEntry, getName(), id, name, add, remove, prefix, suffix, color, option, status, scriptEntry.getElement("virtual"));
+        }
+        if (scriptEntry.hasObject("virtual")) {
+            if (id.asString().equalsIgnoreCase("main")) {
+                Debug.echoError(scriptEntry, "Virtual teams must be on a virtual scoreboard with a custom ID, not 'main'.");
+                return;
+            }
+            if (option != null || color != null) {
+                Debug.echoError(scriptEntry, "Virtual teams do not support options or colors.");
+                return;
+            }
+            VirtualScoreboard virtualBoard = VirtualScoreboard.getOrCreateBoard(id.asString());
+            VirtualScoreboard.VirtualTeam virtualTeam = virtualBoard.getOrCreateTeam(name.asString());
+            if (add != null) {
+                List<String> entries = new ArrayList<>(add.size());
+                for (String string : add) {
+                    entries.add(translateEntry(string, scriptEntry.context));
+                }
+                virtualBoard.changeTeamMembers(virtualTeam, entries, true);
+            }
+            if (remove != null) {
+                List<String> entries = new ArrayList<>(remove.size());
+                for (String string : remove) {
+                    entries.add(translateEntry(string, scriptEntry.context));
+                }
+                virtualBoard.changeTeamMembers(virtualTeam, entries, false);
+            }
+            virtualBoard.setTeamAffixes(virtualTeam, prefix == null ? null : prefix.asString(), suffix == null ? null : suffix.asString());
+            if (virtualTeam.members.isEmpty()) {
+                virtualBoard.removeTeam(virtualTeam.name);
+            }
+            return;
         }
         Scoreboard board;
         if (id.asString().equalsIgnoreCase("main")) {
@@ -3,6 +3,7 @@ package com.denizenscript.denizen.scripts.commands.server;
 import com.denizenscript.denizen.objects.EntityTag;
 import com.denizenscript.denizen.utilities.Utilities;
 import com.denizenscript.denizen.utilities.ScoreboardHelper;
+import com.denizenscript.denizen.utilities.VirtualScoreboard;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
 import com.denizenscript.denizen.objects.PlayerTag;
 import com.denizenscript.denizencore.exceptions.InvalidArgumentsException;
@@ -26,16 +27,16 @@ public class ScoreboardCommand extends AbstractCommand {
 
     public ScoreboardCommand() {
         setName("scoreboard");
-        setSyntax("scoreboard ({add}/remove) (viewers:<player>|...) (lines:<player>/<text>|...) (id:<value>/player/{main}) (objective:<value>) (criteria:<criteria>/{dummy}) (score:<#>) (displayslot:<value>/{sidebar}/none) (displayname:<name>) (rendertype:<type>)");
-        setRequiredArguments(1, 10);
+        setSyntax("scoreboard ({add}/remove) (viewers:<player>|...) (lines:<player>/<text>|...) (id:<value>/player/{main}) (objective:<value>) (criteria:<criteria>/{dummy}) (score:<#>) (displayslot:<value>/{sidebar}/none) (displayname:<name>) (rendertype:<type>) (virtual) (per_viewer)");
+        setRequiredArguments(1, 12);
         isProcedural = false;
     }
 
     // <--[command]
     // @Name Scoreboard
-    // @Syntax scoreboard ({add}/remove) (viewers:<player>|...) (lines:<player>/<text>|...) (id:<value>/player/{main}) (objective:<value>) (criteria:<criteria>/{dummy}) (score:<#>) (displayslot:<value>/{sidebar}/none) (displayname:<name>) (rendertype:<type>)
+    // @Syntax scoreboard ({add}/remove) (viewers:<player>|...) (lines:<player>/<text>|...) (id:<value>/player/{main}) (objective:<value>) (criteria:<criteria>/{dummy}) (score:<#>) (displayslot:<value>/{sidebar}/none) (displayname:<name>) (rendertype:<type>) (virtual) (per_viewer)
     // @Required 1
-    // @Maximum 10
+    // @Maximum 12
     // @Short Add or removes viewers, objectives and scores from scoreboards.
     // @Group server
     //
@@ -77,6 +78,14 @@ public class ScoreboardCommand extends AbstractCommand {
     // and if you also specify certain lines, you will only delete those specific lines from that objective.
     // Similarly, if you use the "remove" argument along with the "id" and "viewers" arguments, you will only remove those viewers from the scoreboard, not the entire scoreboard.
     //
+    // Specify "virtual" to use a packet-only scoreboard, which only exists on the clients of its viewers rather than on the server.
+    // Virtual scoreboards only send viewers what actually changed, and are much cheaper than server scoreboards when there are many boards or frequent updates.
+    // They only support 'dummy' criteria (ie scores set by this command), cannot use the 'main' or 'player' IDs, and are not visible to the scoreboard tags.
+    // Virtual scoreboards are saved in a separate compact file, 'virtual_scoreboards.dat'.
+    //
+    // When using a virtual scoreboard, specify "per_viewer" along with "viewers", "objective" and "lines" to set (or with "remove", clear) scores that only those viewers will see,
+    // which override the shared score for that line. Per-viewer scores are not saved.
+    //
     // @Tags
     // <server.scoreboard[(<board>)].exists>
     // <server.scoreboard[(<board>)].team[<team>].members>
@@ -113,6 +122,10 @@ public class ScoreboardCommand extends AbstractCommand {
     // @Usage
     // Make all the players on the world "survival" see each other's number of entity kills in the player list when pressing Tab
     // - scoreboard add viewers:<world[survival].players> id:test obj:anything criteria:totalKillCount displayslot:player_list
+    //
+    // @Usage
+    // Use a virtual scoreboard to show the linked player their own coin count on a sidebar shared with other players
+    // - scoreboard add virtual id:game obj:stats lines:Coins score:<player.flag[coins]> viewers:<player> per_viewer
     // -->
 
     private enum Action {ADD, REMOVE}
@@ -158,6 +171,14 @@ public class ScoreboardCommand extends AbstractCommand {
                     && arg.matchesEnum(RenderType.class)) {
                 scriptEntry.addObject("rendertype", arg.asElement());
             }
+            else if (!scriptEntry.hasObject("virtual")
+                    && arg.matches("virtual")) {
+                scriptEntry.addObject("virtual", new ElementTag(true));
+            }
+            else if (!scriptEntry.hasObject("per_viewer")
+                    && arg.matches("per_viewer")) {
+                scriptEntry.addObject("per_viewer", new ElementTag(true));
+            }
             else if (!scriptEntry.hasObject("viewers")
                     && arg.matchesArgumentList(PlayerTag.class)) {
                 scriptEntry.addObject("viewers", arg.asType(ListTag.class).filter(PlayerTag.class, scriptEntry));
@@ -213,7 +234,11 @@ public class ScoreboardCommand extends AbstractCommand {
             displaySlot = new ElementTag("sidebar");
         }
         if (scriptEntry.dbCallShouldDebug()) {
-            Debug.report(scriptEntry, getName(), action, id, db("viewers", viewers), objective, lines, score, objective, displaySlot, criteria, displayName, renderType);
+            Debug.report(scriptEntry, getName(), action, id, db("viewers", viewers), objective, lines, score, objective, displaySlot, criteria, displayName, renderType, scriptEntry.getElement("virtual"), scriptEntry.getElement("per_viewer"));
+        }
+        if (scriptEntry.hasObject("virtual")) {
+            executeVirtual(scriptEntry, act, viewers, lines, id, objective, hadCriteria ? criteria : null, score, hadDisplaySlot ? displaySlot : null, displayName, renderType, scriptEntry.hasObject("per_viewer"));
+            return;
         }
         Scoreboard board = null;
         // Get the main scoreboard by default
@@ -355,4 +380,100 @@ public class ScoreboardCommand extends AbstractCommand {
             }
         }
     }
+
+    public void executeVirtual(ScriptEntry scriptEntry, Action act, List<PlayerTag> viewers, ListTag lines, ElementTag id, ElementTag objective, ElementTag criteria, ElementTag score,
+                               ElementTag displaySlot, ElementTag displayName, ElementTag renderType, boolean perViewer) {
+        if (id.asString().equalsIgnoreCase("main") || id.asString().equalsIgnoreCase("player")) {
+            Debug.echoError(scriptEntry, "Virtual scoreboards must have a custom ID, not 'main' or 'player'.");
+            return;
+        }
+        if (criteria != null && !criteria.asString().equalsIgnoreCase("dummy")) {
+            Debug.echoError(scriptEntry, "Virtual scoreboards only support 'dummy' criteria.");
+            return;
+        }
+        if (perViewer && (viewers == null || objective == null || lines.isEmpty())) {
+            Debug.echoError(scriptEntry, "Per-viewer scores require viewers, an objective, and lines.");
+            return;
+        }
+        VirtualScoreboard board = act == Action.ADD ? VirtualScoreboard.getOrCreateBoard(id.asString()) : VirtualScoreboard.getBoard(id.asString());
+        if (board == null) {
+            Debug.echoError(scriptEntry, "Virtual scoreboard " + id.asString() + " does not exist!");
+            return;
+        }
+        if (perViewer) {
+            if (!board.objectives.containsKey(objective.asString())) {
+                Debug.echoError(scriptEntry, "Objective " + objective.asString() + " does not exist in virtual scoreboard " + id.asString());
+                return;
+            }
+            int scoreValue = score == null ? 0 : score.asInt();
+            for (PlayerTag viewer : viewers) {
+                for (ObjectTag line : lines.objectForms) {
+                    if (act == Action.ADD) {
+                        board.setOverride(viewer.getUUID(), objective.asString(), checkLine(line), scoreValue);
+                    }
+                    else {
+                        board.removeOverride(viewer.getUUID(), objective.asString(), checkLine(line));
+                    }
+                }
+            }
+            return;
+        }
+        if (act == Action.ADD) {
+            if (objective != null) {
+                boolean existedAlready = board.objectives.containsKey(objective.asString());
+                DisplaySlot slot = null;
+                if (displaySlot != null ? !displaySlot.asString().equalsIgnoreCase("none") : !existedAlready) {
+                    slot = DisplaySlot.valueOf(displaySlot == null ? "SIDEBAR" : CoreUtilities.toUpperCase(displaySlot.asString()));
+                    if (VirtualScoreboard.slotId(slot) == -1) {
+                        Debug.echoError(scriptEntry, "Display slot " + slot.name() + " is not supported by virtual scoreboards.");
+                        return;
+                    }
+                }
+                Boolean hearts = renderType == null ? null : renderType.asString().equalsIgnoreCase("hearts");
+                board.setObjective(objective.asString(), displayName == null ? null : displayName.asString(), hearts, slot);
+                if (!lines.isEmpty()) {
+                    int scoreValue = score == null ? 0 : score.asInt();
+                    for (ObjectTag line : lines.objectForms) {
+                        board.setScore(objective.asString(), checkLine(line), scoreValue);
+                    }
+                }
+            }
+            else if (viewers == null && !lines.isEmpty()) {
+                Debug.echoDebug(scriptEntry, "Cannot add lines without specifying an objective!");
+            }
+            if (viewers != null) {
+                for (PlayerTag viewer : viewers) {
+                    board.addViewer(viewer.getUUID());
+                }
+            }
+        }
+        else {
+            if (objective != null) {
+                if (!board.objectives.containsKey(objective.asString())) {
+                    Debug.echoError(scriptEntry, "Objective " + objective.asString() + " does not exist in virtual scoreboard " + id.asString());
+                }
+                else if (lines.isEmpty()) {
+                    board.removeObjective(objective.asString());
+                }
+                else {
+                    for (ObjectTag line : lines.objectForms) {
+                        board.removeScore(objective.asString(), checkLine(line));
+                    }
+                }
+            }
+            else if (!lines.isEmpty()) {
+                for (ObjectTag line : lines.objectForms) {
+                    board.removeEntry(checkLine(line));
+                }
+            }
+            else if (viewers == null) {
+                VirtualScoreboard.deleteBoard(id.asString());
+            }
+            if (viewers != null) {
+                for (PlayerTag viewer : viewers) {
+                    board.removeViewer(viewer.getUUID());
+                }
+            }
+        }
+    }
 }
@@ -2,6 +2,7 @@ package com.denizenscript.denizen.scripts.commands.world;
 
 import com.denizenscript.denizen.utilities.PaperAPITools;
 import com.denizenscript.denizen.utilities.blocks.FullBlockData;
+import com.denizenscript.denizen.utilities.inventory.InventoryContentIndex;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
 import com.denizenscript.denizen.objects.LocationTag;
 import com.denizenscript.denizencore.exceptions.InvalidArgumentsException;
@@ -102,6 +103,7 @@ public class CopyBlockCommand extends AbstractCommand {
             // Note: only a BlockState, not a Block, is actually an instance
             // of InventoryHolder
             if (sourceState instanceof InventoryHolder) {
+                InventoryContentIndex.invalidate(((InventoryHolder) updateState).getInventory());
                 ((InventoryHolder) updateState).getInventory()
                         .setContents(((InventoryHolder) sourceState).getInventory().getContents());
             }
@@ -0,0 +1,71 @@
+package com.denizenscript.denizen.scripts.commands.world;
+
+import com.denizenscript.denizen.objects.LocationTag;
+import com.denizenscript.denizen.utilities.world.PathFinder;
+import com.denizenscript.denizencore.objects.core.ListTag;
+import com.denizenscript.denizencore.scripts.ScriptEntry;
+import com.denizenscript.denizencore.scripts.commands.AbstractCommand;
+import com.denizenscript.denizencore.scripts.commands.Holdable;
+import com.denizenscript.denizencore.scripts.commands.generator.ArgLinear;
+import com.denizenscript.denizencore.scripts.commands.generator.ArgName;
+import com.denizenscript.denizencore.scripts.commands.generator.ArgPrefixed;
+import com.denizenscript.denizencore.utilities.debugging.Debug;
+
+public class FindPathCommand extends AbstractCommand implements Holdable {
+
+    public FindPathCommand() {
+        setName("findpath");
+        setSyntax("findpath [<location>] [to:<location>]");
+        setRequiredArguments(2, 2);
+        isProcedural = false;
+        autoCompile();
+    }
+
+    // <--[command]
+    // @Name FindPath
+    // @Syntax findpath [<location>] [to:<location>]
+    // @Required 2
+    // @Maximum 2
+    // @Short Finds a walkable path between two locations, spread over multiple ticks.
+    // @Group world
+    //
+    // @Description
+    // Finds a walkable path from the first location to the 'to' location, the same way as <@link tag LocationTag.find_path>.
+    // Uses a max range of 100 blocks from the start.
+    //
+    // Unlike the tag, the path search is spread over as many ticks as it needs (limited by the 'Commands.FindPath.Iterations per tick' config option),
+    // so searching long or impossible paths won't stall the server.
+    // Use '~' to wait for the path to be found.
+    //
+    // Recently found paths (including failed searches) are reused by both this command and the tag for up to 10 seconds.
+    // A reused path is dropped early when a player, entity, explosion, piston, or natural block change (like fluid flow or growth) changes a block in any chunk it passes through
+    // (for a failed search, only the start or destination chunk), but not for changes made by commands like 'modifyblock' or by other plugins.
+    //
+    // @Tags
+    // <entry[saveName].path> returns a ListTag(LocationTag) of points along the path, or an empty list if no path was found.
+    //
+    // @Usage
+    // Use to find a path for a guide NPC, without stalling the server.
+    // - ~findpath <npc.location> to:<player.location> save:path
+    // - narrate "The path is <entry[path].path.size> blocks long."
+    // -->
+
+    public static void autoExecute(ScriptEntry scriptEntry,
+                                   @ArgName("start") @ArgLinear LocationTag start,
+                                   @ArgName("to") @ArgPrefixed LocationTag destination) {
+        if (start.getWorld() == null || start.getWorld() != destination.getWorld()) {
+            Debug.echoError(scriptEntry, "Both locations must be in the same (loaded) world.");
+            scriptEntry.saveObject("path", new ListTag());
+            scriptEntry.setFinished(true);
+            return;
+        }
+        PathFinder.getPathAsync(start, destination).thenAccept(path -> {
+            ListTag result = new ListTag();
+            for (LocationTag point : path) {
+                result.addObject(point);
+            }
+            scriptEntry.saveObject("path", result);
+            scriptEntry.setFinished(true);
+        });
+    }
+}
@@ -5,9 +5,10 @@ import com.denizenscript.denizen.events.world.TimeChangeScriptEvent;
 import com.denizenscript.denizen.nms.NMSHandler;
 import com.denizenscript.denizen.objects.*;
 import com.denizenscript.denizen.utilities.ScoreboardHelper;
+import com.denizenscript.denizen.utilities.VirtualScoreboard;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
 import com.denizenscript.denizen.utilities.Settings;
-import com.denizenscript.denizen.utilities.flags.DataPersistenceFlagTracker;
+import com.denizenscript.denizen.utilities.flags.ChunkFlagCleaner;
 import com.denizenscript.denizencore.utilities.CoreConfiguration;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
@@ -78,6 +79,10 @@ public class BukkitWorldScriptHelper implements Listener {
                 event.getPlayer().setScoreboard(score);
             }
         }
+        VirtualScoreboard virtualBoard = VirtualScoreboard.viewerBoards.get(event.getPlayer().getUniqueId());
+        if (virtualBoard != null) {
+            virtualBoard.sendFullState(event.getPlayer());
+        }
     }
 
     @EventHandler(priority = EventPriority.MONITOR)
@@ -108,13 +113,13 @@ public class BukkitWorldScriptHelper implements Listener {
         if (CoreConfiguration.skipAllFlagCleanings || Settings.skipChunkFlagCleaning) {
             return;
         }
-        new DataPersistenceFlagTracker(event.getChunk()).doTotalClean();
+        ChunkFlagCleaner.queue(event.getChunk());
     }
 
     public static void cleanAllWorldChunkFlags() {
         for (World world : Bukkit.getWorlds()) {
             for (Chunk chunk : world.getLoadedChunks()) {
-                new DataPersistenceFlagTracker(chunk).doTotalClean();
+                ChunkFlagCleaner.queue(chunk);
             }
         }
     }
@@ -4,6 +4,7 @@ import com.denizenscript.denizen.Denizen;
 import com.denizenscript.denizen.utilities.command.scripted.DenizenAliasHelpTopic;
 import com.denizenscript.denizen.utilities.command.scripted.DenizenCommand;
 import com.denizenscript.denizen.utilities.command.scripted.DenizenCommandHelpTopic;
+import com.denizenscript.denizen.utilities.packets.NetworkInterceptHelper;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
 import com.google.common.base.Predicate;
 import com.denizenscript.denizen.utilities.Settings;
@@ -13,6 +14,7 @@ import org.bukkit.Server;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandMap;
 import org.bukkit.command.defaults.HelpCommand;
+import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.help.HelpMap;
@@ -21,8 +23,8 @@ import org.bukkit.scheduler.BukkitRunnable;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class CommandScriptHelper implements Listener {
 
@@ -36,6 +38,22 @@ public class CommandScriptHelper implements Listener {
     public static CommandScriptHelper instance;
     public static boolean isInitialized = false;
 
+    /**
+     * The commands as of the last command tree sync, by registered name or alias. Null if never synced.
+     */
+    public static Map<String, DenizenCommand> syncedCommands = null;
+
+    public static Map<String, String> syncedFingerprints = null;
+
+    /**
+     * Players to withhold the next command tree packet from, as the current sync doesn't change which commands they can see,
+     * mapped to the sync generation that marked them (so that cleanup of one sync never removes a later sync's marks).
+     * Applied by the network interceptor, so only used when that's enabled.
+     */
+    public static final ConcurrentHashMap<UUID, Integer> suppressCommandTreeFor = new ConcurrentHashMap<>();
+
+    public static int commandTreeSyncGeneration = 0;
+
     public CommandScriptHelper() {
         instance = this;
         if (Settings.cache_commandScriptAutoInit) {
@@ -113,7 +131,72 @@ public class CommandScriptHelper implements Listener {
                 registerDenizenCommand(new DenizenCommand(script));
             }
         }
+        syncChangedCommands();
+    }
+
+    /**
+     * Syncs the server command tree only if any registered command changed since the last sync,
+     * and only sends the updated tree to players who can see a changed command (when the network interceptor is available).
+     */
+    public static void syncChangedCommands() {
+        Map<String, String> fingerprints = new HashMap<>();
+        for (Map.Entry<String, DenizenCommand> entry : denizenCommands.entrySet()) {
+            fingerprints.put(entry.getKey(), entry.getValue().getSyncFingerprint());
+        }
+        if (fingerprints.equals(syncedFingerprints)) {
+            return;
+        }
+        int generation = ++commandTreeSyncGeneration;
+        List<UUID> suppressed = new ArrayList<>();
+        if (syncedFingerprints != null && NetworkInterceptHelper.isEnabled) {
+            Set<String> changed = new HashSet<>(fingerprints.keySet());
+            changed.addAll(syncedFingerprints.keySet());
+            changed.removeIf(name -> Objects.equals(fingerprints.get(name), syncedFingerprints.get(name)));
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                UUID id = player.getUniqueId();
+                if (canSeeAnyChange(player, changed)) {
+                    // An unused mark from an earlier sync must not swallow this sync's tree
+                    suppressCommandTreeFor.remove(id);
+                }
+                else {
+                    suppressCommandTreeFor.put(id, generation);
+                    suppressed.add(id);
+                }
+            }
+        }
+        syncedFingerprints = fingerprints;
+        syncedCommands = new HashMap<>(denizenCommands);
         syncDenizenCommands();
+        if (!suppressed.isEmpty()) {
+            // Only clear this sync's own marks, so that a later sync's marks and any later legitimate command tree updates are unaffected
+            Runnable clearUnused = () -> {
+                for (UUID id : suppressed) {
+                    suppressCommandTreeFor.remove(id, generation);
+                }
+            };
+            if (Denizen.supportsPaper) {
+                // Paper builds and sends the tree slightly after the sync call, so give it a moment before clearing any unused marks
+                Bukkit.getScheduler().runTaskLater(Denizen.getInstance(), clearUnused, 20);
+            }
+            else {
+                // Spigot sends the tree within the sync call, so any mark left now will never be used
+                clearUnused.run();
+            }
+        }
+    }
+
+    public static boolean canSeeAnyChange(Player player, Set<String> changed) {
+        for (String name : changed) {
+            if (overriddenCommands.containsKey(name)) {
+                return true;
+            }
+            DenizenCommand oldCommand = syncedCommands == null ? null : syncedCommands.get(name);
+            DenizenCommand newCommand = denizenCommands.get(name);
+            if ((oldCommand != null && oldCommand.testPermissionSilent(player)) || (newCommand != null && newCommand.testPermissionSilent(player))) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public static final Method syncCommandsMethod;
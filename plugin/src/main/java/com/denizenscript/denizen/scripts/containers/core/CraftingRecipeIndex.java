@@ -0,0 +1,296 @@
+package com.denizenscript.denizen.scripts.containers.core;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Keyed;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.*;
+
+import java.util.*;
+
+/**
+ * Pre-processed form of the server's crafting recipes, used to validate item script crafting restrictions quickly.
+ * Recipe choices and the item scripts they allow are resolved once per recipe rather than on every crafting grid change,
+ * and shaped recipes are indexed by their trimmed footprint and ingredient materials, so alternate recipes for a grid can be
+ * found by lookup rather than by checking every recipe for the result material.
+ * The index is built on first use after a recipe rebuild.
+ */
+public class CraftingRecipeIndex {
+
+    private static final ItemStack AIR = new ItemStack(Material.AIR);
+
+    public static class IndexedRecipe {
+
+        public final Recipe recipe;
+
+        public final Material resultType;
+
+        /**
+         * The recipe shape, or null if not a shaped recipe.
+         */
+        public String[] shape;
+
+        public Map<Character, RecipeChoice> choiceMap;
+
+        /**
+         * For shaped recipes, the item scripts allowed by each shape character's choice.
+         */
+        public Map<Character, Set<ItemScriptContainer>> charScripts;
+
+        /**
+         * For shapeless and cooking recipes, the item scripts allowed by any input choice.
+         */
+        public Set<ItemScriptContainer> anyScripts;
+
+        public IndexedRecipe(Recipe recipe) {
+            this.recipe = recipe;
+            this.resultType = recipe.getResult().getType();
+            if (recipe instanceof ShapedRecipe shaped) {
+                shape = shaped.getShape();
+                choiceMap = shaped.getChoiceMap();
+                charScripts = new HashMap<>();
+                for (Map.Entry<Character, RecipeChoice> entry : choiceMap.entrySet()) {
+                    charScripts.put(entry.getKey(), getAllowedScripts(entry.getValue(), null));
+                }
+            }
+            else if (recipe instanceof ShapelessRecipe shapeless) {
+                anyScripts = new HashSet<>();
+                for (RecipeChoice choice : shapeless.getChoiceList()) {
+                    getAllowedScripts(choice, anyScripts);
+                }
+            }
+            else if (recipe instanceof CookingRecipe cooking) {
+                anyScripts = getAllowedScripts(cooking.getInputChoice(), null);
+            }
+        }
+
+        public boolean isAllowedAt(char c, ItemScriptContainer container) {
+            Set<ItemScriptContainer> scripts = charScripts.get(c);
+            return scripts != null && scripts.contains(container);
+        }
+    }
+
+    /**
+     * A crafting grid, with item script identity resolved once per slot.
+     */
+    public static class CraftingGrid {
+
+        public final ItemStack[] items;
+
+        public final ItemScriptContainer[] containers;
+
+        public final int width;
+
+        /**
+         * Whether any item in the grid is an item script that isn't allowed in material recipes.
+         */
+        public boolean restricted = false;
+
+        public long materialKey, footprintKey;
+
+        public CraftingGrid(ItemStack[] items) {
+            this.items = items;
+            this.width = items.length == 9 ? 3 : 2;
+            containers = new ItemScriptContainer[items.length];
+            for (int i = 0; i < items.length; i++) {
+                ItemStack item = items[i];
+                if (item == null || item.getType() == Material.AIR) {
+                    continue;
+                }
+                ItemScriptContainer container = ItemScriptHelper.getItemScriptContainer(item);
+                containers[i] = container;
+                if (container != null && !container.allowInMaterialRecipes) {
+                    restricted = true;
+                }
+            }
+        }
+
+        public ItemStack getForTest(int index) {
+            ItemStack item = items[index];
+            return item == null ? AIR : item;
+        }
+
+        /**
+         * Calculates the index keys for the grid's trimmed footprint and materials, which are left as 0 if the grid is empty.
+         */
+        public void calculateKeys() {
+            int minX = width, minY = width, maxX = -1, maxY = -1, count = 0;
+            int[] ordinals = new int[items.length];
+            for (int i = 0; i < items.length; i++) {
+                ItemStack item = items[i];
+                if (item == null || item.getType() == Material.AIR) {
+                    continue;
+                }
+                int x = i % width, y = i / width;
+                minX = Math.min(minX, x);
+                minY = Math.min(minY, y);
+                maxX = Math.max(maxX, x);
+                maxY = Math.max(maxY, y);
+                ordinals[count++] = item.getType().ordinal();
+            }
+            if (count == 0) {
+                return;
+            }
+            footprintKey = buildFootprintKey(maxX - minX + 1, maxY - minY + 1, count);
+            materialKey = buildMaterialKey(footprintKey, Arrays.copyOf(ordinals, count));
+        }
+    }
+
+    public static long buildFootprintKey(int width, int height, int count) {
+        return (width << 6) | (height << 4) | count;
+    }
+
+    public static long buildMaterialKey(long footprintKey, int[] materialOrdinals) {
+        Arrays.sort(materialOrdinals);
+        long hash = 1;
+        for (int ordinal : materialOrdinals) {
+            hash = hash * 31 + ordinal;
+        }
+        return (hash << 8) | footprintKey;
+    }
+
+    public static Set<ItemScriptContainer> getAllowedScripts(RecipeChoice choice, Set<ItemScriptContainer> output) {
+        if (output == null) {
+            output = new HashSet<>();
+        }
+        if (choice instanceof RecipeChoice.ExactChoice exact) {
+            for (ItemStack choiceOpt : exact.getChoices()) {
+                ItemScriptContainer container = ItemScriptHelper.getItemScriptContainer(choiceOpt);
+                if (container != null) {
+                    output.add(container);
+                }
+            }
+        }
+        return output;
+    }
+
+    public static Set<Material> getChoiceMaterials(RecipeChoice choice) {
+        Set<Material> materials = EnumSet.noneOf(Material.class);
+        if (choice instanceof RecipeChoice.MaterialChoice materialChoice) {
+            materials.addAll(materialChoice.getChoices());
+        }
+        else if (choice instanceof RecipeChoice.ExactChoice exact) {
+            for (ItemStack item : exact.getChoices()) {
+                materials.add(item.getType());
+            }
+        }
+        return materials;
+    }
+
+    public static final HashMap<NamespacedKey, IndexedRecipe> recipesByKey = new HashMap<>();
+
+    /**
+     * Shaped recipes where every ingredient has exactly one possible material, keyed by footprint and material multiset.
+     */
+    public static final HashMap<Long, List<IndexedRecipe>> shapedByKey = new HashMap<>();
+
+    /**
+     * Shaped recipes with ingredients that have multiple possible materials, keyed by footprint only.
+     */
+    public static final HashMap<Long, List<IndexedRecipe>> shapedByFootprint = new HashMap<>();
+
+    /**
+     * Shaped recipes that can't be keyed at all (such as ones with ingredients that allow an empty slot), which are always candidates.
+     */
+    public static final List<IndexedRecipe> shapedUnkeyed = new ArrayList<>();
+
+    public static boolean built = false;
+
+    public static void clear() {
+        recipesByKey.clear();
+        shapedByKey.clear();
+        shapedByFootprint.clear();
+        shapedUnkeyed.clear();
+        built = false;
+    }
+
+    public static void build() {
+        clear();
+        built = true;
+        Iterator<Recipe> recipes = Bukkit.recipeIterator();
+        while (recipes.hasNext()) {
+            Recipe recipe = recipes.next();
+            if (!(recipe instanceof Keyed keyed)) {
+                continue;
+            }
+            IndexedRecipe indexed = new IndexedRecipe(recipe);
+            recipesByKey.put(keyed.getKey(), indexed);
+            if (indexed.shape != null) {
+                indexShaped(indexed);
+            }
+        }
+    }
+
+    public static void indexShaped(IndexedRecipe indexed) {
+        String[] shape = indexed.shape;
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = -1, maxY = -1, count = 0;
+        int[] ordinals = new int[9];
+        boolean singleMaterial = true;
+        for (int y = 0; y < shape.length; y++) {
+            for (int x = 0; x < shape[y].length(); x++) {
+                RecipeChoice choice = indexed.choiceMap.get(shape[y].charAt(x));
+                if (choice == null) {
+                    continue;
+                }
+                if (count >= ordinals.length || choice.test(AIR)) {
+                    shapedUnkeyed.add(indexed);
+                    return;
+                }
+                Set<Material> materials = getChoiceMaterials(choice);
+                if (materials.size() == 1) {
+                    ordinals[count] = materials.iterator().next().ordinal();
+                }
+                else {
+                    singleMaterial = false;
+                }
+                count++;
+                minX = Math.min(minX, x);
+                minY = Math.min(minY, y);
+                maxX = Math.max(maxX, x);
+                maxY = Math.max(maxY, y);
+            }
+        }
+        if (count == 0) {
+            shapedUnkeyed.add(indexed);
+            return;
+        }
+        long footprintKey = buildFootprintKey(maxX - minX + 1, maxY - minY + 1, count);
+        if (singleMaterial) {
+            shapedByKey.computeIfAbsent(buildMaterialKey(footprintKey, Arrays.copyOf(ordinals, count)), k -> new ArrayList<>()).add(indexed);
+        }
+        else {
+            shapedByFootprint.computeIfAbsent(footprintKey, k -> new ArrayList<>()).add(indexed);
+        }
+    }
+
+    public static IndexedRecipe getIndexed(Recipe recipe) {
+        if (!built) {
+            build();
+        }
+        if (recipe instanceof Keyed keyed) {
+            IndexedRecipe indexed = recipesByKey.get(keyed.getKey());
+            if (indexed == null) {
+                indexed = new IndexedRecipe(recipe);
+                recipesByKey.put(keyed.getKey(), indexed);
+            }
+            return indexed;
+        }
+        return new IndexedRecipe(recipe);
+    }
+
+    /**
+     * Returns the shaped recipes that could possibly match the grid.
+     */
+    public static List<IndexedRecipe> getShapedCandidates(CraftingGrid grid) {
+        if (!built) {
+            build();
+        }
+        grid.calculateKeys();
+        List<IndexedRecipe> result = new ArrayList<>(shapedUnkeyed);
+        if (grid.footprintKey != 0) {
+            result.addAll(shapedByKey.getOrDefault(grid.materialKey, Collections.emptyList()));
+            result.addAll(shapedByFootprint.getOrDefault(grid.footprintKey, Collections.emptyList()));
+        }
+        return result;
+    }
+}
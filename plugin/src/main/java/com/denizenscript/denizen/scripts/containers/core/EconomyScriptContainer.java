@@ -7,11 +7,13 @@ import com.denizenscript.denizen.utilities.implementation.BukkitScriptEntryData;
 import com.denizenscript.denizen.objects.PlayerTag;
 import com.denizenscript.denizen.tags.BukkitTagContext;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
+import com.denizenscript.denizencore.objects.ObjectTag;
 import com.denizenscript.denizencore.objects.core.ElementTag;
 import com.denizenscript.denizencore.objects.core.ScriptTag;
 import com.denizenscript.denizencore.scripts.ScriptEntry;
 import com.denizenscript.denizencore.scripts.containers.ScriptContainer;
 import com.denizenscript.denizencore.scripts.queues.core.InstantQueue;
+import com.denizenscript.denizencore.tags.ParseableTagPiece;
 import com.denizenscript.denizencore.tags.TagManager;
 import com.denizenscript.denizencore.utilities.*;
 import net.milkbowl.vault.economy.AbstractEconomy;
@@ -19,12 +21,17 @@ import net.milkbowl.vault.economy.Economy;
 import net.milkbowl.vault.economy.EconomyResponse;
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.plugin.ServicePriority;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.text.DecimalFormat;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 
 public class EconomyScriptContainer extends ScriptContainer {
@@ -72,6 +79,7 @@ public class EconomyScriptContainer extends ScriptContainer {
     //     # A tag that returns a boolean indicating whether the linked player has the amount specified by def "<[amount]>".
     //     # Use a 'proc[]' tag if you need more complex logic.
     //     # Must return 'true' or 'false'.
+    //     # If the 'Scripts.Economy.Async balance snapshot' config option is enabled, async checks instead compare the amount against the snapshot balance when it has one.
     //     has: <player.flag[money].is[or_more].than[<[amount]>]>
     //     # A script that removes the amount of money needed from a player.
     //     # Note that it's generally up to the systems calling this script to verify that the amount can be safely withdrawn, not this script itself.
@@ -90,11 +98,26 @@ public class EconomyScriptContainer extends ScriptContainer {
     //
     // -->
 
-    public static class DenizenEconomyProvider extends AbstractEconomy {
+    public static class DenizenEconomyProvider extends AbstractEconomy implements Listener {
 
         public EconomyScriptContainer backingScript;
 
-        public String autoTagAmount(String value, OfflinePlayer player, double amount) {
+        /**
+         * Script keys pre-parsed to tag pieces, filled on first use (and so once per script load).
+         */
+        public final HashMap<String, List<ParseableTagPiece>> parsedKeys = new HashMap<>();
+
+        /**
+         * Last known balance of each online player, readable from any thread. Only filled if 'Scripts.Economy.Async balance snapshot' is enabled.
+         * Players are removed when they quit, so this never holds more than the online players.
+         */
+        public final ConcurrentHashMap<UUID, Double> balanceSnapshot = new ConcurrentHashMap<>();
+
+        public final Set<UUID> pendingSnapshotReads = ConcurrentHashMap.newKeySet();
+
+        public BukkitTask snapshotRefreshTask;
+
+        public String autoTagAmount(String key, OfflinePlayer player, double amount) {
             int digits = fractionalDigits();
             String amountText;
             if (digits <= 0) {
@@ -106,11 +129,13 @@ public class EconomyScriptContainer extends ScriptContainer {
             }
             DefinitionProvider defProvider = new SimpleDefinitionProvider();
             defProvider.addDefinition("amount", new ElementTag(amountText));
-            if (value.contains("<amount")) {
+            String value = backingScript.getString(key);
+            if (value != null && value.contains("<amount")) {
                 BukkitImplDeprecations.pseudoTagBases.warn(backingScript);
                 value = value.replace("<amount", "<element[" + amountText + "]");
+                return autoTag(value, player, defProvider);
             }
-            return autoTag(value, player, defProvider);
+            return autoTagKey(key, player, defProvider);
         }
 
         public boolean validateThread() {
@@ -153,6 +178,86 @@ public class EconomyScriptContainer extends ScriptContainer {
             return TagManager.tag(value, context);
         }
 
+        /**
+         * Equivalent to autoTag of the script key's value, but using the tag pieces pre-parsed from that key.
+         */
+        public String autoTagKey(String key, OfflinePlayer player, DefinitionProvider defProvider) {
+            if (!validateThread()) {
+                if (!Settings.allowAsyncPassThrough) {
+                    return null;
+                }
+                try {
+                    Future<String> future = Bukkit.getScheduler().callSyncMethod(Denizen.instance, () -> autoTagKey(key, player, defProvider));
+                    return future.get();
+                }
+                catch (Throwable ex) {
+                    Debug.echoError(ex);
+                    return null;
+                }
+            }
+            BukkitTagContext context = new BukkitTagContext(player == null ? null : new PlayerTag(player), null, new ScriptTag(backingScript));
+            context.definitionProvider = defProvider;
+            List<ParseableTagPiece> pieces = parsedKeys.computeIfAbsent(key, k -> {
+                String value = backingScript.getString(k);
+                return value == null ? null : TagManager.parseTextToTag(value, context);
+            });
+            if (pieces == null) {
+                return null;
+            }
+            ObjectTag result = TagManager.parseChainObject(pieces, context);
+            return result == null ? null : result.toString();
+        }
+
+        /**
+         * Reads the player's balance from the script, updating the snapshot if enabled. Returns null if the read failed.
+         */
+        public Double readBalance(OfflinePlayer player) {
+            String result = autoTagKey("balance", player, null);
+            if (result == null) {
+                return null;
+            }
+            try {
+                double balance = Double.parseDouble(result);
+                if (Settings.economyBalanceSnapshot && player.isOnline()) {
+                    balanceSnapshot.put(player.getUniqueId(), balance);
+                }
+                return balance;
+            }
+            catch (NumberFormatException ex) {
+                Debug.echoError("Economy script '" + getName() + "' returned invalid balance for player '" + new PlayerTag(player).debuggable() + "': " + ex.getMessage());
+                return null;
+            }
+        }
+
+        /**
+         * Returns the snapshot balance for an async caller, or null if unavailable (in which case, for an online player, a main thread read is queued to fill it).
+         */
+        public Double getSnapshotBalance(OfflinePlayer player) {
+            if (!Settings.economyBalanceSnapshot || Bukkit.isPrimaryThread()) {
+                return null;
+            }
+            UUID id = player.getUniqueId();
+            Double balance = balanceSnapshot.get(id);
+            if (balance == null && player.isOnline() && pendingSnapshotReads.add(id)) {
+                Bukkit.getScheduler().runTask(Denizen.instance, () -> {
+                    pendingSnapshotReads.remove(id);
+                    readBalance(player);
+                });
+            }
+            return balance;
+        }
+
+        @EventHandler
+        public void onPlayerQuit(PlayerQuitEvent event) {
+            balanceSnapshot.remove(event.getPlayer().getUniqueId());
+        }
+
+        public void refreshSnapshot() {
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                readBalance(player);
+            }
+        }
+
         public String runSubScript(String pathName, OfflinePlayer player, double amount) {
             if (!validateThread()) {
                 if (!Settings.allowAsyncPassThrough) {
@@ -200,7 +305,7 @@ public class EconomyScriptContainer extends ScriptContainer {
 
         @Override
         public String format(double amount) {
-            return autoTagAmount(backingScript.getString("format"), null, amount);
+            return autoTagAmount("format", null, amount);
         }
 
         @Override
@@ -219,13 +324,11 @@ public class EconomyScriptContainer extends ScriptContainer {
                 Debug.echoError("Economy attempted BALANCE-CHECK to NULL player.");
                 return 0;
             }
-            try {
-                return Double.parseDouble(autoTag(backingScript.getString("balance"), player, null));
-            }
-            catch (NumberFormatException ex) {
-                Debug.echoError("Economy script '" + getName() + "' returned invalid balance for player '" + new PlayerTag(player).debuggable() + "': " + ex.getMessage());
-                return 0;
+            Double balance = getSnapshotBalance(player);
+            if (balance == null) {
+                balance = readBalance(player);
             }
+            return balance == null ? 0 : balance;
         }
 
         @Override
@@ -234,9 +337,7 @@ public class EconomyScriptContainer extends ScriptContainer {
                 Debug.echoError("Economy attempted WITHDRAW to NULL player for " + amount);
                 return null;
             }
-            String determination = runSubScript("withdraw", player, amount);
-            return new EconomyResponse(amount, getBalance(player), determination == null ?
-                    EconomyResponse.ResponseType.SUCCESS : EconomyResponse.ResponseType.FAILURE, determination);
+            return changeBalance("withdraw", player, amount);
         }
 
         @Override
@@ -245,8 +346,34 @@ public class EconomyScriptContainer extends ScriptContainer {
                 Debug.echoError("Economy attempted DEPOSIT to NULL player for " + amount);
                 return null;
             }
-            String determination = runSubScript("deposit", player, amount);
-            return new EconomyResponse(amount, getBalance(player), determination == null ?
+            return changeBalance("deposit", player, amount);
+        }
+
+        /**
+         * Runs the 'withdraw' or 'deposit' script for the player, then re-reads their balance for the response (which also refreshes their snapshot balance).
+         * When called async, both happen in a single pass through to the main thread, and the player's snapshot balance is dropped right away.
+         */
+        public EconomyResponse changeBalance(String pathName, OfflinePlayer player, double amount) {
+            if (!validateThread()) {
+                balanceSnapshot.remove(player.getUniqueId());
+                if (!Settings.allowAsyncPassThrough) {
+                    return new EconomyResponse(amount, 0, EconomyResponse.ResponseType.SUCCESS, null);
+                }
+                try {
+                    Future<EconomyResponse> future = Bukkit.getScheduler().callSyncMethod(Denizen.instance, () -> changeBalance(pathName, player, amount));
+                    return future.get();
+                }
+                catch (Throwable ex) {
+                    Debug.echoError(ex);
+                    return new EconomyResponse(amount, 0, EconomyResponse.ResponseType.FAILURE, "Internal error");
+                }
+            }
+            String determination = runSubScript(pathName, player, amount);
+            Double balance = readBalance(player);
+            if (balance == null) {
+                balanceSnapshot.remove(player.getUniqueId());
+            }
+            return new EconomyResponse(amount, balance == null ? 0 : balance, determination == null ?
                     EconomyResponse.ResponseType.SUCCESS : EconomyResponse.ResponseType.FAILURE, determination);
         }
 
@@ -256,7 +383,13 @@ public class EconomyScriptContainer extends ScriptContainer {
                 Debug.echoError("Economy attempted HAS-CHECK to NULL player for " + amount);
                 return false;
             }
-            return autoTagAmount(backingScript.getString("has"), player, amount).equalsIgnoreCase("true");
+            // Async checks are answered from the snapshot balance when available, without running the 'has' tag
+            Double balance = getSnapshotBalance(player);
+            if (balance != null) {
+                return balance >= amount;
+            }
+            String result = autoTagAmount("has", player, amount);
+            return result != null && result.equalsIgnoreCase("true");
         }
 
         @Override
@@ -409,12 +542,23 @@ public class EconomyScriptContainer extends ScriptContainer {
         DenizenEconomyProvider provider = new DenizenEconomyProvider();
         provider.backingScript = this;
         Bukkit.getServer().getServicesManager().register(Economy.class, provider, Denizen.getInstance(), getPriority());
+        if (Settings.economyBalanceSnapshot && Settings.economyBalanceSnapshotRefreshTicks > 0) {
+            long ticks = Settings.economyBalanceSnapshotRefreshTicks;
+            provider.snapshotRefreshTask = Bukkit.getScheduler().runTaskTimer(Denizen.getInstance(), provider::refreshSnapshot, ticks, ticks);
+        }
+        if (Settings.economyBalanceSnapshot) {
+            Bukkit.getPluginManager().registerEvents(provider, Denizen.getInstance());
+        }
         return provider;
     }
 
     public static void cleanup() {
         for (DenizenEconomyProvider provider : providersRegistered) {
             Bukkit.getServer().getServicesManager().unregister(provider);
+            if (provider.snapshotRefreshTask != null) {
+                provider.snapshotRefreshTask.cancel();
+            }
+            HandlerList.unregisterAll(provider);
         }
         providersRegistered.clear();
     }
@@ -4,6 +4,7 @@ import com.denizenscript.denizen.Denizen;
 import com.denizenscript.denizen.utilities.DataPersistenceHelper;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
 import com.denizenscript.denizen.events.entity.EntityDespawnScriptEvent;
+import com.denizenscript.denizen.events.world.ChunkDespawnsEntitiesScriptEvent;
 import com.denizenscript.denizen.objects.EntityTag;
 import com.denizenscript.denizencore.objects.ObjectTag;
 import com.denizenscript.denizencore.objects.core.ElementTag;
@@ -17,7 +18,9 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDeathEvent;
 import org.bukkit.event.world.EntitiesUnloadEvent;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 
 public class EntityScriptHelper implements Listener {
 
@@ -28,24 +31,51 @@ public class EntityScriptHelper implements Listener {
                 .registerEvents(this, Denizen.getInstance());
     }
 
+    public static final ElementTag CAUSE_DEATH = new ElementTag("DEATH");
+
+    public static final ElementTag CAUSE_CHUNK_UNLOAD = new ElementTag("CHUNK_UNLOAD");
+
     @EventHandler(priority = EventPriority.MONITOR)
     public void onEntityDeath(EntityDeathEvent event) {
         Entity entity = event.getEntity();
+        if (!EntityDespawnScriptEvent.instance.couldMatchType(entity.getType())) {
+            return;
+        }
         EntityTag.rememberEntity(entity);
         EntityDespawnScriptEvent.instance.entity = new EntityTag(entity);
-        EntityDespawnScriptEvent.instance.cause = new ElementTag("DEATH");
+        EntityDespawnScriptEvent.instance.cause = CAUSE_DEATH;
         EntityDespawnScriptEvent.instance.fire();
         EntityTag.forgetEntity(entity);
     }
 
     @EventHandler
     public void onChunkUnload(EntitiesUnloadEvent event) {
+        boolean fireSingle = !EntityDespawnScriptEvent.instance.eventPaths.isEmpty();
+        boolean fireBatch = !ChunkDespawnsEntitiesScriptEvent.instance.eventPaths.isEmpty();
+        if (!fireSingle && !fireBatch) {
+            return;
+        }
+        List<Entity> despawning = fireBatch ? new ArrayList<>() : null;
         for (Entity ent : event.getEntities()) {
             if (!(ent instanceof LivingEntity) || ((LivingEntity) ent).getRemoveWhenFarAway()) {
+                if (fireBatch) {
+                    despawning.add(ent);
+                }
+                if (fireSingle && EntityDespawnScriptEvent.instance.couldMatchType(ent.getType())) {
+                    EntityTag.rememberEntity(ent);
+                    EntityDespawnScriptEvent.instance.entity = new EntityTag(ent);
+                    EntityDespawnScriptEvent.instance.cause = CAUSE_CHUNK_UNLOAD;
+                    EntityDespawnScriptEvent.instance.fire();
+                    EntityTag.forgetEntity(ent);
+                }
+            }
+        }
+        if (fireBatch && !despawning.isEmpty()) {
+            for (Entity ent : despawning) {
                 EntityTag.rememberEntity(ent);
-                EntityDespawnScriptEvent.instance.entity = new EntityTag(ent);
-                EntityDespawnScriptEvent.instance.cause = new ElementTag("CHUNK_UNLOAD");
-                EntityDespawnScriptEvent.instance.fire();
+            }
+            ChunkDespawnsEntitiesScriptEvent.instance.handle(event.getChunk(), despawning);
+            for (Entity ent : despawning) {
                 EntityTag.forgetEntity(ent);
             }
         }
@@ -104,6 +104,94 @@ public class InventoryScriptContainer extends ScriptContainer {
 
     public boolean gui;
 
+    /**
+     * The parsed items of one 'slots' line.
+     */
+    public static class SlotLine {
+
+        public ItemStack[] items;
+
+        public boolean[] filled;
+
+        /**
+         * True if the line has no tags and only references static items, meaning it will always produce the same items.
+         */
+        public boolean isStatic;
+    }
+
+    /**
+     * Cached results of static 'slots' lines, by line index. Null entries are dynamic lines, or lines not yet parsed.
+     */
+    public SlotLine[] staticSlotLines;
+
+    public boolean isStaticItem(ItemStack item) {
+        ItemScriptContainer script = ItemScriptHelper.getItemScriptContainer(item);
+        return script == null || script.isFullyStatic();
+    }
+
+    public SlotLine parseSlotLine(String line, TagContext context) {
+        SlotLine result = new SlotLine();
+        result.isStatic = ItemScriptContainer.isStaticValue(line);
+        line = TagManager.tag(line, context).trim();
+        if (line.isEmpty()) {
+            result.items = new ItemStack[0];
+            result.filled = new boolean[0];
+            return result;
+        }
+        if (!line.startsWith("[") || !line.endsWith("]")) {
+            Debug.echoError(this, "Invalid slots line: [" + line + "]... Ignoring it");
+            result.items = new ItemStack[0];
+            result.filled = new boolean[0];
+            return result;
+        }
+        String[] itemsInLine = line.substring(1, line.length() - 1).split("\\[?\\]?\\s+\\[", -1);
+        result.items = new ItemStack[itemsInLine.length];
+        result.filled = new boolean[itemsInLine.length];
+        for (int i = 0; i < itemsInLine.length; i++) {
+            String item = itemsInLine[i];
+            if (item.isEmpty()) {
+                result.items[i] = new ItemStack(Material.AIR);
+                continue;
+            }
+            result.filled[i] = true;
+            if (contains("definitions." + item, String.class)) {
+                String definition = getString("definitions." + item);
+                if (!ItemScriptContainer.isStaticValue(definition)) {
+                    result.isStatic = false;
+                }
+                ItemTag def = ItemTag.valueOf(TagManager.tag(definition, context), context);
+                if (def == null) {
+                    Debug.echoError(this, "Invalid definition '" + item + "'... Ignoring it and assuming 'AIR'");
+                    result.items[i] = new ItemStack(Material.AIR);
+                }
+                else {
+                    result.items[i] = def.getItemStack();
+                }
+            }
+            else {
+                try {
+                    ItemTag itemTag = ItemTag.valueOf(item, context);
+                    if (itemTag == null) {
+                        result.items[i] = new ItemStack(Material.AIR);
+                        Debug.echoError(this, "Invalid slot item: [" + item + "]... ignoring it and assuming 'AIR'");
+                    }
+                    else {
+                        result.items[i] = itemTag.getItemStack();
+                    }
+                }
+                catch (Exception ex) {
+                    Debug.echoError(this, "Invalid slot item: [" + item + "]...");
+                    Debug.echoError(ex);
+                    result.isStatic = false;
+                }
+            }
+            if (result.items[i] != null && result.isStatic && !isStaticItem(result.items[i])) {
+                result.isStatic = false;
+            }
+        }
+        return result;
+    }
+
     public TagContext fixContext(TagContext context) {
         context = (context == null ? CoreUtilities.basicContext : context).clone();
         context.script = new ScriptTag(this);
@@ -197,49 +285,23 @@ public class InventoryScriptContainer extends ScriptContainer {
                 if (contains("slots", List.class)) {
                     ItemStack[] finalItems = new ItemStack[size];
                     int itemsAdded = 0;
-                    for (String items : getStringList("slots")) {
-                        items = TagManager.tag(items, context).trim();
-                        if (items.isEmpty()) {
-                            continue;
-                        }
-                        if (!items.startsWith("[") || !items.endsWith("]")) {
-                            Debug.echoError(this, "Invalid slots line: [" + items + "]... Ignoring it");
-                            continue;
-                        }
-                        String[] itemsInLine = items.substring(1, items.length() - 1).split("\\[?\\]?\\s+\\[", -1);
-                        for (String item : itemsInLine) {
-                            if (item.isEmpty()) {
-                                finalItems[itemsAdded++] = new ItemStack(Material.AIR);
-                                continue;
-                            }
-                            filledSlots[itemsAdded] = true;
-                            if (contains("definitions." + item, String.class)) {
-                                ItemTag def = ItemTag.valueOf(TagManager.tag(getString("definitions." + item), context), context);
-                                if (def == null) {
-                                    Debug.echoError(this, "Invalid definition '" + item + "'... Ignoring it and assuming 'AIR'");
-                                    finalItems[itemsAdded] = new ItemStack(Material.AIR);
-                                }
-                                else {
-                                    finalItems[itemsAdded] = def.getItemStack();
-                                }
-                            }
-                            else {
-                                try {
-                                    ItemTag itemTag = ItemTag.valueOf(item, context);
-                                    if (itemTag == null) {
-                                        finalItems[itemsAdded] = new ItemStack(Material.AIR);
-                                        Debug.echoError(this, "Invalid slot item: [" + item + "]... ignoring it and assuming 'AIR'");
-                                    }
-                                    else {
-                                        finalItems[itemsAdded] = itemTag.getItemStack();
-                                    }
-                                }
-                                catch (Exception ex) {
-                                    Debug.echoError(this, "Invalid slot item: [" + item + "]...");
-                                    Debug.echoError(ex);
-                                }
+                    List<String> lines = getStringList("slots");
+                    if (staticSlotLines == null || staticSlotLines.length != lines.size()) {
+                        staticSlotLines = new SlotLine[lines.size()];
+                    }
+                    for (int lineIndex = 0; lineIndex < lines.size(); lineIndex++) {
+                        SlotLine line = staticSlotLines[lineIndex];
+                        boolean cached = line != null;
+                        if (!cached) {
+                            line = parseSlotLine(lines.get(lineIndex), context);
+                            if (line.isStatic) {
+                                staticSlotLines[lineIndex] = line;
                             }
-                            itemsAdded++;
+                        }
+                        for (int i = 0; i < line.items.length; i++) {
+                            filledSlots[itemsAdded] = line.filled[i];
+                            ItemStack item = line.items[i];
+                            finalItems[itemsAdded++] = cached && item != null ? item.clone() : item;
                         }
                     }
                     inventory.setContents(finalItems);
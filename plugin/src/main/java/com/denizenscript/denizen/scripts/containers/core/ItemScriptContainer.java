@@ -239,6 +239,96 @@ public class ItemScriptContainer extends ScriptContainer {
 
     boolean isProcessing = false;
 
+    public static final int STEP_MATERIAL = 0, STEP_MECHANISMS = 1, STEP_DISPLAY_NAME = 2, STEP_BOUND = 3, STEP_LORE = 4, STEP_DURABILITY = 5,
+            STEP_ENCHANTMENTS = 6, STEP_COLOR = 7, STEP_BOOK = 8, STEP_FLAGS = 9, STEP_SCRIPT_ID = 10, STEP_COUNT = 11;
+
+    /**
+     * How many leading build steps (see STEP_ constants) never vary, and so can be built once into 'staticTemplate' and cloned.
+     * -1 if not yet calculated. Equal to STEP_COUNT if the entire item is static.
+     */
+    public int staticSteps = -1;
+
+    public ItemTag staticTemplate;
+
+    public static boolean isStaticValue(Object value) {
+        if (value instanceof String) {
+            return ((String) value).indexOf('<') == -1;
+        }
+        else if (value instanceof List) {
+            for (Object part : (List<?>) value) {
+                if (!isStaticValue(part)) {
+                    return false;
+                }
+            }
+        }
+        else if (value instanceof YamlConfiguration) {
+            return isStaticValue(((YamlConfiguration) value).getMap());
+        }
+        else if (value instanceof Map) {
+            for (Object part : ((Map<?, ?>) value).values()) {
+                if (!isStaticValue(part)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    public boolean isStaticStep(int step) {
+        switch (step) {
+            case STEP_MATERIAL:
+                String material = getString("material");
+                if (!isStaticValue(material)) {
+                    return false;
+                }
+                // Another item script as the base may itself be dynamic
+                int bracket = material.indexOf('[');
+                String baseName = CoreUtilities.toLowerCase(bracket == -1 ? material : material.substring(0, bracket));
+                if (baseName.startsWith("i@") || baseName.startsWith("m@")) {
+                    baseName = baseName.substring(2);
+                }
+                return !ItemScriptHelper.item_scripts.containsKey(baseName);
+            case STEP_MECHANISMS:
+                return !contains("mechanisms", Map.class) || isStaticValue(getConfigurationSection("mechanisms"));
+            case STEP_DISPLAY_NAME:
+                return !contains("display name", String.class) || isStaticValue(getString("display name"));
+            case STEP_LORE:
+                return !contains("lore", List.class) || isStaticValue(getStringList("lore"));
+            case STEP_ENCHANTMENTS:
+                return !contains("enchantments", List.class) || isStaticValue(getStringList("enchantments"));
+            case STEP_FLAGS:
+                return !contains("flags", Map.class) || isStaticValue(getConfigurationSection("flags"));
+            case STEP_DURABILITY:
+            case STEP_SCRIPT_ID:
+                return true;
+            case STEP_BOUND: // Deprecated keys are always processed, to keep their warnings
+                return !contains("bound", String.class);
+            case STEP_COLOR:
+                return !contains("color", String.class);
+            case STEP_BOOK: // Book scripts may have their own tags
+                return !contains("book", String.class);
+        }
+        return false;
+    }
+
+    public int getStaticSteps() {
+        if (staticSteps == -1) {
+            int steps = 0;
+            while (steps < STEP_COUNT && isStaticStep(steps)) {
+                steps++;
+            }
+            staticSteps = steps;
+        }
+        return staticSteps;
+    }
+
+    /**
+     * Returns true if this item script has no tags or other variable content, meaning every item built from it is identical.
+     */
+    public boolean isFullyStatic() {
+        return getStaticSteps() == STEP_COUNT;
+    }
+
     public ItemTag getItemFrom(TagContext context) {
         if (isProcessing) {
             Debug.echoError("Item script contains (or chains to) a reference to itself. Cannot process.");
@@ -259,6 +349,39 @@ public class ItemScriptContainer extends ScriptContainer {
                 Debug.echoError("Item script '" + getName() + "' does not contain a material. Script cannot function.");
                 return null;
             }
+            int firstStep = getStaticSteps();
+            if (firstStep > 0) {
+                if (staticTemplate == null) {
+                    staticTemplate = buildSteps(null, 0, firstStep, new BukkitTagContext(null, null, new ScriptTag(this)));
+                    if (staticTemplate == null) {
+                        return null;
+                    }
+                }
+                stack = new ItemTag(staticTemplate.getItemStack().clone());
+            }
+            else {
+                stack = null;
+            }
+            stack = buildSteps(stack, firstStep, STEP_COUNT, context);
+        }
+        catch (Exception e) {
+            Debug.echoError("Woah! An exception has been called with this item script!");
+            Debug.echoError(e);
+            stack = null;
+        }
+        finally {
+            isProcessing = false;
+        }
+
+        return stack;
+    }
+
+    /**
+     * Applies build steps (see STEP_ constants) from 'fromStep' (inclusive) to 'toStep' (exclusive) to the item.
+     * The item may be null only if starting from the material step.
+     */
+    public ItemTag buildSteps(ItemTag stack, int fromStep, int toStep, TagContext context) {
+        if (fromStep <= STEP_MATERIAL && STEP_MATERIAL < toStep) {
             // Check validity of material
             String material = TagManager.tag(getString("material"), context);
             if (material.startsWith("m@")) {
@@ -270,108 +393,101 @@ public class ItemScriptContainer extends ScriptContainer {
                 Debug.echoError("Item script '" + getName() + "' contains an invalid or incorrect material '" + material + "' (did you spell the material name wrong?). Script cannot function.");
                 return null;
             }
-            // Handle listed mechanisms
-            if (contains("mechanisms", Map.class)) {
-                YamlConfiguration mechs = getConfigurationSection("mechanisms");
-                for (StringHolder key : mechs.getKeys(false)) {
-                    ObjectTag obj = CoreUtilities.objectToTagForm(mechs.get(key.low), context, true, true);
-                    stack.safeAdjust(new Mechanism(key.low, obj, context));
-                }
-            }
-            // Set Display Name
-            if (contains("display name", String.class)) {
-                String displayName = TagManager.tag(getString("display name"), context);
-                NMSHandler.itemHelper.setDisplayName(stack, displayName);
-            }
-            // Set if the object is bound to the player
-            if (contains("bound", String.class)) {
-                BukkitImplDeprecations.boundWarning.warn(context);
+        }
+        // Handle listed mechanisms
+        if (fromStep <= STEP_MECHANISMS && STEP_MECHANISMS < toStep && contains("mechanisms", Map.class)) {
+            YamlConfiguration mechs = getConfigurationSection("mechanisms");
+            for (StringHolder key : mechs.getKeys(false)) {
+                ObjectTag obj = CoreUtilities.objectToTagForm(mechs.get(key.low), context, true, true);
+                stack.safeAdjust(new Mechanism(key.low, obj, context));
             }
-            // Set Lore
-            if (contains("lore", List.class)) {
-                List<String> lore = NMSHandler.itemHelper.getLore(stack);
-                if (lore == null) {
-                    lore = new ArrayList<>();
-                }
-                for (String line : getStringList("lore")) {
-                    line = TagManager.tag(line, context);
-                    lore.add(line);
-                }
-                CoreUtilities.fixNewLinesToListSeparation(lore);
-                NMSHandler.itemHelper.setLore(stack, lore);
+        }
+        // Set Display Name
+        if (fromStep <= STEP_DISPLAY_NAME && STEP_DISPLAY_NAME < toStep && contains("display name", String.class)) {
+            String displayName = TagManager.tag(getString("display name"), context);
+            NMSHandler.itemHelper.setDisplayName(stack, displayName);
+        }
+        // Set if the object is bound to the player
+        if (fromStep <= STEP_BOUND && STEP_BOUND < toStep && contains("bound", String.class)) {
+            BukkitImplDeprecations.boundWarning.warn(context);
+        }
+        // Set Lore
+        if (fromStep <= STEP_LORE && STEP_LORE < toStep && contains("lore", List.class)) {
+            List<String> lore = NMSHandler.itemHelper.getLore(stack);
+            if (lore == null) {
+                lore = new ArrayList<>();
             }
-            // Set Durability
-            if (contains("durability", String.class)) {
-                short durability = Short.parseShort(getString("durability"));
-                stack.setDurability(durability);
+            for (String line : getStringList("lore")) {
+                line = TagManager.tag(line, context);
+                lore.add(line);
             }
-            // Set Enchantments
-            if (contains("enchantments", List.class)) {
-                for (String enchantment : getStringList("enchantments")) {
-                    enchantment = TagManager.tag(enchantment, context);
-                    try {
-                        // Build enchantment context
-                        int level = 1;
-                        int colon = enchantment.lastIndexOf(':');
-                        if (colon == -1) {
-                            Debug.echoError("Item script '" + getName() + "' has enchantment '" + enchantment + "' without a level.");
-                        }
-                        else {
-                            level = Integer.parseInt(enchantment.substring(colon + 1).replace(" ", ""));
-                            enchantment = enchantment.substring(0, colon).replace(" ", "");
-                        }
-                        // Add enchantment
-                        EnchantmentTag ench = EnchantmentTag.valueOf(enchantment, context);
-                        if (ench == null) {
-                            Debug.echoError("Item script '" + getName() + "' specifies enchantment '" + enchantment + "' which is invalid.");
-                            continue;
-                        }
-                        if (stack.getBukkitMaterial() == Material.ENCHANTED_BOOK) {
-                            EnchantmentStorageMeta meta = (EnchantmentStorageMeta) stack.getItemMeta();
-                            meta.addStoredEnchant(ench.enchantment, level, true);
-                            stack.setItemMeta(meta);
-                        }
-                        else {
-                            stack.getItemStack().addUnsafeEnchantment(ench.enchantment, level);
-                            stack.resetCache();
-                        }
+            CoreUtilities.fixNewLinesToListSeparation(lore);
+            NMSHandler.itemHelper.setLore(stack, lore);
+        }
+        // Set Durability
+        if (fromStep <= STEP_DURABILITY && STEP_DURABILITY < toStep && contains("durability", String.class)) {
+            short durability = Short.parseShort(getString("durability"));
+            stack.setDurability(durability);
+        }
+        // Set Enchantments
+        if (fromStep <= STEP_ENCHANTMENTS && STEP_ENCHANTMENTS < toStep && contains("enchantments", List.class)) {
+            for (String enchantment : getStringList("enchantments")) {
+                enchantment = TagManager.tag(enchantment, context);
+                try {
+                    // Build enchantment context
+                    int level = 1;
+                    int colon = enchantment.lastIndexOf(':');
+                    if (colon == -1) {
+                        Debug.echoError("Item script '" + getName() + "' has enchantment '" + enchantment + "' without a level.");
+                    }
+                    else {
+                        level = Integer.parseInt(enchantment.substring(colon + 1).replace(" ", ""));
+                        enchantment = enchantment.substring(0, colon).replace(" ", "");
                     }
-                    catch (Exception ex) {
-                        Debug.echoError("While constructing item script '" + getName() + "', encountered error while applying enchantment '" + enchantment + "':");
-                        Debug.echoError(ex);
+                    // Add enchantment
+                    EnchantmentTag ench = EnchantmentTag.valueOf(enchantment, context);
+                    if (ench == null) {
+                        Debug.echoError("Item script '" + getName() + "' specifies enchantment '" + enchantment + "' which is invalid.");
+                        continue;
+                    }
+                    if (stack.getBukkitMaterial() == Material.ENCHANTED_BOOK) {
+                        EnchantmentStorageMeta meta = (EnchantmentStorageMeta) stack.getItemMeta();
+                        meta.addStoredEnchant(ench.enchantment, level, true);
+                        stack.setItemMeta(meta);
+                    }
+                    else {
+                        stack.getItemStack().addUnsafeEnchantment(ench.enchantment, level);
+                        stack.resetCache();
                     }
                 }
-            }
-            // Set Color
-            if (contains("color", String.class)) {
-                BukkitImplDeprecations.itemScriptColor.warn(context);
-                String color = TagManager.tag(getString("color"), context);
-                LeatherColorer.colorArmor(stack, color);
-            }
-            // Set Book
-            if (contains("book", String.class)) {
-                BookScriptContainer book = ScriptRegistry.getScriptContainer(TagManager.tag(getString("book"), context).replace("s@", ""));
-                stack = book.writeBookTo(stack, context);
-            }
-            if (contains("flags", Map.class)) {
-                YamlConfiguration flagSection = getConfigurationSection("flags");
-                AbstractFlagTracker tracker = stack.getFlagTracker();
-                for (StringHolder key : flagSection.getKeys(false)) {
-                    tracker.setFlag(key.str, CoreUtilities.objectToTagForm(flagSection.get(key.str), context, true, true), null);
+                catch (Exception ex) {
+                    Debug.echoError("While constructing item script '" + getName() + "', encountered error while applying enchantment '" + enchantment + "':");
+                    Debug.echoError(ex);
                 }
-                stack.reapplyTracker(tracker);
             }
-            stack.setItemScript(this);
         }
-        catch (Exception e) {
-            Debug.echoError("Woah! An exception has been called with this item script!");
-            Debug.echoError(e);
-            stack = null;
+        // Set Color
+        if (fromStep <= STEP_COLOR && STEP_COLOR < toStep && contains("color", String.class)) {
+            BukkitImplDeprecations.itemScriptColor.warn(context);
+            String color = TagManager.tag(getString("color"), context);
+            LeatherColorer.colorArmor(stack, color);
         }
-        finally {
-            isProcessing = false;
+        // Set Book
+        if (fromStep <= STEP_BOOK && STEP_BOOK < toStep && contains("book", String.class)) {
+            BookScriptContainer book = ScriptRegistry.getScriptContainer(TagManager.tag(getString("book"), context).replace("s@", ""));
+            stack = book.writeBookTo(stack, context);
+        }
+        if (fromStep <= STEP_FLAGS && STEP_FLAGS < toStep && contains("flags", Map.class)) {
+            YamlConfiguration flagSection = getConfigurationSection("flags");
+            AbstractFlagTracker tracker = stack.getFlagTracker();
+            for (StringHolder key : flagSection.getKeys(false)) {
+                tracker.setFlag(key.str, CoreUtilities.objectToTagForm(flagSection.get(key.str), context, true, true), null);
+            }
+            stack.reapplyTracker(tracker);
+        }
+        if (fromStep <= STEP_SCRIPT_ID && STEP_SCRIPT_ID < toStep) {
+            stack.setItemScript(this);
         }
-
         return stack;
     }
 }
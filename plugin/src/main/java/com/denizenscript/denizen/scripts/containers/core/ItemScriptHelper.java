@@ -1,7 +1,6 @@
 package com.denizenscript.denizen.scripts.containers.core;
 
 import com.denizenscript.denizen.Denizen;
-import com.denizenscript.denizen.nms.util.jnbt.CompoundTag;
 import com.denizenscript.denizen.objects.EntityTag;
 import com.denizenscript.denizen.objects.MaterialTag;
 import com.denizenscript.denizen.objects.PlayerTag;
@@ -53,6 +52,7 @@ public class ItemScriptHelper implements Listener {
     public static void removeDenizenRecipes() {
         smithingRetain.clear();
         recipeCache.clear();
+        CraftingRecipeIndex.clear();
         recipeIdToItemScript.clear();
         NMSHandler.itemHelper.clearDenizenRecipes();
         PaperAPITools.instance.clearBrewingRecipes();
@@ -364,6 +364,7 @@ public class ItemScriptHelper implements Listener {
                 Debug.echoError(ex);
             }
         }
+        CraftingRecipeIndex.clear();
     }
 
     @EventHandler
@@ -375,17 +376,20 @@ public class ItemScriptHelper implements Listener {
         return getItemScriptNameText(item) != null;
     }
 
+    // The current script name key, and the legacy hashed format key
+    public static final String[] ITEM_SCRIPT_NBT_KEYS = new String[] { "DenizenItemScript", "Denizen Item Script" };
+
     public static String getItemScriptNameText(ItemStack item) {
         if (item == null) {
             return null;
         }
-        CompoundTag tag = NMSHandler.itemHelper.getNbtData(item);
-        String scriptName = tag.getString("DenizenItemScript");
+        String[] ids = NMSHandler.itemHelper.getNbtStrings(item, ITEM_SCRIPT_NBT_KEYS);
+        String scriptName = ids[0];
         if (scriptName != null && !scriptName.equals("")) {
             return scriptName;
         }
         // NOTE: Legacy hashed format
-        String nbt = tag.getString("Denizen Item Script");
+        String nbt = ids[1];
         if (nbt != null && !nbt.equals("")) {
             ItemScriptContainer container = item_scripts_by_hash_id.get(nbt);
             if (container != null) {
@@ -399,13 +403,13 @@ public class ItemScriptHelper implements Listener {
         if (item == null) {
             return null;
         }
-        CompoundTag tag = NMSHandler.itemHelper.getNbtData(item);
-        String scriptName = tag.getString("DenizenItemScript");
+        String[] ids = NMSHandler.itemHelper.getNbtStrings(item, ITEM_SCRIPT_NBT_KEYS);
+        String scriptName = ids[0];
         if (scriptName != null && !scriptName.equals("")) {
             return item_scripts.get(scriptName);
         }
         // NOTE: Legacy hashed format
-        String nbt = tag.getString("Denizen Item Script");
+        String nbt = ids[1];
         if (nbt != null && !nbt.equals("")) {
             return item_scripts_by_hash_id.get(nbt);
         }
@@ -449,8 +453,6 @@ public class ItemScriptHelper implements Listener {
         return false;
     }
 
-    private static ItemStack AIR = new ItemStack(Material.AIR);
-
     public enum DenyCraftReason {
         ALLOWED,
         IMPOSSIBLE,
@@ -458,10 +460,17 @@ public class ItemScriptHelper implements Listener {
     }
 
     public static DenyCraftReason shouldDenyCraft(ItemStack[] items, Recipe recipe) {
-        int width = items.length == 9 ? 3 : 2;
+        return shouldDenyCraft(new CraftingRecipeIndex.CraftingGrid(items), CraftingRecipeIndex.getIndexed(recipe));
+    }
+
+    public static DenyCraftReason shouldDenyCraft(CraftingRecipeIndex.CraftingGrid grid, CraftingRecipeIndex.IndexedRecipe recipe) {
+        if (!grid.restricted) {
+            return DenyCraftReason.ALLOWED;
+        }
+        int width = grid.width;
         int shapeStartX = 0, shapeStartY = 0;
-        if (recipe instanceof ShapedRecipe) {
-            String[] shape = ((ShapedRecipe) recipe).getShape();
+        String[] shape = recipe.shape;
+        if (shape != null) {
             if (shape.length != width || shape[0].length() != width) {
                 if (shape.length > width || shape[0].length() > width) {
                     return DenyCraftReason.ALLOWED; // Already impossible regardless
@@ -472,9 +481,8 @@ public class ItemScriptHelper implements Listener {
                         boolean hasAnyInvalid = false;
                         for (int x = 0; x < shape[0].length(); x++) {
                             for (int y = 0; y < shape.length; y++) {
-                                ItemStack item = items[(y + shapeStartY) * width + (x + shapeStartX)];
-                                RecipeChoice choice = ((ShapedRecipe) recipe).getChoiceMap().get(shape[y].charAt(x));
-                                if (choice != null && !choice.test(item == null ? AIR : item)) {
+                                RecipeChoice choice = recipe.choiceMap.get(shape[y].charAt(x));
+                                if (choice != null && !choice.test(grid.getForTest((y + shapeStartY) * width + (x + shapeStartX)))) {
                                     hasAnyInvalid = true;
                                     break;
                                 }
@@ -487,41 +495,24 @@ public class ItemScriptHelper implements Listener {
                 }
             }
         }
-        for (int i = 0; i < items.length; i++) {
-            ItemStack item = items[i];
-            if (item == null || item.getType() == Material.AIR) {
-                continue;
-            }
-            ItemScriptContainer container = getItemScriptContainer(item);
+        for (int i = 0; i < grid.items.length; i++) {
+            ItemScriptContainer container = grid.containers[i];
             if (container == null || container.allowInMaterialRecipes) {
                 continue;
             }
             boolean allowed = false;
-            if (recipe instanceof ShapelessRecipe) {
-                for (RecipeChoice choice : ((ShapelessRecipe) recipe).getChoiceList()) {
-                    if (isAllowedChoice(container, choice)) {
-                        allowed = true;
-                        break;
-                    }
-                }
-            }
-            else if (recipe instanceof ShapedRecipe) {
+            if (shape != null) {
                 int x = i % width - shapeStartX;
                 int y = i / width - shapeStartY;
                 if (x < 0 || y < 0) {
                     return DenyCraftReason.IMPOSSIBLE;
                 }
-                String[] shape = ((ShapedRecipe) recipe).getShape();
                 if (y < shape.length && x < shape[y].length()) {
-                    char c = shape[y].charAt(x);
-                    RecipeChoice choice = ((ShapedRecipe) recipe).getChoiceMap().get(c);
-                    if (isAllowedChoice(container, choice)) {
-                        allowed = true;
-                    }
+                    allowed = recipe.isAllowedAt(shape[y].charAt(x), container);
                 }
             }
-            else if (recipe instanceof CookingRecipe) {
-                allowed = isAllowedChoice(container, ((CookingRecipe) recipe).getInputChoice());
+            else if (recipe.anyScripts != null) {
+                allowed = recipe.anyScripts.contains(container);
             }
             else {
                 allowed = true; // Shouldn't be possible?
@@ -542,15 +533,17 @@ public class ItemScriptHelper implements Listener {
     }
 
     public static boolean hasAlternateValidRecipe(Recipe recipe, ItemStack[] items) {
+        return hasAlternateValidRecipe(recipe, new CraftingRecipeIndex.CraftingGrid(items));
+    }
+
+    public static boolean hasAlternateValidRecipe(Recipe recipe, CraftingRecipeIndex.CraftingGrid grid) {
         // Workaround for Spigot bug with the wrong recipe ID getting grabbed
         if (recipe instanceof ShapedRecipe) {
             ItemStack result = recipe.getResult();
             if (isItemscript(result)) {
-                for (Recipe altRecipe : getRecipesFor(result.getType())) {
-                    if (altRecipe instanceof ShapedRecipe) {
-                        if (shouldDenyCraft(items, altRecipe) == DenyCraftReason.ALLOWED) {
-                            return true;
-                        }
+                for (CraftingRecipeIndex.IndexedRecipe altRecipe : CraftingRecipeIndex.getShapedCandidates(grid)) {
+                    if (altRecipe.resultType == result.getType() && shouldDenyCraft(grid, altRecipe) == DenyCraftReason.ALLOWED) {
+                        return true;
                     }
                 }
             }
@@ -558,23 +551,28 @@ public class ItemScriptHelper implements Listener {
         return false;
     }
 
+    public static boolean shouldDenyCraftEvent(Recipe recipe, ItemStack[] items) {
+        CraftingRecipeIndex.CraftingGrid grid = new CraftingRecipeIndex.CraftingGrid(items);
+        if (!grid.restricted) {
+            return false;
+        }
+        return shouldDenyCraft(grid, CraftingRecipeIndex.getIndexed(recipe)) != DenyCraftReason.ALLOWED && !hasAlternateValidRecipe(recipe, grid);
+    }
+
     @EventHandler(priority = EventPriority.LOW)
     public void onCraftPrepared(PrepareItemCraftEvent event) {
         Recipe recipe = event.getRecipe();
         if (recipe == null) {
             return;
         }
-        ItemStack[] items = event.getInventory().getMatrix();
-        if (shouldDenyCraft(items, recipe) != DenyCraftReason.ALLOWED && !hasAlternateValidRecipe(recipe, items)) {
+        if (shouldDenyCraftEvent(recipe, event.getInventory().getMatrix())) {
             event.getInventory().setResult(null);
         }
     }
 
     @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
     public void onItemCrafted(CraftItemEvent event) {
-        Recipe recipe = event.getRecipe();
-        ItemStack[] items = event.getInventory().getMatrix();
-        if (shouldDenyCraft(items, recipe) != DenyCraftReason.ALLOWED && !hasAlternateValidRecipe(recipe, items)) {
+        if (shouldDenyCraftEvent(event.getRecipe(), event.getInventory().getMatrix())) {
             event.setCancelled(true);
         }
     }
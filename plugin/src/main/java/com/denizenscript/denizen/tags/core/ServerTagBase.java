@@ -13,6 +13,8 @@ import com.denizenscript.denizen.scripts.containers.core.CommandScriptHelper;
 import com.denizenscript.denizen.scripts.containers.core.ItemScriptHelper;
 import com.denizenscript.denizen.utilities.*;
 import com.denizenscript.denizen.utilities.depends.Depends;
+import com.denizenscript.denizen.utilities.debugging.ScriptEventProfiler;
+import com.denizenscript.denizen.utilities.entity.EntityNavigationManager;
 import com.denizenscript.denizen.utilities.inventory.SlotHelper;
 import com.denizenscript.denizencore.DenizenCore;
 import com.denizenscript.denizencore.events.ScriptEvent;
@@ -1813,6 +1815,64 @@ public class ServerTagBase extends PseudoObjectTagBase<ServerTagBase> {
             return worlds;
         });
 
+        // <--[tag]
+        // @attribute <server.navigation_stats>
+        // @returns MapTag
+        // @description
+        // Generates a report about the shared 'follow' and 'walk' navigation system.
+        // Keys are 'followers', 'walkers', 'paths_computed', and 'budget_overruns'.
+        // This tag is strictly for internal debugging reasons.
+        // -->
+        tagProcessor.registerTag(MapTag.class, "navigation_stats", (attribute, object) -> {
+            MapTag result = new MapTag();
+            result.putObject("followers", new ElementTag(EntityNavigationManager.followers.size()));
+            result.putObject("walkers", new ElementTag(EntityNavigationManager.walkers.size()));
+            result.putObject("paths_computed", new ElementTag(EntityNavigationManager.pathsComputed));
+            result.putObject("budget_overruns", new ElementTag(EntityNavigationManager.budgetOverruns));
+            return result;
+        });
+
+        // <--[tag]
+        // @attribute <server.script_event_profile[(<#>)]>
+        // @returns ListTag(MapTag)
+        // @mechanism server.reset_script_event_profile
+        // @description
+        // Returns the script event profiler's data for each script event path, most total sampled time first, optionally limited to the given number of paths.
+        // Each map has keys 'script', 'event', 'samples' (sampled fires that checked the path), 'matches' (how many of those matched),
+        // and 'match_time' and 'run_time', which are each a map of 'count', 'total_nanos', and 'histogram'.
+        // The histogram is a list of counts, where entry N (counting from 1) counts timings below 2^(N-1) microseconds (and at least 2^(N-2)).
+        // Only a sample of fires are timed (at most one per event per tick), so compare paths to each other rather than reading the numbers as totals.
+        // Data is only collected while the 'Debug.Script event profiler' config option is enabled (as it is by default), and per-path data resets on script reload.
+        // -->
+        tagProcessor.registerTag(ListTag.class, "script_event_profile", (attribute, object) -> {
+            int limit = attribute.hasParam() ? attribute.getIntParam() : Integer.MAX_VALUE;
+            ListTag result = new ListTag();
+            for (ScriptEventProfiler.PathProfile profile : ScriptEventProfiler.getSortedPathProfiles()) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                result.addObject(ScriptEventProfiler.getPathProfileMap(profile));
+            }
+            return result;
+        });
+
+        // <--[tag]
+        // @attribute <server.script_event_listener_profile>
+        // @returns MapTag
+        // @mechanism server.reset_script_event_profile
+        // @description
+        // Returns the script event profiler's data for each event, as a map of event names to maps with keys 'fires' (all fires),
+        // 'samples' (fires timed by the profiler), and 'listener_time', which is the time spent in the Bukkit listener before the fire started,
+        // in the same format as the time maps in <@link tag server.script_event_profile>.
+        // -->
+        tagProcessor.registerTag(MapTag.class, "script_event_listener_profile", (attribute, object) -> {
+            MapTag result = new MapTag();
+            for (ScriptEventProfiler.EventProfile profile : ScriptEventProfiler.eventProfiles.values()) {
+                result.putObject(profile.name, ScriptEventProfiler.getEventProfileMap(profile));
+            }
+            return result;
+        });
+
         // <--[mechanism]
         // @object server
         // @name clean_flags
@@ -1827,6 +1887,20 @@ public class ServerTagBase extends PseudoObjectTagBase<ServerTagBase> {
             DenizenCore.serverFlagMap.doTotalClean();
         });
 
+        // <--[mechanism]
+        // @object server
+        // @name reset_script_event_profile
+        // @input None
+        // @description
+        // Clears all data collected by the script event profiler.
+        // @tags
+        // <server.script_event_profile[(<#>)]>
+        // <server.script_event_listener_profile>
+        // -->
+        tagProcessor.registerMechanism("reset_script_event_profile", false, (object, mechanism) -> {
+            ScriptEventProfiler.reset();
+        });
+
         // <--[mechanism]
         // @object server
         // @name reset_recipes
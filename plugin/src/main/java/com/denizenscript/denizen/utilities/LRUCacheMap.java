@@ -0,0 +1,29 @@
+package com.denizenscript.denizen.utilities;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A map that keeps at most 'maxSize' entries, dropping the least-recently-used entry (by get or put) when it would grow past that.
+ * Not thread safe on its own: use 'synchronizedCache' for caches that can be read from async tag contexts,
+ * and synchronize on the returned map for any compound operation (such as a get followed by a put that must not race).
+ */
+public class LRUCacheMap<K, V> extends LinkedHashMap<K, V> {
+
+    public final int maxSize;
+
+    public LRUCacheMap(int initialCapacity, int maxSize) {
+        super(initialCapacity, 0.75f, true);
+        this.maxSize = maxSize;
+    }
+
+    public static <K, V> Map<K, V> synchronizedCache(int initialCapacity, int maxSize) {
+        return Collections.synchronizedMap(new LRUCacheMap<>(initialCapacity, maxSize));
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        return size() > maxSize;
+    }
+}
@@ -5,9 +5,12 @@ import com.denizenscript.denizen.objects.CuboidTag;
 import com.denizenscript.denizen.objects.LocationTag;
 import com.denizenscript.denizencore.utilities.CoreUtilities;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import org.bukkit.Location;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.function.Consumer;
 
 /**
@@ -19,6 +22,8 @@ import java.util.function.Consumer;
  * Note that vertical position (Y coordinate) is entirely ignored.
  * Because most noted areas are likely to fit into one of these grids, any lookups can confine themselves to only looking at the Areas defined within the same grid cell.
  * This uses multiple layers of imperfect checks before doing the final exact-containment check, as the imperfect checks are significantly faster to run, especially for complex area shapes like polygons.
+ * Each world also keeps a chunk presence bitmap (one bit per chunk, in 32x32 chunk regions) of which chunks any non-global area overlaps,
+ * for callers that want to reject positions far from any area before doing even a grid lookup.
  */
 public class NotedAreaTracker {
 
@@ -81,6 +86,52 @@ public class NotedAreaTracker {
 
         public final Int2ObjectOpenHashMap<AreaSet> sets50 = new Int2ObjectOpenHashMap<>(), sets50_offset = new Int2ObjectOpenHashMap<>(), sets200 = new Int2ObjectOpenHashMap<>(), sets200_offset = new Int2ObjectOpenHashMap<>();
 
+        public final Long2ObjectOpenHashMap<long[]> chunkPresence = new Long2ObjectOpenHashMap<>();
+
+        // Bits can't be unset on removal (other areas may share the chunk), so removals mark the bitmap for a rebuild on next use
+        public boolean chunkPresenceDirty = false;
+
+        public static long getRegionKey(int chunkX, int chunkZ) {
+            return ((long) (chunkX >> 5) << 32) | ((chunkZ >> 5) & 0xFFFFFFFFL);
+        }
+
+        public void markChunks(TrackedArea area) {
+            for (int chunkX = area.lowX >> 4; chunkX <= area.highX >> 4; chunkX++) {
+                for (int chunkZ = area.lowZ >> 4; chunkZ <= area.highZ >> 4; chunkZ++) {
+                    long[] bits = chunkPresence.computeIfAbsent(getRegionKey(chunkX, chunkZ), k -> new long[16]);
+                    int bit = ((chunkX & 31) << 5) | (chunkZ & 31);
+                    bits[bit >> 6] |= 1L << (bit & 63);
+                }
+            }
+        }
+
+        public void rebuildChunkPresence() {
+            chunkPresence.clear();
+            chunkPresenceDirty = false;
+            for (Int2ObjectOpenHashMap<AreaSet> sets : List.of(sets50, sets50_offset, sets200, sets200_offset)) {
+                for (AreaSet set : sets.values()) {
+                    for (TrackedArea area : set.list) {
+                        markChunks(area);
+                    }
+                }
+            }
+        }
+
+        public boolean mightHaveAreaInChunk(int chunkX, int chunkZ) {
+            if (!globalSet.isEmpty()) {
+                return true;
+            }
+            if (chunkPresenceDirty) {
+                rebuildChunkPresence();
+            }
+            long[] bits = chunkPresence.get(getRegionKey(chunkX, chunkZ));
+            if (bits == null) {
+                return false;
+            }
+            int bit = ((chunkX & 31) << 5) | (chunkZ & 31);
+            return (bits[bit >> 6] & (1L << (bit & 63))) != 0;
+        }
+
         public static boolean doesFit(TrackedArea area, int scale, int offset) {
             int lowX = (area.lowX + offset) / scale, lowZ = (area.lowZ + offset) / scale, highX = (area.highX + offset) / scale, highZ = (area.highZ + offset) / scale;
             return lowX == highX && lowZ == highZ;
@@ -147,6 +198,9 @@ public class NotedAreaTracker {
         TrackedArea tracker = new TrackedArea(area);
         AreaSet areaSet = set.bestSetFor(tracker, true);
         areaSet.list.add(tracker);
+        if (areaSet != set.globalSet && !set.chunkPresenceDirty) {
+            set.markChunks(tracker);
+        }
     }
 
     /**
@@ -164,6 +218,7 @@ public class NotedAreaTracker {
             return;
         }
         areaSet.list.remove(tracker);
+        set.chunkPresenceDirty = true;
         if (areaSet.isEmpty()) {
             set.remove(areaSet);
             if (set.isEmpty()) {
@@ -183,6 +238,17 @@ public class NotedAreaTracker {
         }
     }
 
+    /**
+     * Returns false if no tracked area can contain any location in the given location's chunk.
+     */
+    public static boolean mightHaveAreaInChunk(Location location) {
+        PerWorldSet set = worlds.get(CoreUtilities.toLowerCase(location.getWorld().getName()));
+        if (set == null) {
+            return false;
+        }
+        return set.mightHaveAreaInChunk(location.getBlockX() >> 4, location.getBlockZ() >> 4);
+    }
+
     /**
      * Call to run an action over every Area that contains a given location.
      */
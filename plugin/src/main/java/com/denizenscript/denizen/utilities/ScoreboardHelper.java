@@ -30,6 +30,9 @@ public class ScoreboardHelper {
      */
     public static void _recallScoreboards() {
 
+        // Packet-only boards are stored separately
+        VirtualScoreboard.load();
+
         // Clear every existing ingame scoreboard
         for (Map.Entry<String, Scoreboard> entry : scoreboardMap.entrySet()) {
             clearScoreboard(entry.getValue());
@@ -131,6 +134,8 @@ public class ScoreboardHelper {
      */
     public static void _saveScoreboards() {
 
+        VirtualScoreboard.save();
+
         try {
             // Clear scoreboards.yml
             Denizen.getInstance().getScoreboards()
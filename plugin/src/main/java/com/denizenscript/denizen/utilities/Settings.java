@@ -1,10 +1,16 @@
 package com.denizenscript.denizen.utilities;
 
 import com.denizenscript.denizen.Denizen;
+import com.denizenscript.denizen.events.BukkitScriptEvent;
 import com.denizenscript.denizen.objects.PolygonTag;
 import com.denizenscript.denizen.scripts.commands.entity.RemoveCommand;
 import com.denizenscript.denizen.tags.core.CustomColorTagBase;
+import com.denizenscript.denizen.utilities.debugging.ScriptEventProfiler;
+import com.denizenscript.denizen.utilities.entity.EntityNavigationManager;
+import com.denizenscript.denizen.utilities.flags.ChunkFlagCleaner;
 import com.denizenscript.denizen.utilities.flags.PlayerFlagHandler;
+import com.denizenscript.denizen.utilities.inventory.InventoryContentIndex;
+import com.denizenscript.denizen.utilities.world.PathFinder;
 import com.denizenscript.denizencore.utilities.CoreConfiguration;
 import com.denizenscript.denizencore.objects.core.DurationTag;
 import com.denizenscript.denizencore.utilities.CoreUtilities;
@@ -77,8 +83,14 @@ public class Settings {
         }
         // Spigot
         PolygonTag.preferInclusive = config.getBoolean("Tags.Polygon default inclusive", false);
+        InventoryContentIndex.enabled = config.getBoolean("Tags.Inventory content index", false);
+        ScriptEventProfiler.enabled = config.getBoolean("Debug.Script event profiler", true);
+        BukkitScriptEvent.asyncFireBudgetNanos = config.getLong("Scripts.World.Events.Async event budget per tick", 10) * 1_000_000L;
         allowAsyncPassThrough = config.getBoolean("Scripts.Economy.Pass async to main thread", false);
+        economyBalanceSnapshot = config.getBoolean("Scripts.Economy.Async balance snapshot", false);
+        economyBalanceSnapshotRefreshTicks = DurationTag.valueOf(config.getString("Scripts.Economy.Async balance snapshot refresh", "5s"), CoreUtilities.basicContext).getTicks();
         skipChunkFlagCleaning = config.getBoolean("Saves.Skip chunk flag cleaning", false);
+        ChunkFlagCleaner.budgetNanos = config.getLong("Saves.Chunk flag cleaning budget per tick", 1) * 1_000_000L;
         nullifySkullSkinIds = config.getBoolean("Tags.Nullify skull skin ids", false);
         worldPlayerDataSaveDelay = (float) DurationTag.valueOf(config.getString("Save world player file delay", "10s"), CoreUtilities.basicContext).getSeconds();
         worldPlayerDataMaxCacheTicks = DurationTag.valueOf(config.getString("World player data max cache", "1h"), CoreUtilities.basicContext).getTicks();
@@ -99,6 +111,7 @@ public class Settings {
         cache_engageTimeoutInSeconds = config.getString("Commands.Engage.Timeout", "150s");
         cache_createWorldSymbols = config.getBoolean("Commands.CreateWorld.Allow symbols in names", false);
         cache_createWorldWeirdPaths = config.getBoolean("Commands.CreateWorld.Allow weird paths", false);
+        PathFinder.iterationsPerTick = config.getInt("Commands.FindPath.Iterations per tick", 5000);
         cache_allowServerStop = config.getBoolean("Commands.Restart.Allow server stop", false);
         cache_allowServerRestart = config.getBoolean("Commands.Restart.Allow server restart", true);
         cache_limitPath = config.getString("Commands.Yaml.Limit path", "none");
@@ -128,6 +141,8 @@ public class Settings {
         PlayerFlagHandler.asyncPreload = config.getBoolean("Saves.Load async on login", true);
         PlayerFlagHandler.saveOnlyWhenWorldSaveOn = config.getBoolean("Saves.Only save if world save is on", false);
         RemoveCommand.alwaysWarnOnMassRemove = config.getBoolean("Commands.Remove.Always warn on mass delete", false);
+        EntityNavigationManager.pathBudgetPerTick = config.getInt("Commands.Follow.Path budget per tick", 20);
+        EntityNavigationManager.pathReuseDistance = config.getDouble("Commands.Follow.Path reuse distance", 1);
         ConfigurationSection colorSection = config.getConfigurationSection("Colors");
         if (colorSection != null) {
             CustomColorTagBase.customColors.clear();
@@ -145,6 +160,10 @@ public class Settings {
 
     public static boolean allowAsyncPassThrough = false;
 
+    public static boolean economyBalanceSnapshot = false;
+
+    public static long economyBalanceSnapshotRefreshTicks = 100;
+
     public static float worldPlayerDataSaveDelay = 10;
 
     public static long worldPlayerDataMaxCacheTicks = 20 * 60 * 60;
@@ -0,0 +1,523 @@
+package com.denizenscript.denizen.utilities;
+
+import com.denizenscript.denizen.Denizen;
+import com.denizenscript.denizen.nms.NMSHandler;
+import com.denizenscript.denizencore.utilities.CoreUtilities;
+import com.denizenscript.denizencore.utilities.debugging.Debug;
+import it.unimi.dsi.fastutil.objects.Object2IntLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.entity.Player;
+import org.bukkit.scoreboard.DisplaySlot;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * A scoreboard that exists only as packets sent to its viewers, rather than as a server-side Bukkit Scoreboard.
+ * Only changes are sent to viewers, and each viewer may have their own score overrides on a shared board.
+ * Virtual boards only support 'dummy' criteria, as the server does not track them.
+ */
+public class VirtualScoreboard {
+
+    public static class VirtualObjective {
+
+        public String name;
+
+        public String displayName;
+
+        public boolean hearts;
+
+        public int displaySlot = -1;
+
+        public Object2IntLinkedOpenHashMap<String> scores = new Object2IntLinkedOpenHashMap<>();
+    }
+
+    public static class VirtualTeam {
+
+        public String name;
+
+        public String prefix = "", suffix = "";
+
+        public LinkedHashSet<String> members = new LinkedHashSet<>();
+    }
+
+    // A map with lowercase board IDs as keys
+    public static Map<String, VirtualScoreboard> boards = new HashMap<>();
+    // A map with viewer UUIDs as keys and the board they are viewing as values
+    public static Map<UUID, VirtualScoreboard> viewerBoards = new HashMap<>();
+
+    public static boolean dirty = false;
+
+    public String id;
+
+    public LinkedHashMap<String, VirtualObjective> objectives = new LinkedHashMap<>();
+
+    public LinkedHashMap<String, VirtualTeam> teams = new LinkedHashMap<>();
+
+    // Per-viewer score overrides: viewer -> objective name -> entry -> score
+    public HashMap<UUID, HashMap<String, Object2IntOpenHashMap<String>>> overrides = new HashMap<>();
+
+    public LinkedHashSet<UUID> viewers = new LinkedHashSet<>();
+
+    public VirtualScoreboard(String id) {
+        this.id = id;
+    }
+
+    public static VirtualScoreboard getBoard(String id) {
+        return boards.get(CoreUtilities.toLowerCase(id));
+    }
+
+    public static VirtualScoreboard getOrCreateBoard(String id) {
+        return boards.computeIfAbsent(CoreUtilities.toLowerCase(id), VirtualScoreboard::new);
+    }
+
+    public static void deleteBoard(String id) {
+        VirtualScoreboard board = boards.remove(CoreUtilities.toLowerCase(id));
+        if (board != null) {
+            for (UUID viewer : new ArrayList<>(board.viewers)) {
+                board.removeViewer(viewer);
+            }
+            dirty = true;
+        }
+    }
+
+    /**
+     * Returns the vanilla display slot ID for the slot, or -1 if it isn't a slot a virtual scoreboard can use.
+     * Team sidebar slots ('SIDEBAR_TEAM_<color>', or 'SIDEBAR_<color>' in some API versions) are IDs 3 to 18, in team color order.
+     */
+    public static int slotId(DisplaySlot slot) {
+        switch (slot) {
+            case PLAYER_LIST:
+                return 0;
+            case SIDEBAR:
+                return 1;
+            case BELOW_NAME:
+                return 2;
+        }
+        String name = slot.name();
+        String color = name.startsWith("SIDEBAR_TEAM_") ? name.substring("SIDEBAR_TEAM_".length()) : name.startsWith("SIDEBAR_") ? name.substring("SIDEBAR_".length()) : null;
+        if (color == null) {
+            return -1;
+        }
+        try {
+            ChatColor chatColor = ChatColor.valueOf(color);
+            return chatColor.isColor() ? 3 + chatColor.ordinal() : -1;
+        }
+        catch (IllegalArgumentException ex) {
+            return -1;
+        }
+    }
+
+    public List<Player> getOnlineViewers() {
+        List<Player> result = new ArrayList<>(viewers.size());
+        for (UUID id : viewers) {
+            Player player = Bukkit.getPlayer(id);
+            if (player != null) {
+                result.add(player);
+            }
+        }
+        return result;
+    }
+
+    public boolean hasOverride(UUID viewer, String objective, String entry) {
+        HashMap<String, Object2IntOpenHashMap<String>> viewerOverrides = overrides.get(viewer);
+        if (viewerOverrides == null) {
+            return false;
+        }
+        Object2IntOpenHashMap<String> objOverrides = viewerOverrides.get(objective);
+        return objOverrides != null && objOverrides.containsKey(entry);
+    }
+
+    /**
+     * Sends the full state of the board to a player, used when they start viewing it or rejoin.
+     */
+    public void sendFullState(Player player) {
+        HashMap<String, Object2IntOpenHashMap<String>> viewerOverrides = overrides.get(player.getUniqueId());
+        for (VirtualObjective objective : objectives.values()) {
+            NMSHandler.packetHelper.sendScoreboardObjective(player, objective.name, objective.displayName, objective.hearts, 0);
+            Object2IntOpenHashMap<String> objOverrides = viewerOverrides == null ? null : viewerOverrides.get(objective.name);
+            for (Object2IntMap.Entry<String> score : objective.scores.object2IntEntrySet()) {
+                if (objOverrides == null || !objOverrides.containsKey(score.getKey())) {
+                    NMSHandler.packetHelper.sendScoreboardScore(player, objective.name, score.getKey(), score.getIntValue(), false);
+                }
+            }
+            if (objOverrides != null) {
+                for (Object2IntMap.Entry<String> score : objOverrides.object2IntEntrySet()) {
+                    NMSHandler.packetHelper.sendScoreboardScore(player, objective.name, score.getKey(), score.getIntValue(), false);
+                }
+            }
+            if (objective.displaySlot != -1) {
+                NMSHandler.packetHelper.sendScoreboardDisplaySlot(player, objective.displaySlot, objective.name);
+            }
+        }
+        for (VirtualTeam team : teams.values()) {
+            NMSHandler.packetHelper.sendScoreboardTeam(player, team.name, team.prefix, team.suffix, team.members, 0);
+        }
+    }
+
+    public void sendClearState(Player player) {
+        for (VirtualObjective objective : objectives.values()) {
+            NMSHandler.packetHelper.sendScoreboardObjective(player, objective.name, objective.displayName, objective.hearts, 1);
+        }
+        for (VirtualTeam team : teams.values()) {
+            NMSHandler.packetHelper.sendScoreboardTeam(player, team.name, null, null, null, 1);
+        }
+    }
+
+    public void addViewer(UUID id) {
+        VirtualScoreboard previous = viewerBoards.get(id);
+        if (previous == this) {
+            return;
+        }
+        if (previous != null) {
+            previous.removeViewer(id);
+        }
+        viewers.add(id);
+        viewerBoards.put(id, this);
+        Player player = Bukkit.getPlayer(id);
+        if (player != null) {
+            sendFullState(player);
+        }
+        dirty = true;
+    }
+
+    public void removeViewer(UUID id) {
+        if (!viewers.remove(id)) {
+            return;
+        }
+        viewerBoards.remove(id);
+        overrides.remove(id);
+        Player player = Bukkit.getPlayer(id);
+        if (player != null) {
+            sendClearState(player);
+        }
+        dirty = true;
+    }
+
+    public VirtualObjective setObjective(String name, String displayName, Boolean hearts, DisplaySlot slot) {
+        VirtualObjective objective = objectives.get(name);
+        boolean created = objective == null;
+        if (created) {
+            objective = new VirtualObjective();
+            objective.name = name;
+            objective.displayName = displayName == null ? name : displayName;
+            objective.hearts = hearts != null && hearts;
+            objectives.put(name, objective);
+        }
+        boolean changed = false;
+        if (!created && displayName != null && !displayName.equals(objective.displayName)) {
+            objective.displayName = displayName;
+            changed = true;
+        }
+        if (!created && hearts != null && hearts != objective.hearts) {
+            objective.hearts = hearts;
+            changed = true;
+        }
+        int newSlot = slot == null ? objective.displaySlot : slotId(slot);
+        boolean slotChanged = newSlot != objective.displaySlot;
+        if (slotChanged) {
+            // Only one objective can be in a slot at a time
+            for (VirtualObjective other : objectives.values()) {
+                if (other != objective && other.displaySlot == newSlot) {
+                    other.displaySlot = -1;
+                }
+            }
+            objective.displaySlot = newSlot;
+        }
+        if (created || changed || slotChanged) {
+            for (Player player : getOnlineViewers()) {
+                if (created || changed) {
+                    NMSHandler.packetHelper.sendScoreboardObjective(player, name, objective.displayName, objective.hearts, created ? 0 : 2);
+                }
+                if (slotChanged && newSlot != -1) {
+                    NMSHandler.packetHelper.sendScoreboardDisplaySlot(player, newSlot, name);
+                }
+            }
+            dirty = true;
+        }
+        return objective;
+    }
+
+    public void removeObjective(String name) {
+        VirtualObjective objective = objectives.remove(name);
+        if (objective == null) {
+            return;
+        }
+        for (HashMap<String, Object2IntOpenHashMap<String>> viewerOverrides : overrides.values()) {
+            viewerOverrides.remove(name);
+        }
+        for (Player player : getOnlineViewers()) {
+            NMSHandler.packetHelper.sendScoreboardObjective(player, name, objective.displayName, objective.hearts, 1);
+        }
+        dirty = true;
+    }
+
+    public void setScore(String objectiveName, String entry, int score) {
+        VirtualObjective objective = objectives.get(objectiveName);
+        if (objective == null) {
+            return;
+        }
+        if (objective.scores.containsKey(entry) && objective.scores.getInt(entry) == score) {
+            return;
+        }
+        objective.scores.put(entry, score);
+        for (Player player : getOnlineViewers()) {
+            if (!hasOverride(player.getUniqueId(), objectiveName, entry)) {
+                NMSHandler.packetHelper.sendScoreboardScore(player, objectiveName, entry, score, false);
+            }
+        }
+        dirty = true;
+    }
+
+    /**
+     * Removes a single entry from a single objective. Unlike Bukkit scoreboards, this does not affect the entry's scores in other objectives.
+     */
+    public void removeScore(String objectiveName, String entry) {
+        VirtualObjective objective = objectives.get(objectiveName);
+        if (objective == null || !objective.scores.containsKey(entry)) {
+            return;
+        }
+        objective.scores.removeInt(entry);
+        for (Player player : getOnlineViewers()) {
+            if (!hasOverride(player.getUniqueId(), objectiveName, entry)) {
+                NMSHandler.packetHelper.sendScoreboardScore(player, objectiveName, entry, 0, true);
+            }
+        }
+        dirty = true;
+    }
+
+    public void removeEntry(String entry) {
+        for (VirtualObjective objective : objectives.values()) {
+            removeScore(objective.name, entry);
+        }
+    }
+
+    public void setOverride(UUID viewer, String objectiveName, String entry, int score) {
+        if (!viewers.contains(viewer) || !objectives.containsKey(objectiveName)) {
+            return;
+        }
+        Object2IntOpenHashMap<String> objOverrides = overrides.computeIfAbsent(viewer, k -> new HashMap<>()).computeIfAbsent(objectiveName, k -> new Object2IntOpenHashMap<>());
+        if (objOverrides.containsKey(entry) && objOverrides.getInt(entry) == score) {
+            return;
+        }
+        objOverrides.put(entry, score);
+        Player player = Bukkit.getPlayer(viewer);
+        if (player != null) {
+            NMSHandler.packetHelper.sendScoreboardScore(player, objectiveName, entry, score, false);
+        }
+        dirty = true;
+    }
+
+    public void removeOverride(UUID viewer, String objectiveName, String entry) {
+        HashMap<String, Object2IntOpenHashMap<String>> viewerOverrides = overrides.get(viewer);
+        if (viewerOverrides == null) {
+            return;
+        }
+        Object2IntOpenHashMap<String> objOverrides = viewerOverrides.get(objectiveName);
+        if (objOverrides == null || !objOverrides.containsKey(entry)) {
+            return;
+        }
+        objOverrides.removeInt(entry);
+        if (objOverrides.isEmpty()) {
+            viewerOverrides.remove(objectiveName);
+        }
+        Player player = Bukkit.getPlayer(viewer);
+        if (player != null) {
+            VirtualObjective objective = objectives.get(objectiveName);
+            if (objective != null && objective.scores.containsKey(entry)) {
+                NMSHandler.packetHelper.sendScoreboardScore(player, objectiveName, entry, objective.scores.getInt(entry), false);
+            }
+            else {
+                NMSHandler.packetHelper.sendScoreboardScore(player, objectiveName, entry, 0, true);
+            }
+        }
+        dirty = true;
+    }
+
+    public VirtualTeam getOrCreateTeam(String name) {
+        VirtualTeam team = teams.get(name);
+        if (team == null) {
+            team = new VirtualTeam();
+            team.name = name;
+            teams.put(name, team);
+            for (Player player : getOnlineViewers()) {
+                NMSHandler.packetHelper.sendScoreboardTeam(player, name, team.prefix, team.suffix, team.members, 0);
+            }
+            dirty = true;
+        }
+        return team;
+    }
+
+    public void setTeamAffixes(VirtualTeam team, String prefix, String suffix) {
+        boolean changed = false;
+        if (prefix != null && !prefix.equals(team.prefix)) {
+            team.prefix = prefix;
+            changed = true;
+        }
+        if (suffix != null && !suffix.equals(team.suffix)) {
+            team.suffix = suffix;
+            changed = true;
+        }
+        if (changed) {
+            for (Player player : getOnlineViewers()) {
+                NMSHandler.packetHelper.sendScoreboardTeam(player, team.name, team.prefix, team.suffix, null, 2);
+            }
+            dirty = true;
+        }
+    }
+
+    public void changeTeamMembers(VirtualTeam team, Collection<String> entries, boolean add) {
+        List<String> changed = new ArrayList<>();
+        for (String entry : entries) {
+            if (add ? team.members.add(entry) : team.members.remove(entry)) {
+                changed.add(entry);
+            }
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+        for (Player player : getOnlineViewers()) {
+            NMSHandler.packetHelper.sendScoreboardTeam(player, team.name, team.prefix, team.suffix, changed, add ? 3 : 4);
+        }
+        dirty = true;
+    }
+
+    public void removeTeam(String name) {
+        VirtualTeam team = teams.remove(name);
+        if (team == null) {
+            return;
+        }
+        for (Player player : getOnlineViewers()) {
+            NMSHandler.packetHelper.sendScoreboardTeam(player, team.name, null, null, null, 1);
+        }
+        dirty = true;
+    }
+
+    /////////////////////
+    //   PERSISTENCE
+    /////////////////
+
+    public static final int SAVE_FORMAT_VERSION = 1;
+
+    public static File getSaveFile() {
+        return new File(Denizen.getInstance().getDataFolder(), "virtual_scoreboards.dat");
+    }
+
+    /**
+     * Saves all virtual scoreboards in a compact binary format, if anything changed since the last save.
+     * Per-viewer overrides are considered transient and are not saved.
+     */
+    public static void save() {
+        if (!dirty) {
+            return;
+        }
+        File file = getSaveFile();
+        if (boards.isEmpty()) {
+            file.delete();
+            dirty = false;
+            return;
+        }
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            output.writeInt(SAVE_FORMAT_VERSION);
+            output.writeInt(boards.size());
+            for (VirtualScoreboard board : boards.values()) {
+                output.writeUTF(board.id);
+                output.writeInt(board.viewers.size());
+                for (UUID viewer : board.viewers) {
+                    output.writeLong(viewer.getMostSignificantBits());
+                    output.writeLong(viewer.getLeastSignificantBits());
+                }
+                output.writeInt(board.objectives.size());
+                for (VirtualObjective objective : board.objectives.values()) {
+                    output.writeUTF(objective.name);
+                    output.writeUTF(objective.displayName);
+                    output.writeBoolean(objective.hearts);
+                    output.writeByte(objective.displaySlot);
+                    output.writeInt(objective.scores.size());
+                    for (Object2IntMap.Entry<String> score : objective.scores.object2IntEntrySet()) {
+                        output.writeUTF(score.getKey());
+                        output.writeInt(score.getIntValue());
+                    }
+                }
+                output.writeInt(board.teams.size());
+                for (VirtualTeam team : board.teams.values()) {
+                    output.writeUTF(team.name);
+                    output.writeUTF(team.prefix);
+                    output.writeUTF(team.suffix);
+                    output.writeInt(team.members.size());
+                    for (String member : team.members) {
+                        output.writeUTF(member);
+                    }
+                }
+            }
+            dirty = false;
+        }
+        catch (IOException ex) {
+            Debug.echoError(ex);
+        }
+    }
+
+    public static void load() {
+        for (VirtualScoreboard board : new ArrayList<>(boards.values())) {
+            deleteBoard(board.id);
+        }
+        boards.clear();
+        viewerBoards.clear();
+        dirty = false;
+        File file = getSaveFile();
+        if (!file.exists()) {
+            return;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            int version = input.readInt();
+            if (version != SAVE_FORMAT_VERSION) {
+                Debug.echoError("Unrecognized virtual scoreboard save format version " + version + ", ignoring saved virtual scoreboards.");
+                return;
+            }
+            int boardCount = input.readInt();
+            for (int i = 0; i < boardCount; i++) {
+                VirtualScoreboard board = getOrCreateBoard(input.readUTF());
+                int viewerCount = input.readInt();
+                for (int v = 0; v < viewerCount; v++) {
+                    UUID viewer = new UUID(input.readLong(), input.readLong());
+                    board.viewers.add(viewer);
+                    viewerBoards.put(viewer, board);
+                }
+                int objectiveCount = input.readInt();
+                for (int o = 0; o < objectiveCount; o++) {
+                    VirtualObjective objective = new VirtualObjective();
+                    objective.name = input.readUTF();
+                    objective.displayName = input.readUTF();
+                    objective.hearts = input.readBoolean();
+                    objective.displaySlot = input.readByte();
+                    int scoreCount = input.readInt();
+                    for (int s = 0; s < scoreCount; s++) {
+                        objective.scores.put(input.readUTF(), input.readInt());
+                    }
+                    board.objectives.put(objective.name, objective);
+                }
+                int teamCount = input.readInt();
+                for (int t = 0; t < teamCount; t++) {
+                    VirtualTeam team = new VirtualTeam();
+                    team.name = input.readUTF();
+                    team.prefix = input.readUTF();
+                    team.suffix = input.readUTF();
+                    int memberCount = input.readInt();
+                    for (int m = 0; m < memberCount; m++) {
+                        team.members.add(input.readUTF());
+                    }
+                    board.teams.put(team.name, team);
+                }
+                for (Player player : board.getOnlineViewers()) {
+                    board.sendFullState(player);
+                }
+            }
+        }
+        catch (IOException ex) {
+            Debug.echoError(ex);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import com.denizenscript.denizen.utilities.command.manager.Paginator;
 import com.denizenscript.denizen.utilities.command.manager.exceptions.CommandException;
 import com.denizenscript.denizen.utilities.command.manager.messaging.Messaging;
 import com.denizenscript.denizen.utilities.debugging.DebugConsoleSender;
+import com.denizenscript.denizen.utilities.debugging.ScriptEventProfiler;
 import com.denizenscript.denizen.utilities.packets.NetworkInterceptHelper;
 import com.denizenscript.denizencore.DenizenCore;
 import com.denizenscript.denizencore.objects.notable.NoteManager;
@@ -316,6 +317,38 @@ public class DenizenCommandHandler {
         Messaging.send(sender, "");
     }
 
+    /*
+     * DENIZEN PROFILE
+     */
+    @Command(
+            aliases = {"denizen"}, usage = "profile (reset) (page)",
+            desc = "Shows the script event paths that took the most sampled time.", modifiers = {"profile"},
+            min = 1, max = 3, permission = "denizen.basic")
+    public void profile(CommandContext args, CommandSender sender) throws CommandException {
+        if (args.length() > 2 && args.getString(1).equalsIgnoreCase("reset")) {
+            ScriptEventProfiler.reset();
+            Messaging.send(sender, "Script event profiler data reset.");
+            return;
+        }
+        if (!ScriptEventProfiler.enabled) {
+            Messaging.sendError(sender, "The script event profiler is disabled in the config ('Debug.Script event profiler').");
+        }
+        Paginator paginator = new Paginator().header("Script event profile");
+        paginator.addLine("<e>Key: <b>Script <a>event <f>matched/samples, avg match, avg run, p99 run");
+        for (ScriptEventProfiler.PathProfile profile : ScriptEventProfiler.getSortedPathProfiles()) {
+            paginator.addLine("<b>" + profile.path.container.getName() + " <a>" + profile.path.event + " <f>" + profile.matches + "/" + profile.samples
+                    + ", " + formatMicros(profile.match.totalNanos, profile.match.count) + ", " + formatMicros(profile.run.totalNanos, profile.run.count)
+                    + ", <" + profile.run.percentileMicros(0.99) + "us");
+        }
+        if (!paginator.sendPage(sender, args.getInteger(1, 1))) {
+            throw new CommandException("The page " + args.getInteger(1, 1) + " does not exist!");
+        }
+    }
+
+    public static String formatMicros(long totalNanos, long count) {
+        return count == 0 ? "-" : (totalNanos / count / 1000) + "us";
+    }
+
     /*
      * DENIZEN SCRIPTS
      */
@@ -24,10 +24,7 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.bukkit.entity.minecart.CommandMinecart;
 
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 public class DenizenCommand extends Command {
 
@@ -186,6 +183,15 @@ public class DenizenCommand extends Command {
         return true;
     }
 
+    /**
+     * Returns text identifying everything about this command that affects the server's command tree, to detect when a resync is needed.
+     */
+    public String getSyncFingerprint() {
+        List<String> aliases = new ArrayList<>(getAliases());
+        Collections.sort(aliases);
+        return getName() + ";" + aliases + ";" + getPermission() + ";" + script.hasTabCompleteProcedure();
+    }
+
     @Override
     public List<String> tabComplete(CommandSender commandSender, String alias, String[] arguments) {
         if (!script.hasTabCompleteProcedure()) {
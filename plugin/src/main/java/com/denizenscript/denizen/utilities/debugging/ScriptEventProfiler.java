@@ -0,0 +1,244 @@
+package com.denizenscript.denizen.utilities.debugging;
+
+import com.denizenscript.denizen.events.BukkitScriptEvent;
+import com.denizenscript.denizencore.events.ScriptEvent;
+import com.denizenscript.denizencore.objects.core.ElementTag;
+import com.denizenscript.denizencore.objects.core.ListTag;
+import com.denizenscript.denizencore.objects.core.MapTag;
+
+import java.util.*;
+
+/**
+ * Low-overhead sampling profiler for Bukkit script events, enabled by default.
+ * Each event samples at most one fire per server tick. A sampled fire runs exactly the paths it normally would, in one normal fire,
+ * and times each path's match checks and (if it matched) its script run separately, along with the time the Bukkit listener spent before the fire.
+ * Timings are kept as log-scale histograms, so storage doesn't grow with the number of samples.
+ * When disabled, events skip all profiling work (listeners registered while disabled aren't wrapped with the timing executor at all).
+ * Must only be used from the main thread.
+ */
+public class ScriptEventProfiler {
+
+    public static boolean enabled = true;
+
+    public static final int HISTOGRAM_SIZE = 32;
+
+    /**
+     * Counts of timings by power-of-two microsecond buckets: entry N (zero-based) counts timings below 2^N microseconds (and at least 2^(N-1)).
+     * The last entry also counts anything longer.
+     */
+    public static class Histogram {
+
+        public final long[] counts = new long[HISTOGRAM_SIZE];
+
+        public long count, totalNanos;
+
+        public void add(long nanos) {
+            long micros = Math.max(0, nanos / 1000);
+            counts[Math.min(HISTOGRAM_SIZE - 1, 64 - Long.numberOfLeadingZeros(micros))]++;
+            count++;
+            totalNanos += nanos;
+        }
+
+        /**
+         * Returns the upper bound (in microseconds) of the bucket that holds the given percentile (0 to 1).
+         */
+        public long percentileMicros(double percentile) {
+            long target = (long) Math.ceil(count * percentile);
+            long seen = 0;
+            for (int i = 0; i < HISTOGRAM_SIZE; i++) {
+                seen += counts[i];
+                if (seen >= target && seen > 0) {
+                    return 1L << i;
+                }
+            }
+            return 0;
+        }
+
+        public void reset() {
+            Arrays.fill(counts, 0);
+            count = 0;
+            totalNanos = 0;
+        }
+
+        public MapTag toMapTag() {
+            MapTag result = new MapTag();
+            result.putObject("count", new ElementTag(count));
+            result.putObject("total_nanos", new ElementTag(totalNanos));
+            ListTag buckets = new ListTag(HISTOGRAM_SIZE);
+            int last = HISTOGRAM_SIZE - 1;
+            while (last > 0 && counts[last] == 0) {
+                last--;
+            }
+            for (int i = 0; i <= last; i++) {
+                buckets.addObject(new ElementTag(counts[i]));
+            }
+            result.putObject("histogram", buckets);
+            return result;
+        }
+    }
+
+    public static class EventProfile {
+
+        public final String name;
+
+        public long fires, samples;
+
+        public final Histogram listener = new Histogram();
+
+        public EventProfile(String name) {
+            this.name = name;
+        }
+
+        public void reset() {
+            fires = 0;
+            samples = 0;
+            listener.reset();
+        }
+    }
+
+    public static class PathProfile {
+
+        public final ScriptEvent.ScriptPath path;
+
+        public long samples, matches;
+
+        public final Histogram match = new Histogram(), run = new Histogram();
+
+        public PathProfile(ScriptEvent.ScriptPath path) {
+            this.path = path;
+        }
+
+        public long getTotalNanos() {
+            return match.totalNanos + run.totalNanos;
+        }
+    }
+
+    public static final HashMap<String, EventProfile> eventProfiles = new HashMap<>();
+
+    public static final IdentityHashMap<ScriptEvent.ScriptPath, PathProfile> pathProfiles = new IdentityHashMap<>();
+
+    public static EventProfile getEventProfile(String name) {
+        return eventProfiles.computeIfAbsent(name, EventProfile::new);
+    }
+
+    /**
+     * A read-only view of the paths a sampled fire runs, which marks the start of each path as the fire loop reaches it.
+     * Each path's time runs until the next path is reached (or the fire ends), split at the point its match checks passed, if they did.
+     * This relies on the fire loop reading the paths in ascending index order. Reading the same index again (or out of order) doesn't start
+     * a new path, so repeated reads of the current path are harmless, and only moving on to a higher index finishes the current path.
+     */
+    public static class SampledPathList extends AbstractList<ScriptEvent.ScriptPath> implements RandomAccess {
+
+        public final BukkitScriptEvent event;
+
+        public final List<ScriptEvent.ScriptPath> paths;
+
+        public ScriptEvent.ScriptPath currentPath;
+
+        public int currentIndex = -1;
+
+        public long currentStart;
+
+        public SampledPathList(BukkitScriptEvent event, List<ScriptEvent.ScriptPath> paths) {
+            this.event = event;
+            this.paths = paths;
+        }
+
+        @Override
+        public ScriptEvent.ScriptPath get(int index) {
+            ScriptEvent.ScriptPath path = paths.get(index);
+            if (index <= currentIndex) {
+                return path;
+            }
+            long now = System.nanoTime();
+            finishPath(now);
+            currentPath = path;
+            currentIndex = index;
+            currentStart = now;
+            event.profileMatchedNanos = 0;
+            return path;
+        }
+
+        @Override
+        public int size() {
+            return paths.size();
+        }
+
+        public void finishPath(long end) {
+            if (currentPath == null) {
+                return;
+            }
+            PathProfile profile = pathProfiles.computeIfAbsent(currentPath, PathProfile::new);
+            profile.samples++;
+            if (event.profileMatchedNanos != 0) {
+                profile.matches++;
+                profile.match.add(event.profileMatchedNanos - currentStart);
+                profile.run.add(end - event.profileMatchedNanos);
+            }
+            else {
+                profile.match.add(end - currentStart);
+            }
+            currentPath = null;
+        }
+    }
+
+    /**
+     * Fires the event for the given paths (which must be the paths this fire would normally run, in order), recording timings.
+     */
+    public static ScriptEvent profileFire(BukkitScriptEvent event, List<ScriptEvent.ScriptPath> paths) {
+        long start = System.nanoTime();
+        EventProfile eventProfile = event.getEventProfile();
+        eventProfile.samples++;
+        if (event.listenerStartNanos != 0) {
+            eventProfile.listener.add(start - event.listenerStartNanos);
+            event.listenerStartNanos = 0;
+        }
+        SampledPathList sampledPaths = new SampledPathList(event, paths);
+        event.profileDepth = event.fireDepth + 1;
+        try {
+            return event.fireWithPaths(sampledPaths);
+        }
+        finally {
+            sampledPaths.finishPath(System.nanoTime());
+            event.profileDepth = 0;
+        }
+    }
+
+    /**
+     * Returns all path profiles, most total sampled time first.
+     */
+    public static List<PathProfile> getSortedPathProfiles() {
+        List<PathProfile> result = new ArrayList<>(pathProfiles.values());
+        result.sort(Comparator.comparingLong(PathProfile::getTotalNanos).reversed());
+        return result;
+    }
+
+    public static MapTag getPathProfileMap(PathProfile profile) {
+        MapTag result = new MapTag();
+        result.putObject("script", new ElementTag(profile.path.container.getName()));
+        result.putObject("event", new ElementTag(profile.path.event));
+        result.putObject("samples", new ElementTag(profile.samples));
+        result.putObject("matches", new ElementTag(profile.matches));
+        result.putObject("match_time", profile.match.toMapTag());
+        result.putObject("run_time", profile.run.toMapTag());
+        return result;
+    }
+
+    public static MapTag getEventProfileMap(EventProfile profile) {
+        MapTag result = new MapTag();
+        result.putObject("fires", new ElementTag(profile.fires));
+        result.putObject("samples", new ElementTag(profile.samples));
+        result.putObject("listener_time", profile.listener.toMapTag());
+        return result;
+    }
+
+    /**
+     * Drops all path data (paths are replaced on every script reload anyway), and zeroes event data.
+     */
+    public static void reset() {
+        pathProfiles.clear();
+        for (EventProfile profile : eventProfiles.values()) {
+            profile.reset();
+        }
+    }
+}
@@ -9,12 +9,18 @@ import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.util.Vector;
 
 import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
 
 public class EntityAttachmentHelper {
 
     public static HashMap<UUID, PlayerAttachMap> attachedEntityToData = new HashMap<>();
     public static HashMap<UUID, EntityAttachedToMap> toEntityToData = new HashMap<>();
 
+    public static class VisiblePosition {
+
+        public double x, y, z;
+    }
+
     public static class AttachmentData {
 
         public EntityTag attached, to;
@@ -25,7 +31,7 @@ public class EntityAttachmentHelper {
 
         public Location positionalOffset;
 
-        public HashMap<UUID, Vector> visiblePositions = new HashMap<>();
+        public HashMap<UUID, VisiblePosition> visiblePositions = new HashMap<>();
 
         public boolean syncServer;
 
@@ -35,27 +41,97 @@ public class EntityAttachmentHelper {
 
         public UUID forPlayer;
 
-        public Vector fixedForOffset(Vector offset, float yaw, float pitch) {
-            if (offsetRelative) {
-                return offset.clone().add(EntityAttachmentHelper.fixOffset(positionalOffset.toVector(), -yaw + yawAngleOffset, pitch + pitchAngleOffset));
+        /**
+         * Number of packets sent to viewers on behalf of this attachment, for diagnostics.
+         * Counted from each viewer's network thread.
+         */
+        public final LongAdder packetCount = new LongAdder();
+
+        public double offsetX, offsetY, offsetZ;
+
+        /**
+         * The attached entity's position for a target at a given position and rotation.
+         * Immutable, so it can be shared between the network threads of all viewers.
+         */
+        public record ResolvedPose(double targetX, double targetY, double targetZ, float targetYaw, float targetPitch, double x, double y, double z) {
+
+            public boolean isFor(double targetX, double targetY, double targetZ, float targetYaw, float targetPitch) {
+                return targetX == this.targetX && targetY == this.targetY && targetZ == this.targetZ && targetYaw == this.targetYaw && targetPitch == this.targetPitch;
             }
-            else {
-                return offset.clone().add(positionalOffset.toVector());
+        }
+
+        // Only recalculated when the target's position or rotation changes, rather than once per packet per viewer
+        public volatile ResolvedPose lastPose;
+
+        public void cacheOffset() {
+            if (positionalOffset != null) {
+                offsetX = positionalOffset.getX();
+                offsetY = positionalOffset.getY();
+                offsetZ = positionalOffset.getZ();
             }
+            lastPose = null;
+        }
+
+        /**
+         * Returns the attached entity's position for a target at the given position and rotation.
+         */
+        public ResolvedPose resolvePose(double x, double y, double z, float yaw, float pitch) {
+            ResolvedPose pose = lastPose;
+            if (pose != null && pose.isFor(x, y, z, yaw, pitch)) {
+                return pose;
+            }
+            pose = calculatePose(x, y, z, yaw, pitch);
+            lastPose = pose;
+            return pose;
+        }
+
+        public ResolvedPose calculatePose(double x, double y, double z, float yaw, float pitch) {
+            if (!offsetRelative) {
+                return new ResolvedPose(x, y, z, yaw, pitch, x + offsetX, y + offsetY, z + offsetZ);
+            }
+            // Same rotation as fixOffset, without allocating
+            double yawRad = Math.toRadians(-yaw + yawAngleOffset);
+            double pitchRad = Math.toRadians(pitch + pitchAngleOffset);
+            double cosPitch = Math.cos(pitchRad);
+            double sinPitch = Math.sin(pitchRad);
+            double y1 = (offsetY * cosPitch) - (offsetZ * sinPitch);
+            double z1 = (offsetY * sinPitch) + (offsetZ * cosPitch);
+            double cosYaw = Math.cos(yawRad);
+            double sinYaw = Math.sin(yawRad);
+            return new ResolvedPose(x, y, z, yaw, pitch, x + (offsetX * cosYaw) + (z1 * sinYaw), y + y1, z + (offsetX * -sinYaw) + (z1 * cosYaw));
+        }
+
+        public void setVisiblePosition(UUID player, double x, double y, double z) {
+            VisiblePosition position = visiblePositions.get(player);
+            if (position == null) {
+                position = new VisiblePosition();
+                visiblePositions.put(player, position);
+            }
+            position.x = x;
+            position.y = y;
+            position.z = z;
         }
 
         public void doServerSync() {
             Location goal = to.getLocation();
             if (positionalOffset != null) {
-                goal = fixedForOffset(goal.toVector(), goal.getYaw(), goal.getPitch()).toLocation(goal.getWorld());
+                ResolvedPose pose = resolvePose(goal.getX(), goal.getY(), goal.getZ(), goal.getYaw(), goal.getPitch());
+                goal.setX(pose.x());
+                goal.setY(pose.y());
+                goal.setZ(pose.z());
             }
+            Location attachLoc = attached.getLocation();
             if (noRotate) {
-                Location attachLoc = attached.getLocation();
                 goal.setYaw(attachLoc.getYaw());
                 goal.setPitch(attachLoc.getPitch());
             }
             else if (noPitch) {
-                goal.setPitch(attached.getLocation().getPitch());
+                goal.setPitch(attachLoc.getPitch());
+            }
+            // Skip the teleport if the attached entity is already in place
+            if (goal.getWorld() == attachLoc.getWorld() && goal.getX() == attachLoc.getX() && goal.getY() == attachLoc.getY() && goal.getZ() == attachLoc.getZ()
+                    && goal.getYaw() == attachLoc.getYaw() && goal.getPitch() == attachLoc.getPitch()) {
+                return;
             }
             attached.teleport(goal);
         }
@@ -261,6 +337,7 @@ public class EntityAttachmentHelper {
     public static void registerAttachment(AttachmentData attachment) {
         NetworkInterceptHelper.enable();
         removeAttachment(attachment.attached.getUUID(), attachment.forPlayer);
+        attachment.cacheOffset();
         attachment.startTask();
         EntityAttachedToMap toMap = toEntityToData.get(attachment.to.getUUID());
         if (toMap == null) {
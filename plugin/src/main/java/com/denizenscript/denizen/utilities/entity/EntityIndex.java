@@ -0,0 +1,177 @@
+package com.denizenscript.denizen.utilities.entity;
+
+import com.denizenscript.denizen.Denizen;
+import com.denizenscript.denizen.nms.NMSHandler;
+import com.denizenscript.denizen.utilities.LRUCacheMap;
+import com.google.common.collect.MapMaker;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.event.entity.EntityPortalEvent;
+import org.bukkit.event.entity.EntitySpawnEvent;
+import org.bukkit.event.entity.EntityTeleportEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.world.EntitiesLoadEvent;
+import org.bukkit.event.world.EntitiesUnloadEvent;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Server-wide UUID to entity index, to avoid searching every world when resolving an entity by ID.
+ * Also tracks where entities were when their chunk unloaded, so an unloaded entity can be located without a search.
+ * The index is maintained from events. An entity missing from the index is treated as not loaded, while a stale entry (an entity that was removed,
+ * or replaced by a copy when it changed worlds) falls back to a world search.
+ * Entities are held weakly, so entities removed without any event (picked up items, despawned projectiles, merged orbs, ...) don't stay in memory.
+ */
+public class EntityIndex implements Listener {
+
+    public static class LastKnownLocation {
+
+        public final UUID world;
+
+        public final double x, y, z;
+
+        public LastKnownLocation(Location location) {
+            world = location.getWorld().getUID();
+            x = location.getX();
+            y = location.getY();
+            z = location.getZ();
+        }
+
+        public Location toLocation() {
+            World bukkitWorld = Bukkit.getWorld(world);
+            return bukkitWorld == null ? null : new Location(bukkitWorld, x, y, z);
+        }
+    }
+
+    public static final int MAX_UNLOADED_RECORDS = 100000;
+
+    public static final ConcurrentMap<UUID, Entity> loadedEntities = new MapMaker().weakValues().makeMap();
+
+    public static final Map<UUID, LastKnownLocation> unloadedEntities = LRUCacheMap.synchronizedCache(16, MAX_UNLOADED_RECORDS);
+
+    public static void init() {
+        for (World world : Bukkit.getWorlds()) {
+            for (Entity entity : world.getEntities()) {
+                loadedEntities.put(entity.getUniqueId(), entity);
+            }
+        }
+    }
+
+    /**
+     * Returns the loaded entity for the ID, or null if none is loaded.
+     */
+    public static Entity getEntity(UUID id) {
+        Entity entity = loadedEntities.get(id);
+        if (entity == null) {
+            return null;
+        }
+        if (entity.isValid()) {
+            return entity;
+        }
+        loadedEntities.remove(id, entity);
+        World hint = entity.getWorld();
+        entity = NMSHandler.entityHelper.getEntity(hint, id);
+        if (entity != null) {
+            loadedEntities.put(id, entity);
+            return entity;
+        }
+        for (World world : Bukkit.getWorlds()) {
+            if (world == hint) {
+                continue;
+            }
+            entity = NMSHandler.entityHelper.getEntity(world, id);
+            if (entity != null) {
+                loadedEntities.put(id, entity);
+                return entity;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the location the entity was at when its chunk last unloaded, or null if not known.
+     */
+    public static LastKnownLocation getLastKnownLocation(UUID id) {
+        return unloadedEntities.get(id);
+    }
+
+    public static void track(Entity entity) {
+        UUID id = entity.getUniqueId();
+        loadedEntities.put(id, entity);
+        unloadedEntities.remove(id);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntitiesLoad(EntitiesLoadEvent event) {
+        for (Entity entity : event.getEntities()) {
+            track(entity);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntitiesUnload(EntitiesUnloadEvent event) {
+        for (Entity entity : event.getEntities()) {
+            UUID id = entity.getUniqueId();
+            loadedEntities.remove(id);
+            unloadedEntities.put(id, new LastKnownLocation(entity.getLocation()));
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntitySpawn(EntitySpawnEvent event) {
+        track(event.getEntity());
+    }
+
+    /**
+     * Non-player entities changing worlds are replaced by a copy (with the same ID) in the new world, so track the copy once it exists.
+     */
+    public static void trackWorldChange(Entity entity, Location from, Location to) {
+        if (to == null || to.getWorld() == null || to.getWorld() == from.getWorld() || entity instanceof Player) {
+            return;
+        }
+        UUID id = entity.getUniqueId();
+        World world = to.getWorld();
+        Bukkit.getScheduler().runTask(Denizen.getInstance(), () -> {
+            Entity moved = NMSHandler.entityHelper.getEntity(world, id);
+            if (moved != null) {
+                track(moved);
+            }
+        });
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityTeleport(EntityTeleportEvent event) {
+        trackWorldChange(event.getEntity(), event.getFrom(), event.getTo());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityPortal(EntityPortalEvent event) {
+        trackWorldChange(event.getEntity(), event.getFrom(), event.getTo());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityDeath(EntityDeathEvent event) {
+        if (!(event.getEntity() instanceof Player)) {
+            loadedEntities.remove(event.getEntity().getUniqueId());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        track(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        loadedEntities.remove(event.getPlayer().getUniqueId());
+    }
+}
@@ -0,0 +1,220 @@
+package com.denizenscript.denizen.utilities.entity;
+
+import com.denizenscript.denizen.Denizen;
+import com.denizenscript.denizen.utilities.Utilities;
+import com.denizenscript.denizencore.utilities.debugging.Debug;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.*;
+
+/**
+ * Ticks all 'follow' and 'walk' navigation from a single repeating task, rather than one task per entity.
+ * Path recomputation is staggered across ticks and limited by a per-tick budget.
+ * The version-specific pathing calls are implemented by each NMS module's EntityHelperImpl.
+ */
+public class EntityNavigationManager {
+
+    public static int followInterval = 10;
+
+    public static int pathBudgetPerTick = 20;
+
+    public static double pathReuseDistance = 1;
+
+    public static long pathsComputed = 0;
+
+    public static long budgetOverruns = 0;
+
+    public static final Map<UUID, Follower> followers = new HashMap<>();
+
+    public static final List<Follower> followerList = new ArrayList<>();
+
+    public static final List<Walker> walkers = new ArrayList<>();
+
+    public static BukkitTask task;
+
+    public static long currentTick = 0;
+
+    public static int pathsThisTick = 0;
+
+    public static abstract class Follower {
+
+        public Entity target, follower;
+
+        public double speed, lead, maxRange;
+
+        public boolean allowWander, teleport, hasMax;
+
+        public int locationNearInt;
+
+        public boolean inRadius = false;
+
+        public boolean removed = false;
+
+        public boolean wantsPath = false;
+
+        public long nextRun;
+
+        public Location lastPathTarget;
+
+        /**
+         * Creates and starts a path to the location, returning false if no path was available.
+         */
+        public abstract boolean moveTo(Location location);
+
+        public abstract boolean isNavigationDone();
+
+        public abstract void stopNavigation();
+
+        public abstract void prepareTick();
+
+        public abstract void applySpeed();
+
+        public void remove() {
+            removed = true;
+            followers.remove(follower.getUniqueId(), this);
+        }
+
+        public boolean tryPath(Location targetLocation) {
+            if (lastPathTarget != null && !isNavigationDone() && lastPathTarget.getWorld() == targetLocation.getWorld()
+                    && lastPathTarget.distanceSquared(targetLocation) < pathReuseDistance * pathReuseDistance) {
+                wantsPath = false;
+                return true;
+            }
+            if (pathsThisTick >= pathBudgetPerTick) {
+                budgetOverruns++;
+                wantsPath = true;
+                return false;
+            }
+            pathsThisTick++;
+            pathsComputed++;
+            wantsPath = false;
+            lastPathTarget = moveTo(targetLocation) ? targetLocation : null;
+            return true;
+        }
+
+        /**
+         * Runs one follow update, returning false if the follower should be removed.
+         */
+        public boolean run() {
+            if (!target.isValid() || !follower.isValid()) {
+                return false;
+            }
+            prepareTick();
+            Location targetLocation = target.getLocation();
+            if (hasMax && !Utilities.checkLocation(targetLocation, follower.getLocation(), maxRange)
+                    && !target.isDead() && target.isOnGround()) {
+                if (!inRadius) {
+                    if (teleport) {
+                        follower.teleport(Utilities.getWalkableLocationNear(targetLocation, locationNearInt));
+                        lastPathTarget = null;
+                    }
+                    else {
+                        return false;
+                    }
+                }
+                else if (tryPath(targetLocation)) {
+                    inRadius = false;
+                }
+            }
+            else if (!inRadius && !Utilities.checkLocation(targetLocation, follower.getLocation(), lead)) {
+                tryPath(targetLocation);
+            }
+            else {
+                inRadius = true;
+                wantsPath = false;
+            }
+            if (inRadius && !allowWander) {
+                stopNavigation();
+                lastPathTarget = null;
+            }
+            applySpeed();
+            return true;
+        }
+    }
+
+    public static abstract class Walker {
+
+        public Entity entity;
+
+        public Runnable callback;
+
+        public boolean done = false;
+
+        /**
+         * Runs one walk update, returning false once the walk is complete.
+         */
+        public abstract boolean run();
+    }
+
+    public static void addFollower(Follower follower) {
+        follower.nextRun = currentTick + (followerList.size() % followInterval);
+        Follower old = followers.put(follower.follower.getUniqueId(), follower);
+        if (old != null) {
+            old.removed = true;
+        }
+        followerList.add(follower);
+        ensureRunning();
+    }
+
+    public static void removeFollower(Entity entity) {
+        Follower old = followers.get(entity.getUniqueId());
+        if (old != null) {
+            old.remove();
+        }
+    }
+
+    public static void addWalker(Walker walker) {
+        walkers.add(walker);
+        ensureRunning();
+    }
+
+    public static void ensureRunning() {
+        if (task == null) {
+            task = Bukkit.getScheduler().runTaskTimer(Denizen.getInstance(), EntityNavigationManager::tick, 1, 1);
+        }
+    }
+
+    public static void tick() {
+        currentTick++;
+        pathsThisTick = 0;
+        // Index loops, as follow/walk updates can fire events that start new navigation
+        for (int i = 0; i < followerList.size(); i++) {
+            Follower follower = followerList.get(i);
+            if (follower.removed || (follower.nextRun > currentTick && !(follower.wantsPath && pathsThisTick < pathBudgetPerTick))) {
+                continue;
+            }
+            follower.nextRun = currentTick + followInterval;
+            try {
+                if (!follower.run()) {
+                    follower.remove();
+                }
+            }
+            catch (Throwable ex) {
+                Debug.echoError(ex);
+                follower.remove();
+            }
+        }
+        for (int i = 0; i < walkers.size(); i++) {
+            Walker walker = walkers.get(i);
+            if (walker.done) {
+                continue;
+            }
+            try {
+                walker.done = !walker.run();
+            }
+            catch (Throwable ex) {
+                Debug.echoError(ex);
+                walker.done = true;
+            }
+        }
+        followerList.removeIf(follower -> follower.removed);
+        walkers.removeIf(walker -> walker.done);
+        if (followerList.isEmpty() && walkers.isEmpty()) {
+            task.cancel();
+            task = null;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.denizenscript.denizen.utilities.entity;
+
+import com.denizenscript.denizen.Denizen;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.util.BoundingBox;
+
+import java.util.*;
+
+/**
+ * Shared per-tick view of the entities in each world, bucketed by chunk, for NPC traits that repeatedly search near themselves.
+ * A world's snapshot is built from a single World#getEntities call on the first query for that world in a given tick,
+ * and every other query in the same tick is answered from it, so nearby NPCs share one lookup rather than each searching the world again.
+ * World#getEntities only lists already-loaded entities, so building a snapshot never waits on chunk or entity loading.
+ * Nothing is collected for worlds that no query asks about.
+ */
+public class NearbyEntitySnapshot {
+
+    public static final HashMap<World, Long2ObjectOpenHashMap<List<Entity>>> chunkEntities = new HashMap<>();
+
+    public static long snapshotTick = -1;
+
+    /**
+     * Returns the world's entities bucketed by packed chunk coordinates (see chunkKey), with each entity listed in every chunk its bounding box overlaps.
+     */
+    public static Long2ObjectOpenHashMap<List<Entity>> getWorldSnapshot(World world) {
+        if (snapshotTick != Denizen.currentTick) {
+            chunkEntities.clear();
+            snapshotTick = Denizen.currentTick;
+        }
+        Long2ObjectOpenHashMap<List<Entity>> snapshot = chunkEntities.get(world);
+        if (snapshot == null) {
+            snapshot = new Long2ObjectOpenHashMap<>();
+            for (Entity entity : world.getEntities()) {
+                BoundingBox box = entity.getBoundingBox();
+                int minChunkX = (int) Math.floor(box.getMinX() / 16), maxChunkX = (int) Math.floor(box.getMaxX() / 16);
+                int minChunkZ = (int) Math.floor(box.getMinZ() / 16), maxChunkZ = (int) Math.floor(box.getMaxZ() / 16);
+                for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+                    for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                        snapshot.computeIfAbsent(chunkKey(chunkX, chunkZ), k -> new ArrayList<>()).add(entity);
+                    }
+                }
+            }
+            chunkEntities.put(world, snapshot);
+        }
+        return snapshot;
+    }
+
+    public static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkZ << 32) | (chunkX & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Returns all living (not removed) entities of the given type whose bounding box overlaps the box around the center location.
+     */
+    public static <T extends Entity> List<T> getNearby(Location center, double x, double y, double z, Class<T> type) {
+        if (center.getWorld() == null) {
+            return new ArrayList<>();
+        }
+        BoundingBox box = new BoundingBox(center.getX() - x, center.getY() - y, center.getZ() - z, center.getX() + x, center.getY() + y, center.getZ() + z);
+        return getNearby(center.getWorld(), box, type, null);
+    }
+
+    /**
+     * Returns all living (not removed) entities of the given type near the entity, excluding the entity itself.
+     * Matches Entity#getNearbyEntities: the search box is the entity's own bounding box, expanded by the given amounts.
+     */
+    public static <T extends Entity> List<T> getNearby(Entity center, double x, double y, double z, Class<T> type) {
+        return getNearby(center.getWorld(), center.getBoundingBox().expand(x, y, z), type, center);
+    }
+
+    public static <T extends Entity> List<T> getNearby(World world, BoundingBox box, Class<T> type, Entity exclude) {
+        List<T> result = new ArrayList<>();
+        Long2ObjectOpenHashMap<List<Entity>> snapshot = getWorldSnapshot(world);
+        int minChunkX = (int) Math.floor(box.getMinX() / 16), maxChunkX = (int) Math.floor(box.getMaxX() / 16);
+        int minChunkZ = (int) Math.floor(box.getMinZ() / 16), maxChunkZ = (int) Math.floor(box.getMaxZ() / 16);
+        // An entity whose bounding box crosses a chunk border is listed in each chunk it overlaps
+        Set<Entity> seen = minChunkX == maxChunkX && minChunkZ == maxChunkZ ? null : Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                List<Entity> entities = snapshot.get(chunkKey(chunkX, chunkZ));
+                if (entities == null) {
+                    continue;
+                }
+                for (Entity entity : entities) {
+                    if (entity != exclude && type.isInstance(entity) && !entity.isDead() && entity.getBoundingBox().overlaps(box) && (seen == null || seen.add(entity))) {
+                        result.add(type.cast(entity));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,71 @@
+package com.denizenscript.denizen.utilities.flags;
+
+import com.denizenscript.denizen.Denizen;
+import com.denizenscript.denizencore.utilities.debugging.Debug;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.UUID;
+
+/**
+ * Cleans expired chunk and location flags from loaded chunks over time, rather than all at once as chunks load.
+ * Chunks are queued (cheaply, only if they have any flag expiration due) and then cleaned from a repeating task limited by a per-tick time budget.
+ * A chunk that unloads (or whose world unloads) before its turn is skipped, and will be queued again next time it loads.
+ */
+public class ChunkFlagCleaner {
+
+    public static long budgetNanos = 1_000_000;
+
+    /**
+     * Holds the world's ID rather than the world itself, so a queued chunk never keeps an unloaded world in memory.
+     */
+    public record QueuedChunk(UUID worldId, int x, int z) {
+    }
+
+    public static final ArrayDeque<QueuedChunk> queue = new ArrayDeque<>();
+
+    public static final HashSet<QueuedChunk> queued = new HashSet<>();
+
+    public static BukkitTask task;
+
+    public static void queue(Chunk chunk) {
+        if (!DataPersistenceFlagTracker.isCleanDue(chunk)) {
+            return;
+        }
+        QueuedChunk entry = new QueuedChunk(chunk.getWorld().getUID(), chunk.getX(), chunk.getZ());
+        if (queued.add(entry)) {
+            queue.add(entry);
+            if (task == null) {
+                task = Bukkit.getScheduler().runTaskTimer(Denizen.getInstance(), ChunkFlagCleaner::tick, 1, 1);
+            }
+        }
+    }
+
+    public static void tick() {
+        long start = System.nanoTime();
+        QueuedChunk entry;
+        while ((entry = queue.poll()) != null) {
+            queued.remove(entry);
+            World world = Bukkit.getWorld(entry.worldId);
+            if (world != null && world.isChunkLoaded(entry.x, entry.z)) {
+                try {
+                    new DataPersistenceFlagTracker(world.getChunkAt(entry.x, entry.z)).doTotalClean();
+                }
+                catch (Throwable ex) {
+                    Debug.echoError(ex);
+                }
+            }
+            if (System.nanoTime() - start > budgetNanos) {
+                break;
+            }
+        }
+        if (queue.isEmpty()) {
+            task.cancel();
+            task = null;
+        }
+    }
+}
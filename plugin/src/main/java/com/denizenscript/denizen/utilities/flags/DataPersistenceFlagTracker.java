@@ -6,9 +6,11 @@ import com.denizenscript.denizen.utilities.DataPersistenceHelper;
 import com.denizenscript.denizencore.flags.MapTagBasedFlagTracker;
 import com.denizenscript.denizencore.objects.ObjectTag;
 import com.denizenscript.denizencore.objects.core.MapTag;
+import com.denizenscript.denizencore.objects.core.TimeTag;
 import com.denizenscript.denizencore.utilities.AsciiMatcher;
 import com.denizenscript.denizencore.utilities.CoreUtilities;
 import org.bukkit.NamespacedKey;
+import org.bukkit.persistence.PersistentDataContainer;
 import org.bukkit.persistence.PersistentDataHolder;
 import org.bukkit.persistence.PersistentDataType;
 
@@ -46,8 +48,21 @@ public class DataPersistenceFlagTracker extends MapTagBasedFlagTracker {
             DataPersistenceHelper.removeDenizenKey(holder, keyPrefix + cleanKeyName(key));
             return;
         }
-        if (map.containsKey(expirationString) || map.getObject(valueString) instanceof MapTag) {
-            holder.getPersistentDataContainer().set(expireNeededKey, PersistentDataType.STRING, "true");
+        long expiration = Long.MAX_VALUE;
+        if (map.getObject(valueString) instanceof MapTag) {
+            // Sub-flags may have expirations of their own, which are only searched for during a clean
+            expiration = 0;
+        }
+        else if (map.containsKey(expirationString)) {
+            expiration = getExpirationMillis(map.getObject(expirationString));
+        }
+        if (expiration != Long.MAX_VALUE) {
+            PersistentDataContainer container = holder.getPersistentDataContainer();
+            Long next = container.get(nextExpirationKey, PersistentDataType.LONG);
+            if (next == null || !container.has(expireNeededKey, PersistentDataType.STRING) || expiration < next) {
+                container.set(nextExpirationKey, PersistentDataType.LONG, expiration);
+            }
+            container.set(expireNeededKey, PersistentDataType.STRING, "true");
         }
         DataPersistenceHelper.setDenizenKey(holder, keyPrefix + cleanKeyName(key), map);
     }
@@ -59,12 +74,53 @@ public class DataPersistenceFlagTracker extends MapTagBasedFlagTracker {
 
     public static NamespacedKey expireNeededKey = new NamespacedKey(Denizen.getInstance(), "expire_flag_check_needed");
 
+    /**
+     * The soonest time (in epoch millis) that any flag on the holder might expire, so holders with nothing due can skip the full clean.
+     * Holders from before this key existed only have 'expireNeededKey', and are treated as due.
+     */
+    public static NamespacedKey nextExpirationKey = new NamespacedKey(Denizen.getInstance(), "expire_flag_next");
+
+    public static long getExpirationMillis(ObjectTag expiration) {
+        TimeTag time = expiration instanceof TimeTag ? (TimeTag) expiration : expiration.asType(TimeTag.class, CoreUtilities.noDebugContext);
+        // Unreadable expirations are left for 'isExpired' to judge on the next clean
+        return time == null ? 0 : time.millis();
+    }
+
+    /**
+     * Returns the soonest expiration within a flag map, including any sub-flags.
+     */
+    public long findNextExpiration(MapTag map) {
+        long result = Long.MAX_VALUE;
+        ObjectTag expiration = map.getObject(expirationString);
+        if (expiration != null) {
+            result = getExpirationMillis(expiration);
+        }
+        ObjectTag value = map.getObject(valueString);
+        if (value instanceof MapTag) {
+            for (ObjectTag subFlag : ((MapTag) value).map.values()) {
+                if (subFlag instanceof MapTag) {
+                    result = Math.min(result, findNextExpiration((MapTag) subFlag));
+                }
+            }
+        }
+        return result;
+    }
+
+    public static boolean isCleanDue(PersistentDataHolder holder) {
+        PersistentDataContainer container = holder.getPersistentDataContainer();
+        if (!container.has(expireNeededKey, PersistentDataType.STRING)) {
+            return false;
+        }
+        Long next = container.get(nextExpirationKey, PersistentDataType.LONG);
+        return next == null || next <= System.currentTimeMillis();
+    }
+
     @Override
     public void doTotalClean() {
-        if (!holder.getPersistentDataContainer().has(expireNeededKey, PersistentDataType.STRING)) {
+        if (!isCleanDue(holder)) {
             return;
         }
-        boolean containsAnyToCheck = false;
+        long nextExpiration = Long.MAX_VALUE;
         for (NamespacedKey key : holder.getPersistentDataContainer().getKeys()) {
             if (!key.getNamespace().equals("denizen") || !key.getKey().startsWith("flag_")) {
                 continue;
@@ -75,7 +131,6 @@ public class DataPersistenceFlagTracker extends MapTagBasedFlagTracker {
             }
             if (isExpired(((MapTag) map).getObject(expirationString))) {
                 holder.getPersistentDataContainer().remove(key);
-                containsAnyToCheck = true;
                 continue;
             }
             ObjectTag subValue = ((MapTag) map).getObject(valueString);
@@ -83,11 +138,15 @@ public class DataPersistenceFlagTracker extends MapTagBasedFlagTracker {
                 if (doClean((MapTag) subValue)) {
                     holder.getPersistentDataContainer().set(key, DataPersistenceHelper.PERSISTER_TYPE, map);
                 }
-                containsAnyToCheck = true;
             }
+            nextExpiration = Math.min(nextExpiration, findNextExpiration((MapTag) map));
         }
-        if (!containsAnyToCheck) {
+        if (nextExpiration == Long.MAX_VALUE) {
             holder.getPersistentDataContainer().remove(expireNeededKey);
+            holder.getPersistentDataContainer().remove(nextExpirationKey);
+        }
+        else {
+            holder.getPersistentDataContainer().set(nextExpirationKey, PersistentDataType.LONG, nextExpiration);
         }
     }
 }
@@ -2,12 +2,14 @@ package com.denizenscript.denizen.utilities.implementation;
 
 import com.denizenscript.denizen.Denizen;
 import com.denizenscript.denizen.utilities.Settings;
+import com.denizenscript.denizen.events.BukkitScriptEvent;
 import com.denizenscript.denizen.events.bukkit.ScriptReloadEvent;
 import com.denizenscript.denizen.objects.*;
 import com.denizenscript.denizen.scripts.containers.core.*;
 import com.denizenscript.denizen.tags.BukkitTagContext;
 import com.denizenscript.denizen.utilities.Utilities;
 import com.denizenscript.denizen.utilities.debugging.DebugConsoleSender;
+import com.denizenscript.denizen.utilities.debugging.ScriptEventProfiler;
 import com.denizenscript.denizen.utilities.flags.PlayerFlagHandler;
 import com.denizenscript.denizencore.objects.core.VectorObject;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
@@ -66,6 +68,8 @@ public class DenizenCoreImplementation implements DenizenImplementation {
         // Remove all recipes added by Denizen item scripts
         ItemScriptHelper.removeDenizenRecipes();
         ItemTag.matchHelperCache.clear();
+        ScriptEventProfiler.pathProfiles.clear();
+        BukkitScriptEvent.automaticSwitches.clear();
         // Remove all registered commands added by Denizen command scripts
         CommandScriptHelper.removeDenizenCommands();
         // Remove all registered economy scripts if needed
@@ -78,6 +82,7 @@ public class DenizenCoreImplementation implements DenizenImplementation {
 
     @Override
     public void onScriptReload() {
+        BukkitScriptEvent.unregisterStaleHandlers();
         Depends.setupEconomy();
         Bukkit.getServer().getPluginManager().callEvent(new ScriptReloadEvent());
     }
@@ -0,0 +1,105 @@
+package com.denizenscript.denizen.utilities.inventory;
+
+import com.denizenscript.denizen.objects.ItemTag;
+import com.denizenscript.denizen.scripts.containers.core.ItemScriptHelper;
+import com.denizenscript.denizen.utilities.LRUCacheMap;
+import com.denizenscript.denizencore.utilities.CoreUtilities;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.*;
+
+/**
+ * An item matcher that is pre-processed once, for repeated checks against many items (such as every slot of an inventory).
+ * Simple matchers (a plain material name, item script name, or a list of those) are checked directly against the ItemStack,
+ * testing the material before item script identity, without constructing an ItemTag or re-parsing the matcher per item.
+ * Anything more complex falls back to the standard advanced matcher logic.
+ */
+public class CompiledItemMatcher {
+
+    // Names that have special meaning to the item matcher, and so can't be treated as plain material/script names
+    public static final Set<String> specialNames = new HashSet<>(Arrays.asList("potion", "script", "material", "block", "item"));
+
+    public static final int MAX_CACHE = 1024;
+
+    /**
+     * Least-recently-used cache of compiled matchers. Synchronized, as matchers can be compiled from async tag contexts.
+     */
+    public static final Map<String, CompiledItemMatcher> cache = LRUCacheMap.synchronizedCache(64, MAX_CACHE);
+
+    public static CompiledItemMatcher compile(String matcher) {
+        CompiledItemMatcher result = cache.get(matcher);
+        if (result != null) {
+            return result;
+        }
+        result = new CompiledItemMatcher(matcher);
+        cache.put(matcher, result);
+        return result;
+    }
+
+    public final String matcher;
+
+    /**
+     * The materials that a non-script item may have to match, or null if this matcher is not simple.
+     */
+    public EnumSet<Material> materials;
+
+    /**
+     * The lowercase item script names that a script item may have to match, or null if this matcher is not simple.
+     */
+    public HashSet<String> scriptNames;
+
+    public CompiledItemMatcher(String matcher) {
+        this.matcher = matcher;
+        List<String> parts = CoreUtilities.split(CoreUtilities.toLowerCase(matcher), '|');
+        EnumSet<Material> materials = EnumSet.noneOf(Material.class);
+        HashSet<String> scriptNames = new HashSet<>();
+        for (String part : parts) {
+            if (!isSimplePart(part)) {
+                return;
+            }
+            Material material = Material.getMaterial(CoreUtilities.toUpperCase(part));
+            if (material != null) {
+                materials.add(material);
+            }
+            scriptNames.add(part);
+        }
+        this.materials = materials;
+        this.scriptNames = scriptNames;
+    }
+
+    public static boolean isSimplePart(String part) {
+        if (part.isEmpty() || specialNames.contains(part)) {
+            return false;
+        }
+        for (int i = 0; i < part.length(); i++) {
+            char c = part.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '_')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isSimple() {
+        return scriptNames != null;
+    }
+
+    public boolean matches(ItemStack item) {
+        if (item == null) {
+            return false;
+        }
+        if (scriptNames == null) {
+            return new ItemTag(item).tryAdvancedMatcher(matcher);
+        }
+        boolean materialMatch = materials.contains(item.getType());
+        if (!item.hasItemMeta()) {
+            return materialMatch;
+        }
+        String scriptName = ItemScriptHelper.getItemScriptNameText(item);
+        if (scriptName == null) {
+            return materialMatch;
+        }
+        return scriptNames.contains(CoreUtilities.toLowerCase(scriptName));
+    }
+}
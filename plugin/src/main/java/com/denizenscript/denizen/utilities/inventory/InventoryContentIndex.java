@@ -0,0 +1,182 @@
+package com.denizenscript.denizen.utilities.inventory;
+
+import com.denizenscript.denizen.Denizen;
+import com.denizenscript.denizen.scripts.containers.core.ItemScriptHelper;
+import com.denizenscript.denizen.utilities.LRUCacheMap;
+import com.denizenscript.denizencore.utilities.CoreUtilities;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.bukkit.Material;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityPickupItemEvent;
+import org.bukkit.event.inventory.*;
+import org.bukkit.event.player.PlayerDropItemEvent;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.*;
+
+/**
+ * Optional per-inventory summary of which slots hold which materials and item scripts, for repeated matcher-based inventory tags.
+ * Summaries are only ever kept for the current server tick, and are also dropped early by inventory change events,
+ * by changes made through InventoryTag, and by Denizen commands that change inventories directly.
+ * Changes made within the same tick by other plugins or by direct Bukkit API calls can't be seen, which is why this is opt-in.
+ */
+public class InventoryContentIndex implements Listener {
+
+    public static boolean enabled = false;
+
+    public static class Summary {
+
+        public final EnumMap<Material, IntArrayList> materialSlots = new EnumMap<>(Material.class);
+
+        public final HashMap<String, IntArrayList> scriptSlots = new HashMap<>();
+
+        public final ItemStack[] contents;
+
+        public Summary(ItemStack[] contents) {
+            this.contents = contents;
+            for (int i = 0; i < contents.length; i++) {
+                ItemStack item = contents[i];
+                if (item == null || item.getType().isAir()) {
+                    continue;
+                }
+                String scriptName = item.hasItemMeta() ? ItemScriptHelper.getItemScriptNameText(item) : null;
+                if (scriptName != null) {
+                    scriptSlots.computeIfAbsent(CoreUtilities.toLowerCase(scriptName), k -> new IntArrayList()).add(i);
+                }
+                else {
+                    materialSlots.computeIfAbsent(item.getType(), k -> new IntArrayList()).add(i);
+                }
+            }
+        }
+
+        public void collectSlots(CompiledItemMatcher matcher, List<IntArrayList> output) {
+            for (Material material : matcher.materials) {
+                IntArrayList slots = materialSlots.get(material);
+                if (slots != null) {
+                    output.add(slots);
+                }
+            }
+            for (String name : matcher.scriptNames) {
+                IntArrayList slots = scriptSlots.get(name);
+                if (slots != null) {
+                    output.add(slots);
+                }
+            }
+        }
+
+        /**
+         * Returns the total quantity of matching items, stopping early once 'stopAt' is reached.
+         */
+        public int quantity(CompiledItemMatcher matcher, int stopAt) {
+            List<IntArrayList> lists = new ArrayList<>(2);
+            collectSlots(matcher, lists);
+            int found = 0;
+            for (IntArrayList slots : lists) {
+                for (int i = 0; i < slots.size(); i++) {
+                    found += contents[slots.getInt(i)].getAmount();
+                    if (found >= stopAt) {
+                        return found;
+                    }
+                }
+            }
+            return found;
+        }
+
+        /**
+         * Returns all matching slot indices (zero-based), in ascending order.
+         */
+        public int[] findAll(CompiledItemMatcher matcher) {
+            List<IntArrayList> lists = new ArrayList<>(2);
+            collectSlots(matcher, lists);
+            if (lists.isEmpty()) {
+                return new int[0];
+            }
+            if (lists.size() == 1) {
+                return lists.get(0).toIntArray();
+            }
+            IntArrayList merged = new IntArrayList();
+            for (IntArrayList slots : lists) {
+                merged.addAll(slots);
+            }
+            int[] result = merged.toIntArray();
+            Arrays.sort(result);
+            return result;
+        }
+    }
+
+    public static final int MAX_SUMMARIES = 256;
+
+    /**
+     * Least-recently-used summaries for the current tick, by inventory (Bukkit inventories are equal when they wrap the same underlying container).
+     * Synchronized, as inventory tags can be read from async tag contexts.
+     */
+    public static final Map<Inventory, Summary> summaries = LRUCacheMap.synchronizedCache(16, MAX_SUMMARIES);
+
+    public static long summaryTick = -1;
+
+    /**
+     * Returns the summary for the inventory, or null if indexing isn't enabled or isn't usable for the matcher.
+     */
+    public static Summary getSummary(Inventory inventory, CompiledItemMatcher matcher) {
+        if (!enabled || inventory == null || !matcher.isSimple()) {
+            return null;
+        }
+        synchronized (summaries) {
+            if (summaryTick != Denizen.currentTick) {
+                summaries.clear();
+                summaryTick = Denizen.currentTick;
+            }
+            Summary summary = summaries.get(inventory);
+            if (summary == null) {
+                summary = new Summary(inventory.getContents());
+                summaries.put(inventory, summary);
+            }
+            return summary;
+        }
+    }
+
+    public static void invalidate(Inventory inventory) {
+        if (inventory != null && !summaries.isEmpty()) {
+            summaries.remove(inventory);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInventoryClick(InventoryClickEvent event) {
+        invalidate(event.getView().getTopInventory());
+        invalidate(event.getView().getBottomInventory());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInventoryDrag(InventoryDragEvent event) {
+        invalidate(event.getView().getTopInventory());
+        invalidate(event.getView().getBottomInventory());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInventoryMoveItem(InventoryMoveItemEvent event) {
+        invalidate(event.getSource());
+        invalidate(event.getDestination());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInventoryPickupItem(InventoryPickupItemEvent event) {
+        invalidate(event.getInventory());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityPickupItem(EntityPickupItemEvent event) {
+        if (event.getEntity() instanceof InventoryHolder holder) {
+            invalidate(holder.getInventory());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerDropItem(PlayerDropItemEvent event) {
+        invalidate(event.getPlayer().getInventory());
+    }
+}
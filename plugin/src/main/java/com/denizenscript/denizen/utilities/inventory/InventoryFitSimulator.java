@@ -0,0 +1,103 @@
+package com.denizenscript.denizen.utilities.inventory;
+
+import org.bukkit.inventory.ItemStack;
+
+import java.util.List;
+
+/**
+ * Simulates adding items to a snapshot of inventory contents, following the same stack-merging rules as InventoryTag.addWithLeftovers
+ * (fill similar partial stacks up to the item's max stack size, then empty slots), without creating or modifying any real inventory.
+ * The given contents are never modified: simulated additions only change this object's tracked slot amounts.
+ */
+public class InventoryFitSimulator {
+
+    /**
+     * The item each slot holds (or null if empty). Slots filled by the simulation reference the added item.
+     */
+    public final ItemStack[] slotItems;
+
+    /**
+     * The simulated amount in each slot, 0 if empty.
+     */
+    public final int[] amounts;
+
+    public InventoryFitSimulator(ItemStack[] contents) {
+        slotItems = new ItemStack[contents.length];
+        amounts = new int[contents.length];
+        for (int i = 0; i < contents.length; i++) {
+            ItemStack item = contents[i];
+            if (item != null && !item.getType().isAir()) {
+                slotItems[i] = item;
+                amounts[i] = item.getAmount();
+            }
+        }
+    }
+
+    public static int getMaxStack(ItemStack item) {
+        return Math.max(1, item.getMaxStackSize());
+    }
+
+    /**
+     * Returns how many of the item could be added (capped at 'limit'), without changing the simulated contents.
+     */
+    public int countFit(ItemStack item, int limit) {
+        if (item == null || item.getType().isAir()) {
+            return limit;
+        }
+        int max = getMaxStack(item);
+        long room = 0;
+        for (int i = 0; i < slotItems.length; i++) {
+            ItemStack slotItem = slotItems[i];
+            if (slotItem == null) {
+                room += max;
+            }
+            else if (amounts[i] < max && slotItem.isSimilar(item)) {
+                room += max - amounts[i];
+            }
+            if (room >= limit) {
+                return limit;
+            }
+        }
+        return (int) room;
+    }
+
+    /**
+     * Adds the given amount of the item to the simulated contents, returning how many didn't fit.
+     */
+    public int add(ItemStack item, int amount) {
+        if (item == null || item.getType().isAir() || amount <= 0) {
+            return 0;
+        }
+        int max = getMaxStack(item);
+        for (int i = 0; i < slotItems.length && amount > 0; i++) {
+            ItemStack slotItem = slotItems[i];
+            if (slotItem != null && amounts[i] < max && slotItem.isSimilar(item)) {
+                int moved = Math.min(amount, max - amounts[i]);
+                amounts[i] += moved;
+                amount -= moved;
+            }
+        }
+        for (int i = 0; i < slotItems.length && amount > 0; i++) {
+            if (slotItems[i] == null) {
+                int moved = Math.min(amount, max);
+                slotItems[i] = item;
+                amounts[i] = moved;
+                amount -= moved;
+            }
+        }
+        return amount;
+    }
+
+    /**
+     * Returns whether all the items (at their own amounts) fit together, added in order.
+     * This modifies the simulated contents.
+     */
+    public boolean addAll(List<ItemStack> items) {
+        for (ItemStack item : items) {
+            if (add(item, item.getAmount()) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
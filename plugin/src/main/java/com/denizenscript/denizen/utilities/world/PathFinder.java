@@ -1,37 +1,367 @@
 package com.denizenscript.denizen.utilities.world;
 
+import com.denizenscript.denizen.Denizen;
 import com.denizenscript.denizen.objects.LocationTag;
+import com.denizenscript.denizencore.utilities.debugging.Debug;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import net.citizensnpcs.api.astar.AStarMachine;
 import net.citizensnpcs.api.astar.pathfinder.*;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.*;
+import org.bukkit.event.entity.EntityChangeBlockEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.world.StructureGrowEvent;
+import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.util.Vector;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
- * TODO: Potentially a separate implementation?
+ * Path finding for 'find_path' and the 'findpath' command, using Citizens' A* implementation.
+ * Recent results are cached until the cache time runs out, or until a block change event fires for any chunk the path passes through
+ * (or the start/destination chunk of a failed search). Block changes that fire no event (commands, schematics, other plugins' direct edits) only expire with the cache time.
+ * Requests from 'getPathAsync' are run a limited number of A* iterations per tick from a shared task, rather than all at once.
+ * All path finding runs on the main thread, as the A* block source reads the world directly.
  */
-public class PathFinder {
+public class PathFinder implements Listener {
 
     public static AStarMachine ASTAR = AStarMachine.createWithDefaultStorage();
 
-    public static List<LocationTag> getPath(Location start, Location dest) {
-        VectorGoal goal = new VectorGoal(dest, 1);
-        Path plan = (Path) ASTAR.runFully(goal,
-                new VectorNode(goal, start, new ChunkBlockSource(start, 100), new MinecraftBlockExaminer()),
-                50000);
+    public static final int MAX_ITERATIONS = 50000;
+
+    public static int iterationsPerTick = 5000;
+
+    public static final int MAX_CACHE = 256;
+
+    public static final long CACHE_TICKS = 20 * 10;
+
+    public record PathKey(World world, double startX, double startY, double startZ, double destX, double destY, double destZ) {
+
+        public PathKey(Location start, Location dest) {
+            this(start.getWorld(), start.getX(), start.getY(), start.getZ(), dest.getX(), dest.getY(), dest.getZ());
+        }
+    }
+
+    public static class CachedPath {
+
+        public final List<Vector> points;
+
+        public final long[] chunks;
+
+        public final long time;
+
+        public CachedPath(List<Vector> points, long[] chunks) {
+            this.points = points;
+            this.chunks = chunks;
+            this.time = Denizen.currentTick;
+        }
+    }
+
+    public static final LinkedHashMap<PathKey, CachedPath> cache = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<PathKey, CachedPath> eldest) {
+            if (size() > MAX_CACHE) {
+                unindex(eldest.getKey(), eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
+
+    /**
+     * For each world, the cached paths that pass through each chunk.
+     */
+    public static final HashMap<World, Long2ObjectOpenHashMap<Set<PathKey>>> pathsByChunk = new HashMap<>();
+
+    public static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    public static void unindex(PathKey key, CachedPath path) {
+        Long2ObjectOpenHashMap<Set<PathKey>> chunks = pathsByChunk.get(key.world());
+        if (chunks == null) {
+            return;
+        }
+        for (long chunk : path.chunks) {
+            Set<PathKey> keys = chunks.get(chunk);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                chunks.remove(chunk);
+            }
+        }
+        if (chunks.isEmpty()) {
+            pathsByChunk.remove(key.world());
+        }
+    }
+
+    public static void removeCached(PathKey key) {
+        CachedPath path = cache.remove(key);
+        if (path != null) {
+            unindex(key, path);
+        }
+    }
+
+    public static void addCached(PathKey key, List<Vector> points, Location start, Location dest) {
+        LongOpenHashSet chunks = new LongOpenHashSet();
+        chunks.add(chunkKey(start.getBlockX() >> 4, start.getBlockZ() >> 4));
+        chunks.add(chunkKey(dest.getBlockX() >> 4, dest.getBlockZ() >> 4));
+        for (Vector point : points) {
+            chunks.add(chunkKey(point.getBlockX() >> 4, point.getBlockZ() >> 4));
+        }
+        removeCached(key);
+        CachedPath path = new CachedPath(points, chunks.toLongArray());
+        cache.put(key, path);
+        Long2ObjectOpenHashMap<Set<PathKey>> worldChunks = pathsByChunk.computeIfAbsent(key.world(), w -> new Long2ObjectOpenHashMap<>());
+        for (long chunk : path.chunks) {
+            worldChunks.computeIfAbsent(chunk, c -> new HashSet<>()).add(key);
+        }
+    }
+
+    public static List<Vector> getCached(PathKey key) {
+        CachedPath path = cache.get(key);
+        if (path == null) {
+            return null;
+        }
+        if (Denizen.currentTick - path.time > CACHE_TICKS) {
+            removeCached(key);
+            return null;
+        }
+        return path.points;
+    }
+
+    public static List<LocationTag> toLocations(World world, List<Vector> points) {
+        List<LocationTag> path = new ArrayList<>(points.size());
+        for (Vector v : points) {
+            path.add(new LocationTag(world, v.getX(), v.getY(), v.getZ()));
+        }
+        return path;
+    }
+
+    public static List<Vector> toPoints(Path plan) {
+        List<Vector> points = new ArrayList<>();
         if (plan == null || plan.isComplete()) {
-            return new ArrayList<>();
+            return points;
+        }
+        while (!plan.isComplete()) {
+            points.add(plan.getCurrentVector());
+            plan.update(null);
+        }
+        return points;
+    }
+
+    public static List<LocationTag> getPath(Location start, Location dest) {
+        PathKey key = new PathKey(start, dest);
+        List<Vector> points = getCached(key);
+        if (points == null) {
+            VectorGoal goal = new VectorGoal(dest, 1);
+            Path plan = (Path) ASTAR.runFully(goal,
+                    new VectorNode(goal, start, new ChunkBlockSource(start, 100), new MinecraftBlockExaminer()),
+                    MAX_ITERATIONS);
+            points = toPoints(plan);
+            addCached(key, points, start, dest);
+        }
+        return toLocations(start.getWorld(), points);
+    }
+
+    public static class PathJob {
+
+        public PathKey key;
+
+        public Location start, dest;
+
+        public AStarMachine.AStarState state;
+
+        public int iterations = 0;
+
+        public CompletableFuture<List<LocationTag>> future = new CompletableFuture<>();
+    }
+
+    public static final List<PathJob> jobs = new ArrayList<>();
+
+    public static final HashMap<PathKey, PathJob> jobsByKey = new HashMap<>();
+
+    public static BukkitTask task;
+
+    /**
+     * Finds the path over the next ticks (or immediately, if cached), completing the future on the main thread.
+     * Identical requests that are already running share the same future.
+     */
+    public static CompletableFuture<List<LocationTag>> getPathAsync(Location start, Location dest) {
+        PathKey key = new PathKey(start, dest);
+        List<Vector> points = getCached(key);
+        if (points != null) {
+            return CompletableFuture.completedFuture(toLocations(start.getWorld(), points));
+        }
+        PathJob job = jobsByKey.get(key);
+        if (job != null) {
+            return job.future;
         }
-        else {
-            List<LocationTag> path = new ArrayList<>();
-            while (!plan.isComplete()) {
-                Vector v = plan.getCurrentVector();
-                path.add(new LocationTag(start.getWorld(), v.getX(), v.getY(), v.getZ()));
-                plan.update(null);
+        job = new PathJob();
+        job.key = key;
+        job.start = start.clone();
+        job.dest = dest.clone();
+        VectorGoal goal = new VectorGoal(job.dest, 1);
+        job.state = ASTAR.getStateFor(goal, new VectorNode(goal, job.start, new ChunkBlockSource(job.start, 100), new MinecraftBlockExaminer()));
+        jobs.add(job);
+        jobsByKey.put(key, job);
+        if (task == null) {
+            task = Bukkit.getScheduler().runTaskTimer(Denizen.getInstance(), PathFinder::tick, 1, 1);
+        }
+        return job.future;
+    }
+
+    public static void finish(PathJob job, Path plan) {
+        jobsByKey.remove(job.key);
+        List<Vector> points = toPoints(plan);
+        addCached(job.key, points, job.start, job.dest);
+        job.future.complete(toLocations(job.start.getWorld(), points));
+    }
+
+    public static void tick() {
+        int budget = iterationsPerTick;
+        // Index loop, as completing a future can run script code that requests another path
+        for (int i = 0; i < jobs.size() && budget > 0; i++) {
+            PathJob job = jobs.get(i);
+            int slice = Math.min(budget, MAX_ITERATIONS - job.iterations);
+            budget -= slice;
+            job.iterations += slice;
+            try {
+                Path plan = (Path) ASTAR.run(job.state, slice);
+                if (plan != null || job.iterations >= MAX_ITERATIONS) {
+                    jobs.remove(i--);
+                    finish(job, plan);
+                }
+            }
+            catch (Throwable ex) {
+                Debug.echoError(ex);
+                jobs.remove(i--);
+                jobsByKey.remove(job.key);
+                job.future.complete(new ArrayList<>());
+            }
+        }
+        if (jobs.isEmpty()) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    public static void blockChanged(Block block) {
+        Long2ObjectOpenHashMap<Set<PathKey>> chunks = pathsByChunk.get(block.getWorld());
+        if (chunks == null) {
+            return;
+        }
+        Set<PathKey> keys = chunks.get(chunkKey(block.getX() >> 4, block.getZ() >> 4));
+        if (keys != null) {
+            for (PathKey key : new ArrayList<>(keys)) {
+                removeCached(key);
+            }
+        }
+    }
+
+    public static void blocksChanged(List<Block> blocks) {
+        if (pathsByChunk.isEmpty()) {
+            return;
+        }
+        for (Block block : blocks) {
+            blockChanged(block);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBreak(BlockBreakEvent event) {
+        if (!pathsByChunk.isEmpty()) {
+            blockChanged(event.getBlock());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        if (!pathsByChunk.isEmpty()) {
+            blockChanged(event.getBlock());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBurn(BlockBurnEvent event) {
+        if (!pathsByChunk.isEmpty()) {
+            blockChanged(event.getBlock());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockFade(BlockFadeEvent event) {
+        if (!pathsByChunk.isEmpty()) {
+            blockChanged(event.getBlock());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockForm(BlockFormEvent event) {
+        if (!pathsByChunk.isEmpty()) {
+            blockChanged(event.getBlock());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockFromTo(BlockFromToEvent event) {
+        if (!pathsByChunk.isEmpty()) {
+            blockChanged(event.getToBlock());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent event) {
+        blocksChanged(event.blockList());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent event) {
+        blocksChanged(event.blockList());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonExtend(BlockPistonExtendEvent event) {
+        if (!pathsByChunk.isEmpty()) {
+            blockChanged(event.getBlock());
+            for (Block block : event.getBlocks()) {
+                blockChanged(block);
+                blockChanged(block.getRelative(event.getDirection()));
+            }
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonRetract(BlockPistonRetractEvent event) {
+        if (!pathsByChunk.isEmpty()) {
+            blockChanged(event.getBlock());
+            for (Block block : event.getBlocks()) {
+                blockChanged(block);
+                blockChanged(block.getRelative(event.getDirection()));
+            }
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityChangeBlock(EntityChangeBlockEvent event) {
+        if (!pathsByChunk.isEmpty()) {
+            blockChanged(event.getBlock());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onStructureGrow(StructureGrowEvent event) {
+        if (!pathsByChunk.isEmpty()) {
+            for (BlockState state : event.getBlocks()) {
+                blockChanged(state.getBlock());
             }
-            return path;
         }
     }
 }
@@ -8,6 +8,7 @@ import com.denizenscript.denizen.nms.v1_17.ReflectionMappingsInfo;
 import com.denizenscript.denizen.nms.v1_17.impl.jnbt.CompoundTagImpl;
 import com.denizenscript.denizen.objects.EntityTag;
 import com.denizenscript.denizen.utilities.Utilities;
+import com.denizenscript.denizen.utilities.entity.EntityNavigationManager;
 import com.denizenscript.denizencore.utilities.ReflectionHelper;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
 import net.minecraft.core.BlockPos;
@@ -53,8 +54,6 @@ import org.bukkit.craftbukkit.v1_17_R1.event.CraftEventFactory;
 import org.bukkit.craftbukkit.v1_17_R1.inventory.CraftItemStack;
 import org.bukkit.entity.*;
 import org.bukkit.event.entity.EntityDamageEvent;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.util.BoundingBox;
 import org.bukkit.util.Vector;
 
@@ -164,17 +163,12 @@ public class EntityHelperImpl extends EntityHelper {
         Entity Movement
      */
 
-    private final static Map<UUID, BukkitTask> followTasks = new HashMap<>();
-
     @Override
     public void stopFollowing(Entity follower) {
         if (follower == null) {
             return;
         }
-        UUID uuid = follower.getUniqueId();
-        if (followTasks.containsKey(uuid)) {
-            followTasks.get(uuid).cancel();
-        }
+        EntityNavigationManager.removeFollower(follower);
     }
 
     @Override
@@ -200,62 +194,51 @@ public class EntityHelperImpl extends EntityHelper {
         final Mob nmsFollower = (Mob) nmsEntityFollower;
         final PathNavigation followerNavigation = nmsFollower.getNavigation();
 
-        UUID uuid = follower.getUniqueId();
-
-        if (followTasks.containsKey(uuid)) {
-            followTasks.get(uuid).cancel();
-        }
+        EntityNavigationManager.Follower navigationFollower = new EntityNavigationManager.Follower() {
 
-        final int locationNearInt = (int) Math.floor(lead);
-        final boolean hasMax = maxRange > lead;
+            @Override
+            public boolean moveTo(Location location) {
+                Path path = followerNavigation.createPath(location.getX(), location.getY(), location.getZ(), 0);
+                if (path == null) {
+                    return false;
+                }
+                followerNavigation.moveTo(path, 1D);
+                followerNavigation.setSpeedModifier(2D);
+                return true;
+            }
 
-        followTasks.put(follower.getUniqueId(), new BukkitRunnable() {
+            @Override
+            public boolean isNavigationDone() {
+                return followerNavigation.isDone();
+            }
 
-            private boolean inRadius = false;
+            @Override
+            public void stopNavigation() {
+                followerNavigation.stop();
+            }
 
-            public void run() {
-                if (!target.isValid() || !follower.isValid()) {
-                    this.cancel();
-                }
+            @Override
+            public void prepareTick() {
                 followerNavigation.setSpeedModifier(2D);
-                Location targetLocation = target.getLocation();
-                Path path;
-
-                if (hasMax && !Utilities.checkLocation(targetLocation, follower.getLocation(), maxRange)
-                        && !target.isDead() && target.isOnGround()) {
-                    if (!inRadius) {
-                        if (teleport) {
-                            follower.teleport(Utilities.getWalkableLocationNear(targetLocation, locationNearInt));
-                        }
-                        else {
-                            cancel();
-                        }
-                    }
-                    else {
-                        inRadius = false;
-                        path = followerNavigation.createPath(targetLocation.getX(), targetLocation.getY(), targetLocation.getZ(), 0);
-                        if (path != null) {
-                            followerNavigation.moveTo(path, 1D);
-                            followerNavigation.setSpeedModifier(2D);
-                        }
-                    }
-                }
-                else if (!inRadius && !Utilities.checkLocation(targetLocation, follower.getLocation(), lead)) {
-                    path = followerNavigation.createPath(targetLocation.getX(), targetLocation.getY(), targetLocation.getZ(), 0);
-                    if (path != null) {
-                        followerNavigation.moveTo(path, 1D);
-                        followerNavigation.setSpeedModifier(2D);
-                    }
-                }
-                else {
-                    inRadius = true;
-                }
-                if (inRadius && !allowWander) {
-                    followerNavigation.stop();
+            }
+
+            @Override
+            public void applySpeed() {
+                if (nmsFollower.getAttribute(Attributes.MOVEMENT_SPEED).getBaseValue() != speed) {
+                    nmsFollower.getAttribute(Attributes.MOVEMENT_SPEED).setBaseValue(speed);
                 }
-                nmsFollower.getAttribute(Attributes.MOVEMENT_SPEED).setBaseValue(speed);
             }
-        }.runTaskTimer(NMSHandler.getJavaPlugin(), 0, 10));
+        };
+        navigationFollower.target = target;
+        navigationFollower.follower = follower;
+        navigationFollower.speed = speed;
+        navigationFollower.lead = lead;
+        navigationFollower.maxRange = maxRange;
+        navigationFollower.allowWander = allowWander;
+        navigationFollower.teleport = teleport;
+        navigationFollower.hasMax = maxRange > lead;
+        navigationFollower.locationNearInt = (int) Math.floor(lead);
+        EntityNavigationManager.addFollower(navigationFollower);
     }
 
     @Override
@@ -281,6 +264,7 @@ public class EntityHelperImpl extends EntityHelper {
             }
         }
         path = entityNavigation.createPath(location.getX(), location.getY(), location.getZ(), 1);
+        EntityNavigationManager.pathsComputed++;
         if (path != null) {
             nmsEntity.goalSelector.enableControlFlag(Goal.Flag.MOVE);
             entityNavigation.moveTo(path, 1D);
@@ -289,15 +273,14 @@ public class EntityHelperImpl extends EntityHelper {
             if (speed != null) {
                 nmsEntity.getAttribute(Attributes.MOVEMENT_SPEED).setBaseValue(speed);
             }
-            new BukkitRunnable() {
+            EntityNavigationManager.Walker walker = new EntityNavigationManager.Walker() {
                 @Override
-                public void run() {
+                public boolean run() {
                     if (!entity.isValid()) {
                         if (callback != null) {
                             callback.run();
                         }
-                        cancel();
-                        return;
+                        return false;
                     }
                     if (aiDisabled && entity instanceof Wolf) {
                         ((Wolf) entity).setAngry(false);
@@ -312,10 +295,14 @@ public class EntityHelperImpl extends EntityHelper {
                         if (aiDisabled) {
                             entity.setAI(false);
                         }
-                        cancel();
+                        return false;
                     }
+                    return true;
                 }
-            }.runTaskTimer(NMSHandler.getJavaPlugin(), 1, 1);
+            };
+            walker.entity = entity;
+            walker.callback = callback;
+            EntityNavigationManager.addWalker(walker);
         }
         //if (!Utilities.checkLocation(location, entity.getLocation(), 20)) {
         // TODO: generate waypoints to the target location?
@@ -338,6 +325,13 @@ public class EntityHelperImpl extends EntityHelper {
         return output;
     }
 
+    @Override
+    public boolean isSeenBy(Entity entity, Player player) {
+        ChunkMap tracker = ((ServerLevel) ((CraftEntity) entity).getHandle().level).getChunkProvider().chunkMap;
+        ChunkMap.TrackedEntity entityTracker = tracker.G.get(entity.getEntityId());
+        return entityTracker != null && entityTracker.seenBy.contains(((CraftPlayer) player).getHandle().connection);
+    }
+
     /*
         Hide Entity
      */
@@ -16,6 +16,7 @@ import com.denizenscript.denizen.objects.LocationTag;
 import com.denizenscript.denizen.objects.PlayerTag;
 import com.denizenscript.denizen.scripts.commands.entity.*;
 import com.denizenscript.denizen.scripts.commands.player.DisguiseCommand;
+import com.denizenscript.denizen.scripts.containers.core.CommandScriptHelper;
 import com.denizenscript.denizen.utilities.FormattedTextHelper;
 import com.denizenscript.denizen.utilities.Settings;
 import com.denizenscript.denizen.utilities.blocks.ChunkCoordinate;
@@ -292,6 +293,7 @@ public class DenizenNetworkManagerImpl extends Connection {
         }
         packetsSent++;
         if (processAttachToForPacket(packet)
+            || processCommandTreeForPacket(packet)
             || processHiddenEntitiesForPacket(packet)
             || processPacketHandlerForPacket(packet)
             || processMirrorForPacket(packet)
@@ -792,7 +794,7 @@ public class DenizenNetworkManagerImpl extends Connection {
         return true;
     }
 
-    public void tryProcessMovePacketForAttach(ClientboundMoveEntityPacket packet, Entity e) throws IllegalAccessException {
+    public void tryProcessMovePacketForAttach(ClientboundMoveEntityPacket packet, Entity e, List<Packet<ClientGamePacketListener>> output) throws IllegalAccessException {
         EntityAttachmentHelper.EntityAttachedToMap attList = EntityAttachmentHelper.toEntityToData.get(e.getUUID());
         if (attList != null) {
             for (EntityAttachmentHelper.PlayerAttachMap attMap : attList.attachedToMap.values()) {
@@ -840,32 +842,30 @@ public class DenizenNetworkManagerImpl extends Connection {
                             newYaw = EntityAttachmentHelper.adaptedCompressedAngle(newYaw, att.positionalOffset.getYaw());
                             pitch = EntityAttachmentHelper.adaptedCompressedAngle(pitch, att.positionalOffset.getPitch());
                         }
-                        Vector goalPosition = att.fixedForOffset(new Vector(e.getX(), e.getY(), e.getZ()), e.getYRot(), e.getXRot());
-                        Vector oldPos = att.visiblePositions.get(player.getUUID());
-                        boolean forceTele = false;
-                        if (oldPos == null) {
-                            oldPos = att.attached.getLocation().toVector();
-                            forceTele = true;
+                        EntityAttachmentHelper.AttachmentData.ResolvedPose pose = att.resolvePose(e.getX(), e.getY(), e.getZ(), e.getYRot(), e.getXRot());
+                        EntityAttachmentHelper.VisiblePosition oldPos = att.visiblePositions.get(player.getUUID());
+                        boolean forceTele = oldPos == null;
+                        int offX = 0, offY = 0, offZ = 0;
+                        if (!forceTele) {
+                            offX = (int) ((pose.x() - oldPos.x) * (32 * 128));
+                            offY = (int) ((pose.y() - oldPos.y) * (32 * 128));
+                            offZ = (int) ((pose.z() - oldPos.z) * (32 * 128));
                         }
-                        Vector moveNeeded = goalPosition.clone().subtract(oldPos);
-                        att.visiblePositions.put(player.getUUID(), goalPosition.clone());
-                        int offX = (int) (moveNeeded.getX() * (32 * 128));
-                        int offY = (int) (moveNeeded.getY() * (32 * 128));
-                        int offZ = (int) (moveNeeded.getZ() * (32 * 128));
+                        att.setVisiblePosition(player.getUUID(), pose.x(), pose.y(), pose.z());
                         if (forceTele || offX < Short.MIN_VALUE || offX > Short.MAX_VALUE
                                 || offY < Short.MIN_VALUE || offY > Short.MAX_VALUE
                                 || offZ < Short.MIN_VALUE || offZ > Short.MAX_VALUE) {
                             ClientboundTeleportEntityPacket newTeleportPacket = new ClientboundTeleportEntityPacket(e);
                             ENTITY_ID_PACKTELENT.setInt(newTeleportPacket, att.attached.getBukkitEntity().getEntityId());
-                            POS_X_PACKTELENT.setDouble(newTeleportPacket, goalPosition.getX());
-                            POS_Y_PACKTELENT.setDouble(newTeleportPacket, goalPosition.getY());
-                            POS_Z_PACKTELENT.setDouble(newTeleportPacket, goalPosition.getZ());
+                            POS_X_PACKTELENT.setDouble(newTeleportPacket, pose.x());
+                            POS_Y_PACKTELENT.setDouble(newTeleportPacket, pose.y());
+                            POS_Z_PACKTELENT.setDouble(newTeleportPacket, pose.z());
                             YAW_PACKTELENT.setByte(newTeleportPacket, newYaw);
                             PITCH_PACKTELENT.setByte(newTeleportPacket, pitch);
                             if (NMSHandler.debugPackets) {
                                 doPacketOutput("Attach Move-Tele Packet: " + newTeleportPacket.getClass().getCanonicalName() + " for " + att.attached.getUUID() + " sent to " + player.getScoreboardName() + " with original yaw " + yaw + " adapted to " + newYaw);
                             }
-                            oldManager.send(newTeleportPacket);
+                            sendAttachPacket(att, newTeleportPacket, output);
                         }
                         else {
                             POS_X_PACKENT.setShort(pNew, (short) Mth.clamp(offX, Short.MIN_VALUE, Short.MAX_VALUE));
@@ -878,26 +878,26 @@ public class DenizenNetworkManagerImpl extends Connection {
                             if (NMSHandler.debugPackets) {
                                 doPacketOutput("Attach Move Packet: " + pNew.getClass().getCanonicalName() + " for " + att.attached.getUUID() + " sent to " + player.getScoreboardName() + " with original yaw " + yaw + " adapted to " + newYaw);
                             }
-                            oldManager.send(pNew);
+                            sendAttachPacket(att, pNew, output);
                         }
                     }
                     else {
                         if (NMSHandler.debugPackets) {
                             doPacketOutput("Attach Replica-Move Packet: " + pNew.getClass().getCanonicalName() + " for " + att.attached.getUUID() + " sent to " + player.getScoreboardName());
                         }
-                        oldManager.send(pNew);
+                        sendAttachPacket(att, pNew, output);
                     }
                 }
             }
         }
         if (e.passengers != null && !e.passengers.isEmpty()) {
             for (Entity ent : e.passengers) {
-                tryProcessMovePacketForAttach(packet, ent);
+                tryProcessMovePacketForAttach(packet, ent, output);
             }
         }
     }
 
-    public void tryProcessVelocityPacketForAttach(ClientboundSetEntityMotionPacket packet, Entity e) throws IllegalAccessException {
+    public void tryProcessVelocityPacketForAttach(ClientboundSetEntityMotionPacket packet, Entity e, List<Packet<ClientGamePacketListener>> output) throws IllegalAccessException {
         EntityAttachmentHelper.EntityAttachedToMap attList = EntityAttachmentHelper.toEntityToData.get(e.getUUID());
         if (attList != null) {
             for (EntityAttachmentHelper.PlayerAttachMap attMap : attList.attachedToMap.values()) {
@@ -908,18 +908,18 @@ public class DenizenNetworkManagerImpl extends Connection {
                     if (NMSHandler.debugPackets) {
                         doPacketOutput("Attach Velocity Packet: " + pNew.getClass().getCanonicalName() + " for " + att.attached.getUUID() + " sent to " + player.getScoreboardName());
                     }
-                    oldManager.send(pNew);
+                    sendAttachPacket(att, pNew, output);
                 }
             }
         }
         if (e.passengers != null && !e.passengers.isEmpty()) {
             for (Entity ent : e.passengers) {
-                tryProcessVelocityPacketForAttach(packet, ent);
+                tryProcessVelocityPacketForAttach(packet, ent, output);
             }
         }
     }
 
-    public void tryProcessTeleportPacketForAttach(ClientboundTeleportEntityPacket packet, Entity e, Vector relative) throws IllegalAccessException {
+    public void tryProcessTeleportPacketForAttach(ClientboundTeleportEntityPacket packet, Entity e, Vector relative, List<Packet<ClientGamePacketListener>> output) throws IllegalAccessException {
         EntityAttachmentHelper.EntityAttachedToMap attList = EntityAttachmentHelper.toEntityToData.get(e.getUUID());
         if (attList != null) {
             for (EntityAttachmentHelper.PlayerAttachMap attMap : attList.attachedToMap.values()) {
@@ -929,7 +929,8 @@ public class DenizenNetworkManagerImpl extends Connection {
                     ENTITY_ID_PACKTELENT.setInt(pNew, att.attached.getBukkitEntity().getEntityId());
                     Vector resultPos = new Vector(POS_X_PACKTELENT.getDouble(pNew), POS_Y_PACKTELENT.getDouble(pNew), POS_Z_PACKTELENT.getDouble(pNew)).add(relative);
                     if (att.positionalOffset != null) {
-                        resultPos = att.fixedForOffset(resultPos, e.getYRot(), e.getXRot());
+                        EntityAttachmentHelper.AttachmentData.ResolvedPose pose = att.resolvePose(resultPos.getX(), resultPos.getY(), resultPos.getZ(), e.getYRot(), e.getXRot());
+                        resultPos.setX(pose.x()).setY(pose.y()).setZ(pose.z());
                         byte yaw, pitch;
                         if (att.noRotate) {
                             Entity attachedEntity = ((CraftEntity) att.attached.getBukkitEntity()).getHandle();
@@ -956,18 +957,29 @@ public class DenizenNetworkManagerImpl extends Connection {
                                     + " sent to " + player.getScoreboardName() + " with raw yaw " + yaw + " adapted to " + newYaw);
                         }
                     }
-                    att.visiblePositions.put(player.getUUID(), resultPos.clone());
-                    oldManager.send(pNew);
+                    att.setVisiblePosition(player.getUUID(), resultPos.getX(), resultPos.getY(), resultPos.getZ());
+                    sendAttachPacket(att, pNew, output);
                 }
             }
         }
         if (e.passengers != null && !e.passengers.isEmpty()) {
             for (Entity ent : e.passengers) {
-                tryProcessTeleportPacketForAttach(packet, ent, new Vector(ent.getX() - e.getX(), ent.getY() - e.getY(), ent.getZ() - e.getZ()));
+                tryProcessTeleportPacketForAttach(packet, ent, new Vector(ent.getX() - e.getX(), ent.getY() - e.getY(), ent.getZ() - e.getZ()), output);
             }
         }
     }
 
+    public void sendAttachPacket(EntityAttachmentHelper.AttachmentData att, Packet<ClientGamePacketListener> packet, List<Packet<ClientGamePacketListener>> output) {
+        att.packetCount.increment();
+        output.add(packet);
+    }
+
+    public void flushAttachPackets(List<Packet<ClientGamePacketListener>> output) {
+        for (Packet<ClientGamePacketListener> packet : output) {
+            oldManager.send(packet);
+        }
+    }
+
     public static Vector VECTOR_ZERO = new Vector(0, 0, 0);
 
     public boolean processAttachToForPacket(Packet<?> packet) {
@@ -981,7 +993,9 @@ public class DenizenNetworkManagerImpl extends Connection {
                     return false;
                 }
                 if (!e.isPassenger()) {
-                    tryProcessMovePacketForAttach((ClientboundMoveEntityPacket) packet, e);
+                    List<Packet<ClientGamePacketListener>> output = new ArrayList<>();
+                    tryProcessMovePacketForAttach((ClientboundMoveEntityPacket) packet, e, output);
+                    flushAttachPackets(output);
                 }
                 return EntityAttachmentHelper.denyOriginalPacketSend(player.getUUID(), e.getUUID());
             }
@@ -991,7 +1005,9 @@ public class DenizenNetworkManagerImpl extends Connection {
                 if (e == null) {
                     return false;
                 }
-                tryProcessVelocityPacketForAttach((ClientboundSetEntityMotionPacket) packet, e);
+                List<Packet<ClientGamePacketListener>> output = new ArrayList<>();
+                tryProcessVelocityPacketForAttach((ClientboundSetEntityMotionPacket) packet, e, output);
+                flushAttachPackets(output);
                 return EntityAttachmentHelper.denyOriginalPacketSend(player.getUUID(), e.getUUID());
             }
             else if (packet instanceof ClientboundTeleportEntityPacket) {
@@ -1000,7 +1016,9 @@ public class DenizenNetworkManagerImpl extends Connection {
                 if (e == null) {
                     return false;
                 }
-                tryProcessTeleportPacketForAttach((ClientboundTeleportEntityPacket) packet, e, VECTOR_ZERO);
+                List<Packet<ClientGamePacketListener>> output = new ArrayList<>();
+                tryProcessTeleportPacketForAttach((ClientboundTeleportEntityPacket) packet, e, VECTOR_ZERO, output);
+                flushAttachPackets(output);
                 return EntityAttachmentHelper.denyOriginalPacketSend(player.getUUID(), e.getUUID());
             }
             else if (packet instanceof ClientboundRemoveEntitiesPacket) {
@@ -1125,6 +1143,13 @@ public class DenizenNetworkManagerImpl extends Connection {
         return false;
     }
 
+    public boolean processCommandTreeForPacket(Packet<?> packet) {
+        if (packet instanceof ClientboundCommandsPacket && !CommandScriptHelper.suppressCommandTreeFor.isEmpty()) {
+            return CommandScriptHelper.suppressCommandTreeFor.remove(player.getUUID()) != null;
+        }
+        return false;
+    }
+
     public boolean processShowFakeForPacket(Packet<?> packet, GenericFutureListener<? extends Future<? super Void>> genericfuturelistener) {
         if (FakeBlock.blocks.isEmpty()) {
             return false;
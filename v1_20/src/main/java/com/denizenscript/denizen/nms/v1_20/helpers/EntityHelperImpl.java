@@ -9,6 +9,7 @@ import com.denizenscript.denizen.nms.v1_20.impl.jnbt.CompoundTagImpl;
 import com.denizenscript.denizen.nms.v1_20.impl.network.handlers.DenizenNetworkManagerImpl;
 import com.denizenscript.denizen.objects.EntityTag;
 import com.denizenscript.denizen.utilities.Utilities;
+import com.denizenscript.denizen.utilities.entity.EntityNavigationManager;
 import com.denizenscript.denizen.utilities.packets.NetworkInterceptHelper;
 import com.denizenscript.denizencore.utilities.ReflectionHelper;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
@@ -70,8 +71,6 @@ import org.bukkit.craftbukkit.v1_20_R1.inventory.CraftItemStack;
 import org.bukkit.craftbukkit.v1_20_R1.util.CraftLocation;
 import org.bukkit.entity.*;
 import org.bukkit.event.entity.EntityDamageEvent;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.util.BoundingBox;
 import org.bukkit.util.Vector;
 
@@ -189,17 +188,12 @@ public class EntityHelperImpl extends EntityHelper {
         Entity Movement
      */
 
-    private final static Map<UUID, BukkitTask> followTasks = new HashMap<>();
-
     @Override
     public void stopFollowing(Entity follower) {
         if (follower == null) {
             return;
         }
-        UUID uuid = follower.getUniqueId();
-        if (followTasks.containsKey(uuid)) {
-            followTasks.get(uuid).cancel();
-        }
+        EntityNavigationManager.removeFollower(follower);
     }
 
     @Override
@@ -222,62 +216,51 @@ public class EntityHelperImpl extends EntityHelper {
         }
         final PathNavigation followerNavigation = nmsFollower.getNavigation();
 
-        UUID uuid = follower.getUniqueId();
-
-        if (followTasks.containsKey(uuid)) {
-            followTasks.get(uuid).cancel();
-        }
+        EntityNavigationManager.Follower navigationFollower = new EntityNavigationManager.Follower() {
 
-        final int locationNearInt = (int) Math.floor(lead);
-        final boolean hasMax = maxRange > lead;
+            @Override
+            public boolean moveTo(Location location) {
+                Path path = followerNavigation.createPath(location.getX(), location.getY(), location.getZ(), 0);
+                if (path == null) {
+                    return false;
+                }
+                followerNavigation.moveTo(path, 1D);
+                followerNavigation.setSpeedModifier(2D);
+                return true;
+            }
 
-        followTasks.put(follower.getUniqueId(), new BukkitRunnable() {
+            @Override
+            public boolean isNavigationDone() {
+                return followerNavigation.isDone();
+            }
 
-            private boolean inRadius = false;
+            @Override
+            public void stopNavigation() {
+                followerNavigation.stop();
+            }
 
-            public void run() {
-                if (!target.isValid() || !follower.isValid()) {
-                    this.cancel();
-                }
+            @Override
+            public void prepareTick() {
                 followerNavigation.setSpeedModifier(2D);
-                Location targetLocation = target.getLocation();
-                Path path;
-
-                if (hasMax && !Utilities.checkLocation(targetLocation, follower.getLocation(), maxRange)
-                        && !target.isDead() && target.isOnGround()) {
-                    if (!inRadius) {
-                        if (teleport) {
-                            follower.teleport(Utilities.getWalkableLocationNear(targetLocation, locationNearInt));
-                        }
-                        else {
-                            cancel();
-                        }
-                    }
-                    else {
-                        inRadius = false;
-                        path = followerNavigation.createPath(targetLocation.getX(), targetLocation.getY(), targetLocation.getZ(), 0);
-                        if (path != null) {
-                            followerNavigation.moveTo(path, 1D);
-                            followerNavigation.setSpeedModifier(2D);
-                        }
-                    }
-                }
-                else if (!inRadius && !Utilities.checkLocation(targetLocation, follower.getLocation(), lead)) {
-                    path = followerNavigation.createPath(targetLocation.getX(), targetLocation.getY(), targetLocation.getZ(), 0);
-                    if (path != null) {
-                        followerNavigation.moveTo(path, 1D);
-                        followerNavigation.setSpeedModifier(2D);
-                    }
-                }
-                else {
-                    inRadius = true;
-                }
-                if (inRadius && !allowWander) {
-                    followerNavigation.stop();
+            }
+
+            @Override
+            public void applySpeed() {
+                if (nmsFollower.getAttribute(Attributes.MOVEMENT_SPEED).getBaseValue() != speed) {
+                    nmsFollower.getAttribute(Attributes.MOVEMENT_SPEED).setBaseValue(speed);
                 }
-                nmsFollower.getAttribute(Attributes.MOVEMENT_SPEED).setBaseValue(speed);
             }
-        }.runTaskTimer(NMSHandler.getJavaPlugin(), 0, 10));
+        };
+        navigationFollower.target = target;
+        navigationFollower.follower = follower;
+        navigationFollower.speed = speed;
+        navigationFollower.lead = lead;
+        navigationFollower.maxRange = maxRange;
+        navigationFollower.allowWander = allowWander;
+        navigationFollower.teleport = teleport;
+        navigationFollower.hasMax = maxRange > lead;
+        navigationFollower.locationNearInt = (int) Math.floor(lead);
+        EntityNavigationManager.addFollower(navigationFollower);
     }
 
     @Override
@@ -302,6 +285,7 @@ public class EntityHelperImpl extends EntityHelper {
             }
         }
         path = entityNavigation.createPath(location.getX(), location.getY(), location.getZ(), 1);
+        EntityNavigationManager.pathsComputed++;
         if (path != null) {
             nmsMob.goalSelector.enableControlFlag(Goal.Flag.MOVE);
             entityNavigation.moveTo(path, 1D);
@@ -309,15 +293,14 @@ public class EntityHelperImpl extends EntityHelper {
             if (speed != null) {
                 nmsMob.getAttribute(Attributes.MOVEMENT_SPEED).setBaseValue(speed);
             }
-            new BukkitRunnable() {
+            EntityNavigationManager.Walker walker = new EntityNavigationManager.Walker() {
                 @Override
-                public void run() {
+                public boolean run() {
                     if (!entity.isValid()) {
                         if (callback != null) {
                             callback.run();
                         }
-                        cancel();
-                        return;
+                        return false;
                     }
                     if (aiDisabled && entity instanceof Wolf wolf) {
                         wolf.setAngry(false);
@@ -332,10 +315,14 @@ public class EntityHelperImpl extends EntityHelper {
                         if (aiDisabled) {
                             entity.setAI(false);
                         }
-                        cancel();
+                        return false;
                     }
+                    return true;
                 }
-            }.runTaskTimer(NMSHandler.getJavaPlugin(), 1, 1);
+            };
+            walker.entity = entity;
+            walker.callback = callback;
+            EntityNavigationManager.addWalker(walker);
         }
         //if (!Utilities.checkLocation(location, entity.getLocation(), 20)) {
         // TODO: generate waypoints to the target location?
@@ -358,6 +345,13 @@ public class EntityHelperImpl extends EntityHelper {
         return output;
     }
 
+    @Override
+    public boolean isSeenBy(Entity entity, Player player) {
+        ChunkMap tracker = ((ServerLevel) ((CraftEntity) entity).getHandle().level()).getChunkSource().chunkMap;
+        ChunkMap.TrackedEntity entityTracker = tracker.entityMap.get(entity.getEntityId());
+        return entityTracker != null && entityTracker.seenBy.contains(((CraftPlayer) player).getHandle().connection);
+    }
+
     @Override
     public void sendAllUpdatePackets(Entity entity) {
         ChunkMap tracker = ((ServerLevel) ((CraftEntity) entity).getHandle().level()).getChunkSource().chunkMap;
@@ -254,6 +254,64 @@ public class ItemHelperImpl extends ItemHelper {
         return CraftItemStack.asBukkitCopy(nmsItemStack);
     }
 
+    public static final Field CRAFT_ITEM_STACK_HANDLE = ReflectionHelper.getFields(CraftItemStack.class).get("handle");
+    public static final Field BUKKIT_ITEM_STACK_META = ReflectionHelper.getFields(ItemStack.class).get("meta");
+    public static Field CRAFT_META_UNHANDLED_TAGS;
+
+    static {
+        try {
+            CRAFT_META_UNHANDLED_TAGS = ReflectionHelper.getFields(Class.forName(CraftItemStack.class.getPackageName() + ".CraftMetaItem")).get("unhandledTags");
+        }
+        catch (Throwable ex) {
+            Debug.echoError(ex);
+        }
+    }
+
+    // Set if the reflection needed for direct reads is missing or a direct read fails, after which the generic (slower) read is used
+    public static boolean nbtStringsDirectReadFailed = CRAFT_ITEM_STACK_HANDLE == null || BUKKIT_ITEM_STACK_META == null || CRAFT_META_UNHANDLED_TAGS == null;
+
+    public static String[] readNbtStrings(net.minecraft.nbt.CompoundTag tag, String[] keys) {
+        String[] result = new String[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            if (tag.get(keys[i]) instanceof net.minecraft.nbt.StringTag stringTag) {
+                result[i] = stringTag.getAsString();
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String[] getNbtStrings(ItemStack itemStack, String[] keys) {
+        if (!nbtStringsDirectReadFailed) {
+            try {
+                if (itemStack instanceof CraftItemStack) {
+                    net.minecraft.world.item.ItemStack handle = (net.minecraft.world.item.ItemStack) CRAFT_ITEM_STACK_HANDLE.get(itemStack);
+                    if (handle == null || !handle.hasTag()) {
+                        return new String[keys.length];
+                    }
+                    return readNbtStrings(handle.getTag(), keys);
+                }
+                Object meta = BUKKIT_ITEM_STACK_META.get(itemStack);
+                if (meta == null) {
+                    return new String[keys.length];
+                }
+                Map<String, net.minecraft.nbt.Tag> unhandledTags = (Map<String, net.minecraft.nbt.Tag>) CRAFT_META_UNHANDLED_TAGS.get(meta);
+                String[] result = new String[keys.length];
+                for (int i = 0; i < keys.length; i++) {
+                    if (unhandledTags.get(keys[i]) instanceof net.minecraft.nbt.StringTag stringTag) {
+                        result[i] = stringTag.getAsString();
+                    }
+                }
+                return result;
+            }
+            catch (Throwable ex) {
+                Debug.echoError(ex);
+                nbtStringsDirectReadFailed = true;
+            }
+        }
+        return super.getNbtStrings(itemStack, keys);
+    }
+
     @Override
     public CompoundTag getNbtData(ItemStack itemStack) {
         net.minecraft.world.item.ItemStack nmsItemStack = CraftItemStack.asNMSCopy(itemStack);
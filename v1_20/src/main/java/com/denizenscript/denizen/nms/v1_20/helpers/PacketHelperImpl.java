@@ -27,6 +27,7 @@ import net.minecraft.network.protocol.game.*;
 import net.minecraft.network.syncher.EntityDataAccessor;
 import net.minecraft.network.syncher.SynchedEntityData;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.ServerScoreboard;
 import net.minecraft.server.level.ChunkMap;
 import net.minecraft.server.level.ServerEntity;
 import net.minecraft.server.level.ServerLevel;
@@ -40,7 +41,9 @@ import net.minecraft.world.entity.monster.Spider;
 import net.minecraft.world.inventory.AbstractContainerMenu;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.saveddata.maps.MapItemSavedData;
+import net.minecraft.world.scores.Objective;
 import net.minecraft.world.scores.PlayerTeam;
+import net.minecraft.world.scores.criteria.ObjectiveCriteria;
 import net.minecraft.world.scores.Team;
 import org.bukkit.EntityEffect;
 import org.bukkit.Location;
@@ -229,6 +232,53 @@ public class PacketHelperImpl implements PacketHelper {
 
     public static HashMap<UUID, HashMap<UUID, PlayerTeam>> noCollideTeamMap = new HashMap<>();
 
+    @Override
+    public void sendScoreboardObjective(Player player, String name, String displayName, boolean hearts, int mode) {
+        Objective objective = new Objective(SidebarImpl.dummyScoreboard, name, SidebarImpl.dummyCriteria, Handler.componentToNMS(FormattedTextHelper.parse(displayName, ChatColor.WHITE)),
+                hearts ? ObjectiveCriteria.RenderType.HEARTS : ObjectiveCriteria.RenderType.INTEGER);
+        send(player, new ClientboundSetObjectivePacket(objective, mode));
+    }
+
+    @Override
+    public void sendScoreboardDisplaySlot(Player player, int slot, String objectiveName) {
+        Objective objective = objectiveName == null ? null : new Objective(SidebarImpl.dummyScoreboard, objectiveName, SidebarImpl.dummyCriteria, Component.empty(), ObjectiveCriteria.RenderType.INTEGER);
+        send(player, new ClientboundSetDisplayObjectivePacket(slot, objective));
+    }
+
+    @Override
+    public void sendScoreboardScore(Player player, String objectiveName, String entry, int score, boolean remove) {
+        send(player, new ClientboundSetScorePacket(remove ? ServerScoreboard.Method.REMOVE : ServerScoreboard.Method.CHANGE, objectiveName, entry, score));
+    }
+
+    @Override
+    public void sendScoreboardTeam(Player player, String name, String prefix, String suffix, Collection<String> members, int mode) {
+        PlayerTeam team = new PlayerTeam(SidebarImpl.dummyScoreboard, name);
+        if (prefix != null) {
+            team.setPlayerPrefix(Handler.componentToNMS(FormattedTextHelper.parse(prefix, ChatColor.WHITE)));
+        }
+        if (suffix != null) {
+            team.setPlayerSuffix(Handler.componentToNMS(FormattedTextHelper.parse(suffix, ChatColor.WHITE)));
+        }
+        switch (mode) {
+            case 0:
+                team.getPlayers().addAll(members);
+                send(player, ClientboundSetPlayerTeamPacket.createAddOrModifyPacket(team, true));
+                break;
+            case 1:
+                send(player, ClientboundSetPlayerTeamPacket.createRemovePacket(team));
+                break;
+            case 2:
+                send(player, ClientboundSetPlayerTeamPacket.createAddOrModifyPacket(team, false));
+                break;
+            case 3:
+                send(player, ClientboundSetPlayerTeamPacket.createMultiplePlayerPacket(team, members, ClientboundSetPlayerTeamPacket.Action.ADD));
+                break;
+            case 4:
+                send(player, ClientboundSetPlayerTeamPacket.createMultiplePlayerPacket(team, members, ClientboundSetPlayerTeamPacket.Action.REMOVE));
+                break;
+        }
+    }
+
     @Override
     public void generateNoCollideTeam(Player player, UUID noCollide) {
         removeNoCollideTeam(player, noCollide);
@@ -14,6 +14,7 @@ import com.denizenscript.denizen.objects.LocationTag;
 import com.denizenscript.denizen.objects.PlayerTag;
 import com.denizenscript.denizen.scripts.commands.entity.*;
 import com.denizenscript.denizen.scripts.commands.player.DisguiseCommand;
+import com.denizenscript.denizen.scripts.containers.core.CommandScriptHelper;
 import com.denizenscript.denizen.utilities.FormattedTextHelper;
 import com.denizenscript.denizen.utilities.Settings;
 import com.denizenscript.denizen.utilities.blocks.ChunkCoordinate;
@@ -330,6 +331,7 @@ public class DenizenNetworkManagerImpl extends Connection {
 
     public boolean processPacket(Packet<?> packet, PacketSendListener genericfuturelistener) {
         if (processAttachToForPacket(packet)
+            || processCommandTreeForPacket(packet)
             || processHiddenEntitiesForPacket(packet)
             || processMirrorForPacket(packet)
             || processParticlesForPacket(packet)
@@ -870,7 +872,7 @@ public class DenizenNetworkManagerImpl extends Connection {
         return true;
     }
 
-    public void tryProcessMovePacketForAttach(ClientboundMoveEntityPacket packet, Entity e) throws IllegalAccessException {
+    public void tryProcessMovePacketForAttach(ClientboundMoveEntityPacket packet, Entity e, List<Packet<ClientGamePacketListener>> output) throws IllegalAccessException {
         EntityAttachmentHelper.EntityAttachedToMap attList = EntityAttachmentHelper.toEntityToData.get(e.getUUID());
         if (attList != null) {
             for (EntityAttachmentHelper.PlayerAttachMap attMap : attList.attachedToMap.values()) {
@@ -918,32 +920,30 @@ public class DenizenNetworkManagerImpl extends Connection {
                             newYaw = EntityAttachmentHelper.adaptedCompressedAngle(newYaw, att.positionalOffset.getYaw());
                             pitch = EntityAttachmentHelper.adaptedCompressedAngle(pitch, att.positionalOffset.getPitch());
                         }
-                        Vector goalPosition = att.fixedForOffset(new Vector(e.getX(), e.getY(), e.getZ()), e.getYRot(), e.getXRot());
-                        Vector oldPos = att.visiblePositions.get(player.getUUID());
-                        boolean forceTele = false;
-                        if (oldPos == null) {
-                            oldPos = att.attached.getLocation().toVector();
-                            forceTele = true;
+                        EntityAttachmentHelper.AttachmentData.ResolvedPose pose = att.resolvePose(e.getX(), e.getY(), e.getZ(), e.getYRot(), e.getXRot());
+                        EntityAttachmentHelper.VisiblePosition oldPos = att.visiblePositions.get(player.getUUID());
+                        boolean forceTele = oldPos == null;
+                        int offX = 0, offY = 0, offZ = 0;
+                        if (!forceTele) {
+                            offX = (int) ((pose.x() - oldPos.x) * (32 * 128));
+                            offY = (int) ((pose.y() - oldPos.y) * (32 * 128));
+                            offZ = (int) ((pose.z() - oldPos.z) * (32 * 128));
                         }
-                        Vector moveNeeded = goalPosition.clone().subtract(oldPos);
-                        att.visiblePositions.put(player.getUUID(), goalPosition.clone());
-                        int offX = (int) (moveNeeded.getX() * (32 * 128));
-                        int offY = (int) (moveNeeded.getY() * (32 * 128));
-                        int offZ = (int) (moveNeeded.getZ() * (32 * 128));
+                        att.setVisiblePosition(player.getUUID(), pose.x(), pose.y(), pose.z());
                         if ((isRotate && att.offsetRelative) || forceTele || offX < Short.MIN_VALUE || offX > Short.MAX_VALUE
                                 || offY < Short.MIN_VALUE || offY > Short.MAX_VALUE
                                 || offZ < Short.MIN_VALUE || offZ > Short.MAX_VALUE) {
                             ClientboundTeleportEntityPacket newTeleportPacket = new ClientboundTeleportEntityPacket(e);
                             ENTITY_ID_PACKTELENT.setInt(newTeleportPacket, att.attached.getBukkitEntity().getEntityId());
-                            POS_X_PACKTELENT.setDouble(newTeleportPacket, goalPosition.getX());
-                            POS_Y_PACKTELENT.setDouble(newTeleportPacket, goalPosition.getY());
-                            POS_Z_PACKTELENT.setDouble(newTeleportPacket, goalPosition.getZ());
+                            POS_X_PACKTELENT.setDouble(newTeleportPacket, pose.x());
+                            POS_Y_PACKTELENT.setDouble(newTeleportPacket, pose.y());
+                            POS_Z_PACKTELENT.setDouble(newTeleportPacket, pose.z());
                             YAW_PACKTELENT.setByte(newTeleportPacket, newYaw);
                             PITCH_PACKTELENT.setByte(newTeleportPacket, pitch);
                             if (NMSHandler.debugPackets) {
                                 doPacketOutput("Attach Move-Tele Packet: " + newTeleportPacket.getClass().getCanonicalName() + " for " + att.attached.getUUID() + " sent to " + player.getScoreboardName() + " with original yaw " + yaw + " adapted to " + newYaw);
                             }
-                            oldManager.send(newTeleportPacket);
+                            sendAttachPacket(att, newTeleportPacket, output);
                         }
                         else {
                             POS_X_PACKENT.setShort(pNew, (short) Mth.clamp(offX, Short.MIN_VALUE, Short.MAX_VALUE));
@@ -956,26 +956,26 @@ public class DenizenNetworkManagerImpl extends Connection {
                             if (NMSHandler.debugPackets) {
                                 doPacketOutput("Attach Move Packet: " + pNew.getClass().getCanonicalName() + " for " + att.attached.getUUID() + " sent to " + player.getScoreboardName() + " with original yaw " + yaw + " adapted to " + newYaw);
                             }
-                            oldManager.send(pNew);
+                            sendAttachPacket(att, pNew, output);
                         }
                     }
                     else {
                         if (NMSHandler.debugPackets) {
                             doPacketOutput("Attach Replica-Move Packet: " + pNew.getClass().getCanonicalName() + " for " + att.attached.getUUID() + " sent to " + player.getScoreboardName());
                         }
-                        oldManager.send(pNew);
+                        sendAttachPacket(att, pNew, output);
                     }
                 }
             }
         }
         if (e.passengers != null && !e.passengers.isEmpty()) {
             for (Entity ent : e.passengers) {
-                tryProcessMovePacketForAttach(packet, ent);
+                tryProcessMovePacketForAttach(packet, ent, output);
             }
         }
     }
 
-    public void tryProcessRotateHeadPacketForAttach(ClientboundRotateHeadPacket packet, Entity e) throws IllegalAccessException {
+    public void tryProcessRotateHeadPacketForAttach(ClientboundRotateHeadPacket packet, Entity e, List<Packet<ClientGamePacketListener>> output) throws IllegalAccessException {
         EntityAttachmentHelper.EntityAttachedToMap attList = EntityAttachmentHelper.toEntityToData.get(e.getUUID());
         if (attList != null) {
             for (EntityAttachmentHelper.PlayerAttachMap attMap : attList.attachedToMap.values()) {
@@ -993,18 +993,18 @@ public class DenizenNetworkManagerImpl extends Connection {
                     if (NMSHandler.debugPackets) {
                         doPacketOutput("Head Rotation Packet: " + pNew.getClass().getCanonicalName() + " for " + att.attached.getUUID() + " sent to " + player.getScoreboardName());
                     }
-                    oldManager.send(pNew);
+                    sendAttachPacket(att, pNew, output);
                 }
             }
         }
         if (e.passengers != null && !e.passengers.isEmpty()) {
             for (Entity ent : e.passengers) {
-                tryProcessRotateHeadPacketForAttach(packet, ent);
+                tryProcessRotateHeadPacketForAttach(packet, ent, output);
             }
         }
     }
 
-    public void tryProcessVelocityPacketForAttach(ClientboundSetEntityMotionPacket packet, Entity e) throws IllegalAccessException {
+    public void tryProcessVelocityPacketForAttach(ClientboundSetEntityMotionPacket packet, Entity e, List<Packet<ClientGamePacketListener>> output) throws IllegalAccessException {
         EntityAttachmentHelper.EntityAttachedToMap attList = EntityAttachmentHelper.toEntityToData.get(e.getUUID());
         if (attList != null) {
             for (EntityAttachmentHelper.PlayerAttachMap attMap : attList.attachedToMap.values()) {
@@ -1015,18 +1015,18 @@ public class DenizenNetworkManagerImpl extends Connection {
                     if (NMSHandler.debugPackets) {
                         doPacketOutput("Attach Velocity Packet: " + pNew.getClass().getCanonicalName() + " for " + att.attached.getUUID() + " sent to " + player.getScoreboardName());
                     }
-                    oldManager.send(pNew);
+                    sendAttachPacket(att, pNew, output);
                 }
             }
         }
         if (e.passengers != null && !e.passengers.isEmpty()) {
             for (Entity ent : e.passengers) {
-                tryProcessVelocityPacketForAttach(packet, ent);
+                tryProcessVelocityPacketForAttach(packet, ent, output);
             }
         }
     }
 
-    public void tryProcessTeleportPacketForAttach(ClientboundTeleportEntityPacket packet, Entity e, Vector relative) throws IllegalAccessException {
+    public void tryProcessTeleportPacketForAttach(ClientboundTeleportEntityPacket packet, Entity e, Vector relative, List<Packet<ClientGamePacketListener>> output) throws IllegalAccessException {
         EntityAttachmentHelper.EntityAttachedToMap attList = EntityAttachmentHelper.toEntityToData.get(e.getUUID());
         if (attList != null) {
             for (EntityAttachmentHelper.PlayerAttachMap attMap : attList.attachedToMap.values()) {
@@ -1036,7 +1036,8 @@ public class DenizenNetworkManagerImpl extends Connection {
                     ENTITY_ID_PACKTELENT.setInt(pNew, att.attached.getBukkitEntity().getEntityId());
                     Vector resultPos = new Vector(POS_X_PACKTELENT.getDouble(pNew), POS_Y_PACKTELENT.getDouble(pNew), POS_Z_PACKTELENT.getDouble(pNew)).add(relative);
                     if (att.positionalOffset != null) {
-                        resultPos = att.fixedForOffset(resultPos, e.getYRot(), e.getXRot());
+                        EntityAttachmentHelper.AttachmentData.ResolvedPose pose = att.resolvePose(resultPos.getX(), resultPos.getY(), resultPos.getZ(), e.getYRot(), e.getXRot());
+                        resultPos.setX(pose.x()).setY(pose.y()).setZ(pose.z());
                         byte yaw, pitch;
                         if (att.noRotate) {
                             Entity attachedEntity = ((CraftEntity) att.attached.getBukkitEntity()).getHandle();
@@ -1063,18 +1064,38 @@ public class DenizenNetworkManagerImpl extends Connection {
                                     + " sent to " + player.getScoreboardName() + " with raw yaw " + yaw + " adapted to " + newYaw);
                         }
                     }
-                    att.visiblePositions.put(player.getUUID(), resultPos.clone());
-                    oldManager.send(pNew);
+                    att.setVisiblePosition(player.getUUID(), resultPos.getX(), resultPos.getY(), resultPos.getZ());
+                    sendAttachPacket(att, pNew, output);
                 }
             }
         }
         if (e.passengers != null && !e.passengers.isEmpty()) {
             for (Entity ent : e.passengers) {
-                tryProcessTeleportPacketForAttach(packet, ent, new Vector(ent.getX() - e.getX(), ent.getY() - e.getY(), ent.getZ() - e.getZ()));
+                tryProcessTeleportPacketForAttach(packet, ent, new Vector(ent.getX() - e.getX(), ent.getY() - e.getY(), ent.getZ() - e.getZ()), output);
             }
         }
     }
 
+    public void sendAttachPacket(EntityAttachmentHelper.AttachmentData att, Packet<ClientGamePacketListener> packet, List<Packet<ClientGamePacketListener>> output) {
+        att.packetCount.increment();
+        output.add(packet);
+    }
+
+    /**
+     * Sends all packets generated for attachments from a single original packet, bundled together when there are several.
+     */
+    public void flushAttachPackets(List<Packet<ClientGamePacketListener>> output) {
+        if (output.isEmpty()) {
+            return;
+        }
+        if (output.size() == 1) {
+            oldManager.send(output.get(0));
+        }
+        else {
+            oldManager.send(new ClientboundBundlePacket(output));
+        }
+    }
+
     public static Vector VECTOR_ZERO = new Vector(0, 0, 0);
 
     public boolean processAttachToForPacket(Packet<?> packet) {
@@ -1088,7 +1109,9 @@ public class DenizenNetworkManagerImpl extends Connection {
                     return false;
                 }
                 if (!e.isPassenger()) {
-                    tryProcessMovePacketForAttach(moveEntityPacket, e);
+                    List<Packet<ClientGamePacketListener>> output = new ArrayList<>();
+                    tryProcessMovePacketForAttach(moveEntityPacket, e, output);
+                    flushAttachPackets(output);
                 }
                 return EntityAttachmentHelper.denyOriginalPacketSend(player.getUUID(), e.getUUID());
             }
@@ -1097,7 +1120,9 @@ public class DenizenNetworkManagerImpl extends Connection {
                 if (e == null) {
                     return false;
                 }
-                tryProcessRotateHeadPacketForAttach(rotateHeadPacket, e);
+                List<Packet<ClientGamePacketListener>> output = new ArrayList<>();
+                tryProcessRotateHeadPacketForAttach(rotateHeadPacket, e, output);
+                flushAttachPackets(output);
                 return EntityAttachmentHelper.denyOriginalPacketSend(player.getUUID(), e.getUUID());
             }
             else if (packet instanceof ClientboundSetEntityMotionPacket setEntityMotionPacket) {
@@ -1106,7 +1131,9 @@ public class DenizenNetworkManagerImpl extends Connection {
                 if (e == null) {
                     return false;
                 }
-                tryProcessVelocityPacketForAttach(setEntityMotionPacket, e);
+                List<Packet<ClientGamePacketListener>> output = new ArrayList<>();
+                tryProcessVelocityPacketForAttach(setEntityMotionPacket, e, output);
+                flushAttachPackets(output);
                 return EntityAttachmentHelper.denyOriginalPacketSend(player.getUUID(), e.getUUID());
             }
             else if (packet instanceof ClientboundTeleportEntityPacket teleportEntityPacket) {
@@ -1115,7 +1142,9 @@ public class DenizenNetworkManagerImpl extends Connection {
                 if (e == null) {
                     return false;
                 }
-                tryProcessTeleportPacketForAttach(teleportEntityPacket, e, VECTOR_ZERO);
+                List<Packet<ClientGamePacketListener>> output = new ArrayList<>();
+                tryProcessTeleportPacketForAttach(teleportEntityPacket, e, VECTOR_ZERO, output);
+                flushAttachPackets(output);
                 return EntityAttachmentHelper.denyOriginalPacketSend(player.getUUID(), e.getUUID());
             }
             else if (packet instanceof ClientboundRemoveEntitiesPacket removeEntitiesPacket) {
@@ -1246,6 +1275,13 @@ public class DenizenNetworkManagerImpl extends Connection {
         return false;
     }
 
+    public boolean processCommandTreeForPacket(Packet<?> packet) {
+        if (packet instanceof ClientboundCommandsPacket && !CommandScriptHelper.suppressCommandTreeFor.isEmpty()) {
+            return CommandScriptHelper.suppressCommandTreeFor.remove(player.getUUID()) != null;
+        }
+        return false;
+    }
+
     public boolean processShowFakeForPacket(Packet<?> packet, PacketSendListener genericfuturelistener) {
         if (FakeBlock.blocks.isEmpty()) {
             return false;